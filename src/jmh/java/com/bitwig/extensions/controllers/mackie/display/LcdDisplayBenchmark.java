@@ -0,0 +1,109 @@
+package com.bitwig.extensions.controllers.mackie.display;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
+import com.bitwig.extensions.controllers.mackie.MackieMcuProExtensionDefinition;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler;
+import com.bitwig.extensions.controllers.mackie.layer.ChannelSection.SectionType;
+import com.bitwig.extensions.headless.FakeHost;
+import com.bitwig.extensions.headless.FakeMidiOut;
+
+/**
+ * Bursts of {@link LcdDisplay#sendToRow} for all eight channel segments
+ * followed by a flush, as a parameter page change or a moving fader produce
+ * them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LcdDisplayBenchmark {
+	private final String[] names = new String[8];
+	private final String[][] otherNames = new String[2][8];
+	private final String[][] values = new String[2][8];
+
+	private FakeMidiOut midiOut;
+	private LcdDisplay display;
+	private int phase = 0;
+
+	@Setup
+	public void setup() {
+		final FakeHost host = new FakeHost();
+		final MackieMcuProExtension driver = new MackieMcuProExtensionDefinition().createInstance(host.getHost());
+		midiOut = host.getMidiOut(0);
+
+		final MidiOutScheduler output = new MidiOutScheduler(host.getHost(), midiOut.getMidiOut());
+		output.setPassThrough(true);
+		display = new LcdDisplay(driver, output, SectionType.MAIN);
+
+		for (int segment = 0; segment < 8; segment++) {
+			names[segment] = "Track" + (segment + 1);
+			values[0][segment] = "-" + segment + ".0dB";
+			values[1][segment] = "+" + segment + ".5dB";
+			otherNames[0][segment] = "Audio" + segment;
+			otherNames[1][segment] = "Inst " + segment;
+		}
+
+		writeRow(0, names);
+		writeRow(1, values[0]);
+		display.flush();
+	}
+
+	/**
+	 * Only the values in the second row change.
+	 */
+	@Benchmark
+	public int valueBurst() {
+		phase ^= 1;
+		writeRow(0, names);
+		writeRow(1, values[phase]);
+		return flush();
+	}
+
+	/**
+	 * Both rows change, as after switching the track bank.
+	 */
+	@Benchmark
+	public int fullRewrite() {
+		phase ^= 1;
+		writeRow(0, otherNames[phase]);
+		writeRow(1, values[phase]);
+		return flush();
+	}
+
+	/**
+	 * The same texts are written again, nothing needs to be sent.
+	 */
+	@Benchmark
+	public int unchangedBurst() {
+		writeRow(0, names);
+		writeRow(1, values[phase]);
+		return flush();
+	}
+
+	private void writeRow(final int row, final String[] texts) {
+		for (int segment = 0; segment < texts.length; segment++) {
+			display.sendToRow(row, segment, texts[segment]);
+		}
+	}
+
+	private int flush() {
+		midiOut.clear();
+		display.flush();
+		return midiOut.getByteCount();
+	}
+}
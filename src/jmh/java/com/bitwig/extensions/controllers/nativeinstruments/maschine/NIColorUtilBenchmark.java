@@ -0,0 +1,63 @@
+package com.bitwig.extensions.controllers.nativeinstruments.maschine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts a pad grid worth of colors to the Maschine palette, once with the
+ * colors of the Bitwig palette, which map exactly, and once with arbitrary
+ * colors, which go through the quantization table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NIColorUtilBenchmark {
+	private static final int COLOR_COUNT = 16;
+
+	private final float[][] paletteColors = new float[COLOR_COUNT][];
+	private final float[][] arbitraryColors = new float[COLOR_COUNT][];
+
+	@Setup
+	public void setup() {
+		final BitWigColor[] palette = BitWigColor.values();
+		final Random random = new Random(1);
+		for (int i = 0; i < COLOR_COUNT; i++) {
+			final int rgb = palette[i % palette.length].getLookupIndex();
+			paletteColors[i] = new float[] { (rgb >> 16 & 0xFF) / 255f, (rgb >> 8 & 0xFF) / 255f,
+					(rgb & 0xFF) / 255f };
+			arbitraryColors[i] = new float[] { random.nextFloat(), random.nextFloat(), random.nextFloat() };
+		}
+	}
+
+	@Benchmark
+	public int convertPaletteColors() {
+		return convertAll(paletteColors);
+	}
+
+	@Benchmark
+	public int convertArbitraryColors() {
+		return convertAll(arbitraryColors);
+	}
+
+	private static int convertAll(final float[][] colors) {
+		int sum = 0;
+		for (final float[] color : colors) {
+			sum += NIColorUtil.convertColor(color[0], color[1], color[2]);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,95 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extension.controller.api.ClipLauncherSlot;
+import com.bitwig.extensions.headless.FakeHost;
+import com.bitwig.extensions.headless.FakeMidiOut;
+
+/**
+ * Flush of the Launchpad Pro in session mode. A full-grid repaint changes the color of every clip slot, as
+ * scrolling the session does; an idle flush has nothing to send. The fake host takes part in both, its
+ * overhead is the same for every version of the extension.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LaunchpadProFlushBenchmark
+{
+   @Setup
+   public void setup()
+   {
+      mHost = new FakeHost();
+      mExtension = (LaunchpadProControllerExtension)mHost
+         .start(new LaunchpadProControllerExtensionDefinition());
+      mMidiOut = mHost.getMidiOut(0);
+
+      for (int x = 0; x < 8; x++)
+      {
+         for (int y = 0; y < 8; y++)
+         {
+            final ClipLauncherSlot slot = mExtension.mTrackBank.getItemAt(x).clipLauncherSlotBank().getItemAt(y);
+            final int i = 8 * x + y;
+
+            mHost.setValue(slot.exists(), true);
+            mHost.setValue(slot.hasContent(), true);
+
+            mSlotColors[i] = slot.color();
+            mColors[0][i] = new float[] {(i % 8) / 8f, (i / 8) / 8f, 0.5f, 1};
+            mColors[1][i] = new float[] {(i / 8) / 8f, 0.5f, (i % 8) / 8f, 1};
+         }
+      }
+
+      mHost.flush();
+   }
+
+   @Benchmark
+   public int fullGridRepaint()
+   {
+      mPhase ^= 1;
+
+      for (int i = 0; i < mSlotColors.length; i++)
+         mHost.setValue(mSlotColors[i], mColors[mPhase][i]);
+
+      mMidiOut.clear();
+      mExtension.flush();
+
+      return mMidiOut.getByteCount();
+   }
+
+   @Benchmark
+   public int idleFlush()
+   {
+      mMidiOut.clear();
+      mExtension.flush();
+
+      return mMidiOut.getByteCount();
+   }
+
+   private FakeHost mHost;
+
+   private LaunchpadProControllerExtension mExtension;
+
+   private FakeMidiOut mMidiOut;
+
+   private final Object[] mSlotColors = new Object[64];
+
+   /** Two sets of colors for all slots, alternated on every repaint. */
+   private final float[][][] mColors = new float[2][64][];
+
+   private int mPhase;
+}
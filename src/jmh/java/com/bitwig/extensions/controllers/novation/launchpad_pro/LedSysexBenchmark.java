@@ -0,0 +1,89 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.headless.FakeHost;
+import com.bitwig.extensions.headless.FakeMidiOut;
+
+/**
+ * Encoding the RGB updates of all 64 pads, with the byte buffer used by the extension and with the hex
+ * strings it formatted before, as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LedSysexBenchmark
+{
+   @Setup
+   public void setup()
+   {
+      mFakeMidiOut = new FakeHost().getMidiOut(0);
+      mMidiOut = mFakeMidiOut.getMidiOut();
+      mLedUpdate = new LedSysexBuffer(mMidiOut, LedSysexBuffer.SET_LEDS_RGB_COMMAND, 4);
+   }
+
+   @Benchmark
+   public int byteBuffer()
+   {
+      mFakeMidiOut.clear();
+
+      for (int i = 0; i < PAD_COUNT; i++)
+         mLedUpdate.append(padIndex(i), i % 64, 63 - i % 64, 32);
+
+      mLedUpdate.send();
+
+      return mFakeMidiOut.getByteCount();
+   }
+
+   @Benchmark
+   public int hexStringsBaseline()
+   {
+      mFakeMidiOut.clear();
+
+      final StringBuilder ledUpdate = new StringBuilder();
+
+      for (int i = 0; i < PAD_COUNT; i++)
+      {
+         ledUpdate.append(String.format(" %02x %02x %02x %02x", padIndex(i), i % 64, 63 - i % 64, 32));
+
+         if (ledUpdate.length() >= 4 * 3 * 48)
+         {
+            mMidiOut.sendSysex("F0 00 20 29 02 10 0B" + ledUpdate + " F7");
+            ledUpdate.setLength(0);
+         }
+      }
+
+      if (ledUpdate.length() > 0)
+         mMidiOut.sendSysex("F0 00 20 29 02 10 0B" + ledUpdate + " F7");
+
+      return mFakeMidiOut.getByteCount();
+   }
+
+   private static int padIndex(final int i)
+   {
+      return 11 + 10 * (i / 8) + i % 8;
+   }
+
+   private static final int PAD_COUNT = 64;
+
+   private FakeMidiOut mFakeMidiOut;
+
+   private MidiOut mMidiOut;
+
+   private LedSysexBuffer mLedUpdate;
+}
@@ -0,0 +1,155 @@
+package com.bitwig.extensions.controllers.presonus.faderport;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.headless.FakeHost;
+import com.bitwig.extensions.headless.FakeMidiOut;
+
+/**
+ * Updates the 16 scribble strips of a FaderPort 16 as a flush does, with targets that report their changes
+ * and with targets that have to be polled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DisplayBenchmark
+{
+   @Param({"true", "false"})
+   public boolean reportsChanges;
+
+   @Setup
+   public void setup()
+   {
+      final FakeHost host = new FakeHost();
+      final PresonusFaderPort extension = new PresonusFaderPort16Definition().createInstance(host.getHost());
+      extension.mHardwareSurface = host.getHost().createHardwareSurface();
+
+      mMidiOut = host.getMidiOut(0);
+
+      for (int i = 0; i < CHANNEL_COUNT; i++)
+      {
+         final Display display = new Display(i, SYSEX_HEADER, extension);
+         final Target target = new Target(i, reportsChanges);
+
+         display.addTarget(target);
+         display.setDisplayTarget(target);
+         display.updateHardware();
+
+         mDisplays[i] = display;
+         mTargets[i] = target;
+      }
+   }
+
+   /** Nothing changed since the last flush. */
+   @Benchmark
+   public int unchanged()
+   {
+      return updateAll();
+   }
+
+   /** The value line of every strip changes, as when moving the faders of all channels. */
+   @Benchmark
+   public int valueChange()
+   {
+      mPhase ^= 1;
+
+      for (final Target target : mTargets)
+         target.setValuePhase(mPhase);
+
+      return updateAll();
+   }
+
+   private int updateAll()
+   {
+      mMidiOut.clear();
+
+      int lines = 0;
+
+      for (final Display display : mDisplays)
+         lines += display.updateHardware();
+
+      return lines;
+   }
+
+   /** A channel strip with a name, a value and a fixed label. */
+   private static final class Target implements DisplayTarget
+   {
+      Target(final int channel, final boolean reportsChanges)
+      {
+         mReportsChanges = reportsChanges;
+         mLines[0] = "Track " + (channel + 1);
+         mLines[1] = "Vol";
+         mValues[0] = "-" + channel + ".0 dB";
+         mValues[1] = "-" + channel + ".5 dB";
+         mLines[2] = mValues[0];
+      }
+
+      void setValuePhase(final int phase)
+      {
+         mLines[2] = mValues[phase];
+         mBarValue = phase * 64;
+
+         if (mListener != null)
+            mListener.run();
+      }
+
+      @Override
+      public int getBarValue()
+      {
+         return mBarValue;
+      }
+
+      @Override
+      public String getText(final int line)
+      {
+         return line < mLines.length ? mLines[line] : "";
+      }
+
+      @Override
+      public boolean addChangeListener(final Runnable listener)
+      {
+         if (!mReportsChanges)
+            return false;
+
+         mListener = listener;
+         return true;
+      }
+
+      private final boolean mReportsChanges;
+
+      private final String[] mLines = new String[3];
+
+      private final String[] mValues = new String[2];
+
+      private int mBarValue;
+
+      private Runnable mListener;
+   }
+
+   private static final int CHANNEL_COUNT = 16;
+
+   private static final String SYSEX_HEADER = "F0 00 01 06 16";
+
+   private FakeMidiOut mMidiOut;
+
+   private final Display[] mDisplays = new Display[CHANNEL_COUNT];
+
+   private final Target[] mTargets = new Target[CHANNEL_COUNT];
+
+   private int mPhase;
+}
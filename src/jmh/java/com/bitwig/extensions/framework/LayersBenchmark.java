@@ -0,0 +1,114 @@
+package com.bitwig.extensions.framework;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.headless.FakeHost;
+import com.bitwig.extensions.headless.HeadlessExtension;
+
+/**
+ * Cost of toggling a layer on top of layers with a growing number of bindings, like a shift layer on top
+ * of the modes of a grid controller. The toggled layer always has the same number of bindings, so the cost
+ * should not depend on the number of bindings below it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LayersBenchmark
+{
+   @Param({"64", "512", "4096"})
+   public int bindingsBelow;
+
+   @Setup
+   public void setup()
+   {
+      final FakeHost host = new FakeHost();
+      mLayers = new Layers(new HeadlessExtension(host));
+
+      final Object[] controls = new Object[bindingsBelow];
+
+      for (int i = 0; i < controls.length; i++)
+         controls[i] = new Object();
+
+      // Bindings below are spread over several layers, all active
+      for (int layerIndex = 0; layerIndex < LAYERS_BELOW; layerIndex++)
+      {
+         final Layer layer = mLayers.addLayer("Below " + layerIndex);
+
+         for (int i = layerIndex; i < controls.length; i += LAYERS_BELOW)
+            layer.addBinding(new NullBinding(controls[i]));
+
+         layer.activate();
+      }
+
+      // The toggled layer takes over some of the controls
+      mToggledLayer = mLayers.addLayer("Toggled");
+
+      for (int i = 0; i < TOGGLED_BINDINGS; i++)
+         mToggledLayer.addBinding(new NullBinding(controls[i * controls.length / TOGGLED_BINDINGS]));
+   }
+
+   @Benchmark
+   public int toggleLayer()
+   {
+      mToggledLayer.activate();
+      mToggledLayer.deactivate();
+
+      return mLayers.getLastBindingChangeCount();
+   }
+
+   @Benchmark
+   public int toggleLayerInBatch()
+   {
+      mLayers.batch(() -> {
+         mToggledLayer.activate();
+         mToggledLayer.deactivate();
+         mToggledLayer.activate();
+      });
+
+      mToggledLayer.deactivate();
+
+      return mLayers.getLastBindingChangeCount();
+   }
+
+   /** A binding that does not bind anything, so only the resolution of the layers is measured. */
+   private static final class NullBinding extends Binding<Object, Object>
+   {
+      NullBinding(final Object control)
+      {
+         super(control, control);
+      }
+
+      @Override
+      protected void deactivate()
+      {
+      }
+
+      @Override
+      protected void activate()
+      {
+      }
+   }
+
+   private static final int LAYERS_BELOW = 8;
+
+   private static final int TOGGLED_BINDINGS = 16;
+
+   private Layers mLayers;
+
+   private Layer mToggledLayer;
+}
@@ -0,0 +1,60 @@
+package com.bitwig.extensions.framework;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tests all 128 notes against a scale, as a keyboard layout does for every pad when coloring in and out of
+ * scale notes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MusicalScaleBenchmark
+{
+   @Param({"Ionan (Major)", "Minor Pentatonic", "Chromatic"})
+   public String scaleName;
+
+   @Setup
+   public void setup()
+   {
+      mScale = MusicalScaleLibrary.getInstance().getMusicalScale(scaleName);
+
+      if (mScale == null)
+         throw new IllegalArgumentException("Unknown scale " + scaleName);
+   }
+
+   @Benchmark
+   public int allNotes()
+   {
+      int count = 0;
+
+      for (int note = 0; note < 128; note++)
+      {
+         if (mScale.isMidiNoteInScale(mRootKey, note))
+            count++;
+      }
+
+      mRootKey = (mRootKey + 1) % 12;
+
+      return count;
+   }
+
+   private MusicalScale mScale;
+
+   private int mRootKey;
+}
@@ -0,0 +1,80 @@
+package com.bitwig.extensions.framework.animation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.headless.FakeHost;
+import com.bitwig.extensions.headless.HeadlessExtension;
+
+/**
+ * Cost of reading many running blink animations, as every LED with a blinking state does on every flush,
+ * and of advancing the shared animation clock by one frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnimationBenchmark
+{
+   @Param({"1", "64", "1024"})
+   public int animationCount;
+
+   @Setup
+   public void setup()
+   {
+      mHost = new FakeHost();
+
+      final HeadlessExtension extension = new HeadlessExtension(mHost);
+      mAnimations = new BlinkAnimation[animationCount];
+
+      for (int i = 0; i < animationCount; i++)
+      {
+         // Different durations so that the animations do not all change in the same frame
+         mAnimations[i] = new BlinkAnimation(extension, () -> true, () -> false, 0.1 + 0.01 * (i % 16));
+         mAnimations[i].getAsBoolean();
+      }
+
+      mFrameDuration = 1000 / mAnimations[0].getScheduler().getFramesPerSecond();
+   }
+
+   @Benchmark
+   public int getAll()
+   {
+      int onCount = 0;
+
+      for (final BlinkAnimation animation : mAnimations)
+      {
+         if (animation.getAsBoolean())
+            onCount++;
+      }
+
+      return onCount;
+   }
+
+   @Benchmark
+   public int nextFrameAndGetAll()
+   {
+      mHost.advanceTime(mFrameDuration);
+
+      return getAll();
+   }
+
+   private FakeHost mHost;
+
+   private BlinkAnimation[] mAnimations;
+
+   private long mFrameDuration;
+}
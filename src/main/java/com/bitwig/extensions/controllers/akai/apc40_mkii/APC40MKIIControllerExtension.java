@@ -244,14 +244,8 @@ public class APC40MKIIControllerExtension extends ControllerExtension
          for (int j = 0; j < 5; ++j)
          {
             final ClipLauncherSlot slot = clipLauncher.getItemAt(j);
-            slot.color().markInterested();
-            slot.isPlaybackQueued().markInterested();
-            slot.hasContent().markInterested();
-            slot.isPlaying().markInterested();
-            slot.isRecording().markInterested();
-            slot.isRecordingQueued().markInterested();
             slot.isStopQueued().markInterested();
-            slot.exists().markInterested();
+            mClipGrid.observeSlot(i, j, slot);
 
             sendBank.cursorIndex().markInterested();
             final Send send = sendBank.getItemAt(j);
@@ -1543,52 +1537,7 @@ public class APC40MKIIControllerExtension extends ControllerExtension
 
    private void paintPads()
    {
-      for (int i = 0; i < 8; ++i)
-      {
-         final Track track = mTrackBank.getItemAt(i);
-         final ClipLauncherSlotBank clipLauncherSlotBank = track.clipLauncherSlotBank();
-         for (int j = 0; j < 5; ++j)
-         {
-            final ClipLauncherSlot slot = clipLauncherSlotBank.getItemAt(j);
-            final RgbLed rgbLed = mGridLeds[i][j];
-
-            if (slot.exists().get() && slot.hasContent().get())
-               rgbLed.setColor(slot.color().red(), slot.color().green(), slot.color().blue());
-            else
-               rgbLed.setColor(RGBLedState.COLOR_NONE);
-
-            /*
-             * if (slot.isStopQueued().get()) { rgbLed.setBlinkType(RgbLed.BLINK_STOP_QUEUED);
-             * rgbLed.setBlinkColor(RgbLed.COLOR_STOPPING); } else
-             */if (slot.isRecordingQueued().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_RECORD_QUEUED);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_RECORDING);
-            }
-            else if (slot.isPlaybackQueued().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_PLAY_QUEUED);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_PLAYING);
-            }
-            else if (slot.isRecording().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_ACTIVE);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_RECORDING);
-            }
-            else if (slot.isPlaying().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_ACTIVE);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_PLAYING);
-            }
-            else /* stopped */
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_NONE);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_NONE);
-            }
-
-            rgbLed.paint(mMidiOut);
-         }
-      }
+      mClipGrid.paint(mGridLeds, mMidiOut);
    }
 
    private void flushKnobs()
@@ -1900,5 +1849,7 @@ public class APC40MKIIControllerExtension extends ControllerExtension
 
    private final RgbLed[][] mGridLeds = new RgbLed[8][5];
 
+   private final ClipGridModel mClipGrid = new ClipGridModel();
+
    private final RgbLed[] mSceneLeds = new RgbLed[5];
 }
@@ -0,0 +1,166 @@
+package com.bitwig.extensions.controllers.akai.apc40_mkii;
+
+import com.bitwig.extension.controller.api.ClipLauncherSlot;
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * State of the clip launcher grid, updated by the slot observers. Each slot is packed into one int holding
+ * the color, the blink color and the blink type of its pad, and pads whose packed state changed are marked
+ * in a bitset, so that a flush only repaints those.
+ */
+class ClipGridModel
+{
+   public static final int WIDTH = 8;
+
+   public static final int HEIGHT = 5;
+
+   public ClipGridModel()
+   {
+      super();
+
+      invalidate();
+   }
+
+   /** Registers the observers of the slot shown by the pad at x, y. */
+   public void observeSlot(final int x, final int y, final ClipLauncherSlot slot)
+   {
+      final int index = index(x, y);
+
+      slot.exists().addValueObserver(exists -> setFlag(index, EXISTS, exists));
+      slot.hasContent().addValueObserver(hasContent -> setFlag(index, HAS_CONTENT, hasContent));
+      slot.isRecordingQueued().addValueObserver(queued -> setFlag(index, RECORDING_QUEUED, queued));
+      slot.isPlaybackQueued().addValueObserver(queued -> setFlag(index, PLAYBACK_QUEUED, queued));
+      slot.isRecording().addValueObserver(recording -> setFlag(index, RECORDING, recording));
+      slot.isPlaying().addValueObserver(playing -> setFlag(index, PLAYING, playing));
+      slot.color().addValueObserver((red, green, blue) -> {
+         mColors[index] = RGBLedState.getColorValueForRGB(red, green, blue);
+         update(index);
+      });
+   }
+
+   /** Marks all pads to be repainted. */
+   public void invalidate()
+   {
+      mDirty = ALL_PADS;
+   }
+
+   public boolean isDirty()
+   {
+      return mDirty != 0;
+   }
+
+   /** The packed state of a pad, see {@link #color(int)}, {@link #blinkColor(int)} and {@link #blinkType(int)}. */
+   public int getState(final int x, final int y)
+   {
+      return mStates[index(x, y)];
+   }
+
+   /** Paints the pads that changed since the last call. */
+   public void paint(final RgbLed[][] leds, final MidiOut midiOut)
+   {
+      long dirty = mDirty;
+      mDirty = 0;
+
+      while (dirty != 0)
+      {
+         final int index = Long.numberOfTrailingZeros(dirty);
+         dirty &= dirty - 1;
+
+         final int state = mStates[index];
+         final RgbLed rgbLed = leds[index / HEIGHT][index % HEIGHT];
+
+         rgbLed.setColor(color(state));
+         rgbLed.setBlinkType(blinkType(state));
+         rgbLed.setBlinkColor(blinkColor(state));
+         rgbLed.paint(midiOut);
+      }
+   }
+
+   public static int color(final int state)
+   {
+      return state & 0xFF;
+   }
+
+   public static int blinkColor(final int state)
+   {
+      return (state >> 8) & 0xFF;
+   }
+
+   public static int blinkType(final int state)
+   {
+      return (state >> 16) & 0xFF;
+   }
+
+   private static int index(final int x, final int y)
+   {
+      return x * HEIGHT + y;
+   }
+
+   private void setFlag(final int index, final int flag, final boolean value)
+   {
+      if (value)
+         mFlags[index] |= flag;
+      else
+         mFlags[index] &= ~flag;
+
+      update(index);
+   }
+
+   private void update(final int index)
+   {
+      final int state = computeState(mFlags[index], mColors[index]);
+
+      if (state != mStates[index])
+      {
+         mStates[index] = state;
+         mDirty |= 1L << index;
+      }
+   }
+
+   private static int computeState(final int flags, final int color)
+   {
+      final int padColor = (flags & EXISTS) != 0 && (flags & HAS_CONTENT) != 0 ? color
+         : RGBLedState.COLOR_NONE;
+
+      if ((flags & RECORDING_QUEUED) != 0)
+         return pack(padColor, RGBLedState.COLOR_RECORDING, RGBLedState.BLINK_RECORD_QUEUED);
+
+      if ((flags & PLAYBACK_QUEUED) != 0)
+         return pack(padColor, RGBLedState.COLOR_PLAYING, RGBLedState.BLINK_PLAY_QUEUED);
+
+      if ((flags & RECORDING) != 0)
+         return pack(padColor, RGBLedState.COLOR_RECORDING, RGBLedState.BLINK_ACTIVE);
+
+      if ((flags & PLAYING) != 0)
+         return pack(padColor, RGBLedState.COLOR_PLAYING, RGBLedState.BLINK_ACTIVE);
+
+      return pack(padColor, RGBLedState.COLOR_NONE, RGBLedState.BLINK_NONE);
+   }
+
+   private static int pack(final int color, final int blinkColor, final int blinkType)
+   {
+      return (color & 0xFF) | (blinkColor & 0xFF) << 8 | (blinkType & 0xFF) << 16;
+   }
+
+   private static final int EXISTS = 1;
+
+   private static final int HAS_CONTENT = 1 << 1;
+
+   private static final int RECORDING_QUEUED = 1 << 2;
+
+   private static final int PLAYBACK_QUEUED = 1 << 3;
+
+   private static final int RECORDING = 1 << 4;
+
+   private static final int PLAYING = 1 << 5;
+
+   private static final long ALL_PADS = (1L << (WIDTH * HEIGHT)) - 1;
+
+   private final int[] mFlags = new int[WIDTH * HEIGHT];
+
+   private final int[] mColors = new int[WIDTH * HEIGHT];
+
+   private final int[] mStates = new int[WIDTH * HEIGHT];
+
+   private long mDirty;
+}
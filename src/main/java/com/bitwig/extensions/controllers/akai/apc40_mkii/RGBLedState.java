@@ -1,11 +1,9 @@
 package com.bitwig.extensions.controllers.akai.apc40_mkii;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.bitwig.extension.api.Color;
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
+import com.bitwig.extensions.framework.ColorQuantizer;
 
 class RGBLedState extends InternalHardwareLightState
 {
@@ -37,16 +35,17 @@ class RGBLedState extends InternalHardwareLightState
 
    public static final int BLINK_STOP_QUEUED = 12;
 
-   private static final Map<Integer, Integer> RGB_TO_COLOR_VALUE_MAP = new HashMap<>();
+   private static final int COLOR_DEFAULT = 13;
+
+   private static final ColorQuantizer RGB_TO_COLOR_VALUE = new ColorQuantizer(COLOR_DEFAULT);
 
-   private static final Map<Integer, Color> COLOR_VALUE_TO_COLOR_MAP = new HashMap<>();
+   private static final Color[] COLOR_VALUE_TO_COLOR = new Color[128];
 
    private static void registerColor(final int rgb, final int value)
    {
-      COLOR_VALUE_TO_COLOR_MAP.put(value,
-         Color.fromRGB255((rgb & 0xFF0000) >> 16, (rgb & 0xFF00) >> 8, rgb & 0xFF));
+      COLOR_VALUE_TO_COLOR[value] = Color.fromRGB255((rgb & 0xFF0000) >> 16, (rgb & 0xFF00) >> 8, rgb & 0xFF);
 
-      RGB_TO_COLOR_VALUE_MAP.put(rgb, value);
+      RGB_TO_COLOR_VALUE.addColor(rgb, value);
    }
 
    static
@@ -96,17 +95,20 @@ class RGBLedState extends InternalHardwareLightState
 
    public static int getColorValueForRGB(final int rgb)
    {
-      final Integer c = RGB_TO_COLOR_VALUE_MAP.get(rgb);
-
-      if (c != null)
-         return c;
+      return RGB_TO_COLOR_VALUE.getPaletteIndex(rgb);
+   }
 
-      return 13;
+   public static int getColorValueForRGB(final float red, final float green, final float blue)
+   {
+      return RGB_TO_COLOR_VALUE.getPaletteIndex(red, green, blue);
    }
 
    public static Color getColorForColorValue(final int colorValue)
    {
-      return COLOR_VALUE_TO_COLOR_MAP.get(colorValue);
+      if (colorValue < 0 || colorValue >= COLOR_VALUE_TO_COLOR.length)
+         return null;
+
+      return COLOR_VALUE_TO_COLOR[colorValue];
    }
 
    public RGBLedState(final int color, final int blinkColor, final int blinkType)
@@ -30,10 +30,9 @@ class RgbLed
       if (mColor != mDisplayedColor || mBlinkColor != mDisplayedBlinkColor
          || mBlinkType != mDisplayedBlinkType)
       {
-         midiOut.sendMidi(mMessage << 4, mData1, mColor);
-
          if (mBlinkType != RGBLedState.BLINK_NONE)
          {
+            // The pad alternates between the color on channel 1 and the color on the blink channel.
             midiOut.sendMidi(mMessage << 4, mData1, mBlinkColor);
             midiOut.sendMidi((mMessage << 4) | mBlinkType, mData1, mColor);
          }
@@ -50,12 +49,7 @@ class RgbLed
 
    public void setColor(final float red, final float green, final float blue)
    {
-      final int r8 = (int)(red * 255);
-      final int g8 = (int)(green * 255);
-      final int b8 = (int)(blue * 255);
-      final int total = (r8 << 16) | (g8 << 8) | b8;
-
-      mColor = RGBLedState.getColorValueForRGB(total);
+      mColor = RGBLedState.getColorValueForRGB(red, green, blue);
    }
 
    public void setColor(final int color)
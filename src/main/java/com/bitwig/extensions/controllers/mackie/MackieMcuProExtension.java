@@ -1,10 +1,16 @@
 package com.bitwig.extensions.controllers.mackie;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.bitwig.extension.api.util.midi.ShortMidiMessage;
 import com.bitwig.extension.callback.ShortMidiMessageReceivedCallback;
+import com.bitwig.extension.callback.SysexMidiDataReceivedCallback;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.ControllerExtensionDefinition;
 import com.bitwig.extension.controller.api.AbsoluteHardwareKnob;
@@ -23,8 +29,10 @@ import com.bitwig.extension.controller.api.PinnableCursorDevice;
 import com.bitwig.extension.controller.api.Project;
 import com.bitwig.extension.controller.api.RelativeHardwareKnob;
 import com.bitwig.extension.controller.api.SettableBooleanValue;
+import com.bitwig.extension.controller.api.SettableRangedValue;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler.Priority;
 import com.bitwig.extensions.controllers.mackie.bindings.FaderBinding;
 import com.bitwig.extensions.controllers.mackie.devices.DeviceTracker;
 import com.bitwig.extensions.controllers.mackie.devices.Devices;
@@ -38,8 +46,10 @@ import com.bitwig.extensions.controllers.mackie.value.BooleanValueObject;
 import com.bitwig.extensions.controllers.mackie.value.LayoutType;
 import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
 import com.bitwig.extensions.controllers.mackie.value.TrackModeValue;
+import com.bitwig.extensions.framework.FlushInstrumentation;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.MidiTrafficLog;
 
 public class MackieMcuProExtension extends ControllerExtension {
 
@@ -47,6 +57,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 	private static final double[] FFWD_SPEEDS = { 0.0625, 0.25, 1.0, 4.0 };
 	private static final double[] FFWD_SPEEDS_SHIFT = { 0.25, 1.0, 4.0, 16.0 };
 	private static final long[] FFWD_TIMES = { 500, 1000, 2000, 3000, 4000 };
+	private static final int INSTRUMENTATION_REPORT_INTERVAL = 10000;
 
 	private Layers layers;
 	private Layer mainLayer;
@@ -57,6 +68,9 @@ public class MackieMcuProExtension extends ControllerExtension {
 	private Application application;
 	private Project project;
 	private MidiOut midiOut;
+	private MidiOutScheduler output;
+	private MotorFader masterMotorFader;
+	private final List<MidiOutScheduler> outputs = new ArrayList<MidiOutScheduler>();
 	private MidiIn midiIn;
 	private CursorTrack cursorTrack;
 	private TrackBank mixerTrackBank;
@@ -84,6 +98,8 @@ public class MackieMcuProExtension extends ControllerExtension {
 	private DeviceTracker instrumentDevice;
 	private DeviceTracker pluginDevice;
 	private LayoutType currentLayoutType;
+	private MidiTrafficLog trafficLog;
+	private FlushInstrumentation instrumentation;
 
 	protected MackieMcuProExtension(final ControllerExtensionDefinition definition, final ControllerHost host,
 			final int extenders) {
@@ -106,9 +122,15 @@ public class MackieMcuProExtension extends ControllerExtension {
 			lightStatusMap[i] = -1;
 		}
 
-		midiOut = host.getMidiOutPort(0);
+		initDiagnostics();
+		midiOut = openMidiOutPort(0);
 		midiIn = host.getMidiInPort(0);
-		ledDisplay = new TimeCodeLed(midiOut);
+		output = new MidiOutScheduler(host, midiOut);
+		outputs.add(output);
+		ledDisplay = new TimeCodeLed(host, output);
+		final SettableRangedValue outputBudget = host.getPreferences().getNumberSetting("Output Bandwidth per Port",
+				"MIDI", 1000, 100000, 25, "bytes/s", MidiOutScheduler.DEFAULT_BYTES_PER_SECOND);
+		outputBudget.addRawValueObserver(v -> outputs.forEach(out -> out.setBytesPerSecond((int) v)));
 
 		initJogWheel();
 		initMasterSection();
@@ -122,7 +144,8 @@ public class MackieMcuProExtension extends ControllerExtension {
 		initFunctionSection();
 		initCursorSection();
 
-		midiIn.setMidiCallback((ShortMidiMessageReceivedCallback) msg -> onMidi0(msg));
+		final ShortMidiMessageReceivedCallback midiCallback = msg -> onMidi0(msg);
+		midiIn.setMidiCallback(trafficLog == null ? midiCallback : trafficLog.recordInput(0, midiCallback));
 
 		setUpMidiSysExCommands();
 		mainLayer.activate();
@@ -134,14 +157,80 @@ public class MackieMcuProExtension extends ControllerExtension {
 		host.scheduleTask(this::handlePing, 100);
 	}
 
+	/**
+	 * Enables the diagnostics selected in the preferences, changing them restarts
+	 * the extension.
+	 *
+	 * Recording writes the MIDI traffic of the session to the temporary directory
+	 * when the extension exits, see {@link MidiTrafficLog}, so it can be replayed
+	 * with the headless MidiReplay. Messages the host passes to hardware controls
+	 * do not reach the MIDI callbacks and are not recorded.
+	 *
+	 * Measuring reports the cost of the flushes and layer changes every few
+	 * seconds to the console and the studio I/O panel, see
+	 * {@link FlushInstrumentation}.
+	 */
+	private void initDiagnostics() {
+		final SettableBooleanValue recordTraffic = host.getPreferences().getBooleanSetting("Record MIDI Traffic",
+				"Diagnostics", false);
+		recordTraffic.markInterested();
+		if (recordTraffic.get()) {
+			trafficLog = new MidiTrafficLog();
+		}
+		recordTraffic.addValueObserver(record -> {
+			if (record != (trafficLog != null)) {
+				host.restart();
+			}
+		});
+
+		final SettableBooleanValue measureFlush = host.getPreferences().getBooleanSetting("Measure Flush",
+				"Diagnostics", false);
+		measureFlush.markInterested();
+		if (measureFlush.get()) {
+			instrumentation = new FlushInstrumentation(host, "Mackie MCU Pro");
+			instrumentation.instrument(layers);
+			instrumentation.showInDocumentState(host.getDocumentState());
+			instrumentation.setReportInterval(INSTRUMENTATION_REPORT_INTERVAL);
+		}
+		measureFlush.addValueObserver(measure -> {
+			if (measure != (instrumentation != null)) {
+				host.restart();
+			}
+		});
+	}
+
+	private MidiOut openMidiOutPort(final int port) {
+		MidiOut out = host.getMidiOutPort(port);
+		if (out != null && instrumentation != null) {
+			out = instrumentation.instrument(out);
+		}
+		if (out != null && trafficLog != null) {
+			out = trafficLog.recordOutput(port, out);
+		}
+		return out;
+	}
+
+	private void writeTrafficLog() {
+		final File file = new File(System.getProperty("java.io.tmpdir"),
+				"mackie-mcu-" + System.currentTimeMillis() + ".bwml");
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			trafficLog.writeTo(out);
+			host.println("MIDI traffic log written to " + file);
+		} catch (final IOException e) {
+			host.errorln("Writing the MIDI traffic log failed: " + e);
+		}
+	}
+
 	public void initChannelSections() {
-		mainSection = new ChannelSection(this, midiIn, midiOut, 0, SectionType.MAIN);
+		mainSection = new ChannelSection(this, midiIn, output, 0, SectionType.MAIN);
 		sections.add(mainSection);
 		for (int i = 0; i < nrOfExtenders; i++) {
-			final MidiOut extMidiOut = host.getMidiOutPort(i + 1);
+			final MidiOut extMidiOut = openMidiOutPort(i + 1);
 			final MidiIn extMidiIn = host.getMidiInPort(i + 1);
 			if (extMidiIn != null && extMidiOut != null) {
-				final ChannelSection extenderSection = new ChannelSection(this, extMidiIn, extMidiOut, i + 1,
+				final MidiOutScheduler extOutput = new MidiOutScheduler(host, extMidiOut);
+				outputs.add(extOutput);
+				final ChannelSection extenderSection = new ChannelSection(this, extMidiIn, extOutput, i + 1,
 						SectionType.XTENDER);
 				sections.add(extenderSection);
 			} else {
@@ -231,8 +320,8 @@ public class MackieMcuProExtension extends ControllerExtension {
 		final AbsoluteHardwareKnob masterFader = surface.createAbsoluteHardwareKnob("MASTER_FADER_");
 		masterFader.setAdjustValueMatcher(midiIn.createAbsolutePitchBendValueMatcher(8));
 		masterFader.addBinding(masterTrack.volume());
-		final MotorFader masterFaderResponse = new MotorFader(midiOut, 8);
-		mainLayer.addBinding(new FaderBinding(masterTrack.volume(), masterFaderResponse));
+		masterMotorFader = new MotorFader(getHost(), output, 8);
+		mainLayer.addBinding(new FaderBinding(masterTrack.volume(), masterMotorFader));
 
 		final HardwareButton masterTouchButton = surface.createHardwareButton("MASTER_TOUCH");
 		masterTouchButton.pressedAction()
@@ -241,6 +330,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 				.setActionMatcher(midiIn.createNoteOffActionMatcher(0, NoteOnAssignment.TOUCH_VOLUME.getNoteNo() + 8));
 		masterTouchButton.isPressed().addValueObserver(v -> {
 			// RemoteConsole.out.println("TOUCHED MASTER {}", v);
+			masterMotorFader.setTouched(v);
 		});
 	}
 
@@ -634,13 +724,14 @@ public class MackieMcuProExtension extends ControllerExtension {
 	}
 
 	private void setUpMidiSysExCommands() {
-		midiIn.setSysexCallback(data -> {
+		final SysexMidiDataReceivedCallback sysexCallback = data -> {
 			if (data.startsWith(SYSEX_DEVICE_RELOAD)) {
 				updateAll(data);
 			} else {
 //				RemoteConsole.out.println(" MIDI SYS EX {}", data);
 			}
-		});
+		};
+		midiIn.setSysexCallback(trafficLog == null ? sysexCallback : trafficLog.recordSysexInput(0, sysexCallback));
 	}
 
 	private void updateAll(final String command) {
@@ -648,7 +739,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 		sections.forEach(ChannelSection::fullHardwareUpdate);
 		for (int i = 0; i < lightStatusMap.length; i++) {
 			if (lightStatusMap[i] >= 0) {
-				midiOut.sendMidi(Midi.NOTE_ON, i, lightStatusMap[i]);
+				output.sendMidi(Priority.LED, Midi.NOTE_ON, i, lightStatusMap[i]);
 			}
 		}
 	}
@@ -703,7 +794,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 	public void sendLedUpdate(final NoteOnAssignment assingment, final int value) {
 		final int noteNr = assingment.getNoteNo();
 		lightStatusMap[noteNr] = value;
-		midiOut.sendMidi(assingment.getType(), assingment.getNoteNo(), value);
+		output.sendMidi(Priority.LED, assingment.getType(), assingment.getNoteNo(), value);
 	}
 
 	public Layer getMainLayer() {
@@ -715,6 +806,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 	@Override
 	public void exit() {
 		shutdownHook = true;
+		outputs.forEach(out -> out.setPassThrough(true));
 		final Thread shutdown = new Thread(() -> {
 			ledDisplay.clearAll();
 			sections.forEach(ChannelSection::resetLeds);
@@ -733,6 +825,9 @@ public class MackieMcuProExtension extends ControllerExtension {
 			} catch (final InterruptedException e) {
 			}
 		}
+		if (trafficLog != null) {
+			writeTrafficLog();
+		}
 		getHost().showPopupNotification(" Exit Mackie MCU Pro");
 	}
 
@@ -750,7 +845,22 @@ public class MackieMcuProExtension extends ControllerExtension {
 
 	@Override
 	public void flush() {
+		if (instrumentation != null) {
+			instrumentation.measureFlush(this::flushHardware);
+		} else {
+			flushHardware();
+		}
+		if (trafficLog != null) {
+			trafficLog.markFlush();
+		}
+	}
+
+	private void flushHardware() {
 		surface.updateHardware();
+		masterMotorFader.flush();
+		ledDisplay.flush();
+		sections.forEach(ChannelSection::flush);
+		outputs.forEach(MidiOutScheduler::flush);
 	}
 
 	public Project getProject() {
@@ -0,0 +1,305 @@
+package com.bitwig.extensions.controllers.mackie;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Queues the output of one MCU port and sends it within a bytes per second
+ * budget. Physical units run at 31.25 kbaud, so bursts of display or meter data
+ * would otherwise delay motor fader moves.
+ *
+ * Messages are sent in the order of their {@link Priority}, first in first out
+ * within a priority. A queued short message is replaced by a newer one for the
+ * same target (fader, LED, meter), sysex messages are never coalesced.
+ */
+public class MidiOutScheduler {
+	/**
+	 * 31250 baud, 10 bits per byte.
+	 */
+	public static final int DEFAULT_BYTES_PER_SECOND = 3125;
+	private static final int BURST_MS = 20;
+	private static final int MIN_DRAIN_DELAY_MS = 1;
+
+	public enum Priority {
+		FADER, LED, VU, TEXT;
+	}
+
+	private static class Message {
+		Priority priority;
+		int key;
+		int status;
+		int data1;
+		int data2;
+		byte[] sysex;
+		Message next;
+
+		int size() {
+			return sysex == null ? shortMessageSize(status) : sysex.length;
+		}
+	}
+
+	private final ControllerHost host;
+	private final MidiOut midiOut;
+
+	private final Message[] heads = new Message[Priority.values().length];
+	private final Message[] tails = new Message[Priority.values().length];
+	private final int[] queueDepths = new int[Priority.values().length];
+	/**
+	 * Queued short messages by target, see {@link #targetKey(int, int)}.
+	 */
+	private final Message[] pendingByTarget = new Message[1 << 15];
+	private Message freeMessages;
+
+	private int bytesPerSecond = DEFAULT_BYTES_PER_SECOND;
+	private double budget;
+	private long lastRefillTime;
+	private boolean drainScheduled = false;
+	private boolean passThrough = false;
+
+	private int maxQueueDepth = 0;
+	private long coalescedCount = 0;
+	private long bytesSent = 0;
+
+	public MidiOutScheduler(final ControllerHost host, final MidiOut midiOut) {
+		this.host = host;
+		this.midiOut = midiOut;
+		budget = burstSize();
+		lastRefillTime = System.nanoTime();
+	}
+
+	/**
+	 * @return the underlying port, for messages that need to bypass the budget
+	 */
+	public MidiOut getMidiOut() {
+		return midiOut;
+	}
+
+	public void setBytesPerSecond(final int bytesPerSecond) {
+		this.bytesPerSecond = Math.max(1, bytesPerSecond);
+		budget = Math.min(budget, burstSize());
+	}
+
+	public int getBytesPerSecond() {
+		return bytesPerSecond;
+	}
+
+	/**
+	 * With pass through enabled everything is sent immediately, used when the
+	 * extension exits and no further flush will drain the queue.
+	 */
+	public void setPassThrough(final boolean passThrough) {
+		this.passThrough = passThrough;
+		if (passThrough) {
+			drain(true);
+		}
+	}
+
+	public void sendMidi(final Priority priority, final int status, final int data1, final int data2) {
+		final int key = targetKey(status, data1);
+		final Message pending = pendingByTarget[key];
+		if (pending != null) {
+			pending.status = status;
+			pending.data1 = data1;
+			pending.data2 = data2;
+			coalescedCount++;
+			return;
+		}
+		final int size = shortMessageSize(status);
+		if (canSendNow(priority, size)) {
+			midiOut.sendMidi(status, data1, data2);
+			bytesSent += size;
+			return;
+		}
+		final Message message = obtainMessage(priority);
+		message.key = key;
+		message.status = status;
+		message.data1 = data1;
+		message.data2 = data2;
+		pendingByTarget[key] = message;
+		enqueue(message);
+	}
+
+	/**
+	 * Queues a sysex message. The data is copied, so the caller may reuse the
+	 * array.
+	 */
+	public void sendSysex(final Priority priority, final byte[] data) {
+		if (canSendNow(priority, data.length)) {
+			midiOut.sendSysex(data);
+			bytesSent += data.length;
+			return;
+		}
+		final Message message = obtainMessage(priority);
+		message.key = -1;
+		message.sysex = Arrays.copyOf(data, data.length);
+		enqueue(message);
+	}
+
+	/**
+	 * Sends as much of the queue as the budget allows, to be called from the
+	 * extension flush.
+	 */
+	public void flush() {
+		drain(passThrough);
+	}
+
+	public int getQueueDepth() {
+		int depth = 0;
+		for (final int queueDepth : queueDepths) {
+			depth += queueDepth;
+		}
+		return depth;
+	}
+
+	public int getQueueDepth(final Priority priority) {
+		return queueDepths[priority.ordinal()];
+	}
+
+	public int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * @return number of queued messages that were dropped because a newer message
+	 *         for the same target replaced them
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount;
+	}
+
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * Program change and channel pressure have a single data byte on the wire.
+	 */
+	private static int shortMessageSize(final int status) {
+		switch (status & 0xF0) {
+		case Midi.PROG_CHANGE:
+		case Midi.CHANNEL_AT:
+			return 2;
+		default:
+			return 3;
+		}
+	}
+
+	private static int targetKey(final int status, final int data1) {
+		switch (status & 0xF0) {
+		case Midi.PITCH_BEND:
+			return status << 7;
+		case Midi.CHANNEL_AT:
+			// the upper nibble selects the meter
+			return status << 7 | data1 >> 4;
+		default:
+			return (status & 0xFF) << 7 | data1 & 0x7F;
+		}
+	}
+
+	private double burstSize() {
+		return Math.max(3, bytesPerSecond * BURST_MS / 1000);
+	}
+
+	private void refill() {
+		final long now = System.nanoTime();
+		budget = Math.min(burstSize(), budget + (now - lastRefillTime) * bytesPerSecond / 1_000_000_000.0);
+		lastRefillTime = now;
+	}
+
+	private boolean canSendNow(final Priority priority, final int size) {
+		if (passThrough) {
+			return true;
+		}
+		for (int i = 0; i <= priority.ordinal(); i++) {
+			if (heads[i] != null) {
+				return false;
+			}
+		}
+		return consumeBudget(size);
+	}
+
+	private boolean consumeBudget(final int size) {
+		refill();
+		// messages larger than the burst size may go out once the budget is full
+		if (budget < size && budget < burstSize()) {
+			return false;
+		}
+		budget -= size;
+		return true;
+	}
+
+	private void drain(final boolean ignoreBudget) {
+		for (int i = 0; i < heads.length; i++) {
+			while (heads[i] != null) {
+				final Message message = heads[i];
+				if (!ignoreBudget && !consumeBudget(message.size())) {
+					scheduleDrain();
+					return;
+				}
+				heads[i] = message.next;
+				if (heads[i] == null) {
+					tails[i] = null;
+				}
+				queueDepths[i]--;
+				send(message);
+				releaseMessage(message);
+			}
+		}
+	}
+
+	private void scheduleDrain() {
+		if (drainScheduled) {
+			return;
+		}
+		drainScheduled = true;
+		final int delay = Math.max(MIN_DRAIN_DELAY_MS, (int) (-budget * 1000 / bytesPerSecond) + BURST_MS / 2);
+		host.scheduleTask(() -> {
+			drainScheduled = false;
+			drain(passThrough);
+		}, delay);
+	}
+
+	private void send(final Message message) {
+		if (message.sysex == null) {
+			pendingByTarget[message.key] = null;
+			midiOut.sendMidi(message.status, message.data1, message.data2);
+		} else {
+			midiOut.sendSysex(message.sysex);
+		}
+		bytesSent += message.size();
+	}
+
+	private void enqueue(final Message message) {
+		final int index = message.priority.ordinal();
+		if (tails[index] == null) {
+			heads[index] = message;
+		} else {
+			tails[index].next = message;
+		}
+		tails[index] = message;
+		queueDepths[index]++;
+		maxQueueDepth = Math.max(maxQueueDepth, getQueueDepth());
+		scheduleDrain();
+	}
+
+	private Message obtainMessage(final Priority priority) {
+		Message message = freeMessages;
+		if (message == null) {
+			message = new Message();
+		} else {
+			freeMessages = message.next;
+		}
+		message.priority = priority;
+		message.next = null;
+		return message;
+	}
+
+	private void releaseMessage(final Message message) {
+		message.sysex = null;
+		message.next = freeMessages;
+		freeMessages = message;
+	}
+
+}
@@ -2,7 +2,6 @@ package com.bitwig.extensions.controllers.mackie;
 
 import com.bitwig.extension.controller.api.HardwareButton;
 import com.bitwig.extension.controller.api.MidiIn;
-import com.bitwig.extension.controller.api.MidiOut;
 
 public enum NoteOnAssignment {
 	PLAY(94), //
@@ -60,8 +59,8 @@ public enum NoteOnAssignment {
 		button.pressedAction().setActionMatcher(midiIn.createNoteOnActionMatcher(channel, notNr));
 	}
 
-	public void send(final MidiOut midiOut, final int value) {
-		midiOut.sendMidi(Midi.NOTE_ON | channel, notNr, value);
+	public void send(final MidiOutScheduler midiOut, final int value) {
+		midiOut.sendMidi(MidiOutScheduler.Priority.LED, Midi.NOTE_ON | channel, notNr, value);
 	}
 
 }
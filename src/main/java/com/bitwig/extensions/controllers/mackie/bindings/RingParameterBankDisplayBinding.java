@@ -29,6 +29,10 @@ public class RingParameterBankDisplayBinding extends Binding<ParameterPage, Ring
 		}
 	}
 
+	public void setEnableValue(final int enableValue) {
+		lastEnableValue = enableValue;
+	}
+
 	public void update() {
 		if (isActive()) {
 			lastValue = getSource().getIntValue() + getSource().getRingDisplayType().getOffset();
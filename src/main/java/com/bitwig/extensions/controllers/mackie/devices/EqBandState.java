@@ -0,0 +1,55 @@
+package com.bitwig.extensions.controllers.mackie.devices;
+
+/**
+ * Cached state of the bands of an EQ+ device, updated by the parameter
+ * observers. Independent of the controller API, so that the enablement logic
+ * can be used and tested without a host.
+ *
+ * A band is active if it is enabled and its type is not off.
+ */
+public class EqBandState {
+	public static final int TYPE_OFF = 0;
+
+	private final int[] types;
+	private final boolean[] enabled;
+
+	public EqBandState(final int bands) {
+		types = new int[bands];
+		enabled = new boolean[bands];
+	}
+
+	public int getBandCount() {
+		return types.length;
+	}
+
+	/**
+	 * @return true if the active state of the band changed
+	 */
+	public boolean setType(final int band, final int type) {
+		final boolean wasActive = isActive(band);
+		types[band] = type;
+		return wasActive != isActive(band);
+	}
+
+	/**
+	 * @return true if the active state of the band changed
+	 */
+	public boolean setEnabled(final int band, final boolean enabled) {
+		final boolean wasActive = isActive(band);
+		this.enabled[band] = enabled;
+		return wasActive != isActive(band);
+	}
+
+	public boolean isActive(final int band) {
+		return enabled[band] && types[band] != TYPE_OFF;
+	}
+
+	public int getType(final int band) {
+		return types[band];
+	}
+
+	public boolean isEnabled(final int band) {
+		return enabled[band];
+	}
+
+}
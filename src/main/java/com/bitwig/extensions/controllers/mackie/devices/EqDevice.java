@@ -22,6 +22,7 @@ import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
  *
  */
 public class EqDevice implements ControlDevice {
+	private static final int BAND_COUNT = 8;
 	private final static String[] PNAMES = { "TYPE", "FREQ", "GAIN", "Q" };
 	private final static RingDisplayType[] RING_TYPES = { RingDisplayType.FILL_LR, RingDisplayType.SINGLE,
 			RingDisplayType.FILL_LR, RingDisplayType.FILL_LR };
@@ -43,7 +44,7 @@ public class EqDevice implements ControlDevice {
 	private final Device device;
 	private final List<ParameterPage> parameterSlots = new ArrayList<>();
 	private int pageIndex = 0;
-	private final int[] enableValues = new int[8];
+	private final EqBandState bandState = new EqBandState(BAND_COUNT);
 	private final List<Parameter> enableParams = new ArrayList<>();
 
 	public EqDevice(final MackieMcuProExtension driver, final DeviceMatcher matcher) {
@@ -57,19 +58,26 @@ public class EqDevice implements ControlDevice {
 			parameterSlots.add(new ParameterPage(i, this));
 		}
 
-		for (int i = 0; i < 8; i++) {
+		for (int i = 0; i < BAND_COUNT; i++) {
 			final Parameter enableParam = createEnableParam(i);
 			enableParams.add(enableParam);
+			final int band = i;
 			final int page = i / 2;
 			final int index = i % 2 * 4;
-			final Parameter typeParam = parameterSlots.get(index).getParameter(page);
-			typeParam.value().addValueObserver(v -> {
-				notifyEnablementFromType(page, index, enableParam, v);
+			// the active state of all bands is needed to paint a page when it is shown
+			parameterSlots.get(index).keepValueSubscribed(page);
+			parameterSlots.get(index).getParameter(page).value().addValueObserver(TYPES.length, v -> {
+				if (bandState.setType(band, v)) {
+					notifyBandActivation(band);
+				}
 			});
 			enableParam.value().addValueObserver(2, v -> {
-				notifyEnablementFromEnable(page, index, typeParam, v);
+				if (bandState.setEnabled(band, v > 0)) {
+					notifyBandActivation(band);
+				}
 			});
 		}
+		parameterSlots.forEach(slot -> slot.subscribePage(pageIndex));
 // final Just code to final list all parameters final of device
 //		device.addDirectParameterIdObserver(allp -> {
 //			for (final String pname : allp) {
@@ -78,15 +86,17 @@ public class EqDevice implements ControlDevice {
 //		});
 	}
 
-	private void notifyEnablementFromEnable(final int page, final int bandIndexOffset, final Parameter typeParam,
-			final int value) {
-		final int enabledValue = value * (typeParam.value().get() > 0 ? 1 : 0);
-		enableValues[bandIndexOffset / 4 + page * 2] = enabledValue;
-		if (page == pageIndex) {
-			for (int i = 0; i < 4; i++) {
-				final ParameterPage paramSlot = parameterSlots.get(i + bandIndexOffset);
-				paramSlot.notifyEnablement(enabledValue);
-			}
+	/**
+	 * Repaints the 4 slots of a band if it is shown and its active state changed.
+	 */
+	private void notifyBandActivation(final int band) {
+		if (band / 2 != pageIndex) {
+			return;
+		}
+		final int enabledValue = bandState.isActive(band) ? 1 : 0;
+		final int bandIndexOffset = band % 2 * 4;
+		for (int i = 0; i < 4; i++) {
+			parameterSlots.get(i + bandIndexOffset).notifyEnablement(enabledValue);
 		}
 	}
 
@@ -111,18 +121,6 @@ public class EqDevice implements ControlDevice {
 		}
 	}
 
-	private void notifyEnablementFromType(final int page, final int bandIndexOffset, final Parameter enableParam,
-			final double value) {
-		final int enabledValue = (value > 0 ? 1 : 0) * (enableParam.value().get() > 0 ? 1 : 0);
-		enableValues[bandIndexOffset / 4 + page * 2] = enabledValue;
-		if (page == pageIndex && pageIndex < 4) {
-			for (int i = 0; i < 4; i++) {
-				final ParameterPage paramSlot = parameterSlots.get(i + bandIndexOffset);
-				paramSlot.notifyEnablement(enabledValue);
-			}
-		}
-	}
-
 	private Parameter createEnableParam(final int index) {
 		final String enablePname = "ENABLE" + (index + 1);
 		final Parameter enableParam = bitwigDevice.createParameter(enablePname);
@@ -149,15 +147,10 @@ public class EqDevice implements ControlDevice {
 
 	private void updateSlots() {
 		parameterSlots.forEach(p -> p.updatePage(pageIndex));
-		if (pageIndex < 4) {
-			for (int i = 0; i < 4; i++) {
-				final ParameterPage paramSlot1 = parameterSlots.get(i);
-				paramSlot1.notifyEnablement(enableValues[pageIndex * 2]);
-				final ParameterPage paramSlot2 = parameterSlots.get(i + 4);
-				paramSlot2.notifyEnablement(enableValues[pageIndex * 2 + 1]);
-			}
-		} else {
-			parameterSlots.forEach(ps -> ps.notifyEnablement(1));
+		for (int i = 0; i < parameterSlots.size(); i++) {
+			final boolean isBandPage = pageIndex < BAND_COUNT / 2;
+			final boolean enabled = !isBandPage || bandState.isActive(pageIndex * 2 + i / 4);
+			parameterSlots.get(i).setEnablement(enabled ? 1 : 0);
 		}
 		parameterSlots.forEach(ParameterPage::triggerUpdate);
 	}
@@ -236,8 +229,7 @@ public class EqDevice implements ControlDevice {
 		if (pageIndex < 4) {
 			final int bandIndex = pageIndex * 2 + pindex / 4;
 			final Parameter enable = enableParams.get(bandIndex);
-			final double v = enable.get();
-			if (v == 0) {
+			if (!bandState.isEnabled(bandIndex)) {
 				enable.value().setImmediately(1.0);
 			} else {
 				enable.value().setImmediately(0);
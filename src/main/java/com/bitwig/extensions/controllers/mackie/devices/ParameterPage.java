@@ -50,6 +50,10 @@ public class ParameterPage implements SettableRangedValue {
 	private final List<DoubleConsumer> doulbeValueCallbacks = new ArrayList<>();
 
 	private final List<DeviceParameter> pages = new ArrayList<>();
+	// only the parameter of this page gets value updates from the host
+	private int subscribedPage = -1;
+	// pages whose parameter value stays subscribed, because it is observed elsewhere
+	private final List<Integer> valueSubscribedPages = new ArrayList<>();
 
 	public ParameterPage(final int index, final ControlDevice device) {
 
@@ -140,9 +144,63 @@ public class ParameterPage implements SettableRangedValue {
 
 	public void updatePage(final int currentPage) {
 		currentParameter = pages.get(currentPage);
+		subscribePage(currentPage);
 		resetBindings();
 	}
 
+	/**
+	 * Keeps the value of the parameter of the given page subscribed when another
+	 * page is shown, for parameters whose value is also observed outside this
+	 * slot. Has to be called before the first {@link #subscribePage(int)}.
+	 *
+	 * @param page the page of the parameter
+	 */
+	public void keepValueSubscribed(final int page) {
+		assert subscribedPage < 0;
+		valueSubscribedPages.add(page);
+	}
+
+	/**
+	 * Subscribes the parameter of the given page and unsubscribes the parameters
+	 * of all other pages, except the values kept subscribed by
+	 * {@link #keepValueSubscribed(int)}. Has to be called after all observers are registered,
+	 * since adding an observer subscribes a value.
+	 *
+	 * @param page the page currently shown
+	 */
+	public void subscribePage(final int page) {
+		if (subscribedPage == page) {
+			return;
+		}
+		if (subscribedPage < 0) {
+			for (int i = 0; i < pages.size(); i++) {
+				setSubscribed(i, i == page);
+			}
+		} else {
+			setSubscribed(subscribedPage, false);
+			setSubscribed(page, true);
+		}
+		subscribedPage = page;
+	}
+
+	private void setSubscribed(final int page, final boolean subscribed) {
+		final Parameter param = pages.get(page).parameter;
+		param.value().setIsSubscribed(subscribed || valueSubscribedPages.contains(page));
+		param.value().displayedValue().setIsSubscribed(subscribed);
+	}
+
+	/**
+	 * @return number of parameters of this slot whose value is currently
+	 *         subscribed
+	 */
+	public int getSubscribedParameterCount() {
+		if (subscribedPage < 0) {
+			return pages.size();
+		}
+		return valueSubscribedPages.contains(subscribedPage) ? valueSubscribedPages.size()
+				: valueSubscribedPages.size() + 1;
+	}
+
 	public void resetBindings() {
 		if (relativeEncoderBinding != null) {
 			this.relativeEncoderBinding.reset();
@@ -326,6 +384,14 @@ public class ParameterPage implements SettableRangedValue {
 		ringBinding.handleEnabled(value);
 	}
 
+	/**
+	 * Sets the enablement without updating the ring, for when a
+	 * {@link #triggerUpdate()} follows.
+	 */
+	public void setEnablement(final int value) {
+		ringBinding.setEnableValue(value);
+	}
+
 	public void doReset(final ModifierValueObject modifier) {
 		currentParameter.parameter.reset();
 	}
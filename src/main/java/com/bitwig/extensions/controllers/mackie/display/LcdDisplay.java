@@ -1,8 +1,13 @@
 package com.bitwig.extensions.controllers.mackie.display;
 
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
 import com.bitwig.extensions.controllers.mackie.Midi;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler.Priority;
 import com.bitwig.extensions.controllers.mackie.StringUtil;
 import com.bitwig.extensions.controllers.mackie.layer.ChannelSection.SectionType;
 
@@ -13,40 +18,57 @@ import com.bitwig.extensions.controllers.mackie.layer.ChannelSection.SectionType
 public class LcdDisplay {
 	private static final int DISPLAY_LEN = 55;
 	private static final int ROW2_START = 56;
+	private static final int CHAR_COUNT = 2 * ROW2_START;
+	private static final int SEGMENT_LEN = 7;
+	/**
+	 * Sysex header (7 bytes) plus the terminating F7. Two dirty ranges separated
+	 * by fewer unchanged characters than this are cheaper to send as one message.
+	 */
+	private static final int MESSAGE_OVERHEAD = 8;
+	private static final byte UNKNOWN = (byte) 0xFF;
 
-	private final byte[] rowDisplayBuffer = { //
-			(byte) 0XF0, 0, 0, 0X66, 0x14, 0x12, 0, // z: the grid number Zone number 0-3 * 28
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, (byte) 247 };
-	private final byte[] segBuffer = { //
-			(byte) 240, 0, 0, 102, 20, 18, 0, // z: the grid number Zone number 0-3 * 28
-			0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			(byte) 247 };
-	public String sysHead;
+	private final byte[] header = { (byte) 0XF0, 0, 0, 0X66, 0x14, 0x12 };
+	/**
+	 * Characters the display should show (row 1 at 0, row 2 at {@link #ROW2_START}).
+	 */
+	private final byte[] frameBuffer = new byte[CHAR_COUNT];
+	/**
+	 * Characters last sent to the device, {@link #UNKNOWN} if not known.
+	 */
+	private final byte[] sentBuffer = new byte[CHAR_COUNT];
+	/**
+	 * Sysex messages cached by the number of characters they carry.
+	 */
+	private final byte[][] messageBuffers = new byte[CHAR_COUNT + 1][];
+	private int dirtyFrom = CHAR_COUNT;
+	private int dirtyTo = -1;
 
-	private final String[][] lastSendGrids = new String[][] { { "", "", "", "", "", "", "", "" },
-			{ "", "", "", "", "", "", "", "" } };
+	private int lastFlushBytes = 0;
+	private int lastFlushMessages = 0;
+	private long totalBytesSent = 0;
+
+	public String sysHead;
 
 	private final MidiOut midiOut;
+	private final MidiOutScheduler output;
+	private final ControllerHost host;
 
 	/**
 	 * @param driver  the parent
-	 * @param midiOut the MIDI out destination for the Display
+	 * @param output  the MIDI out destination for the Display
 	 * @param type    the main unit or a an extenter
 	 */
-	public LcdDisplay(final MackieMcuProExtension driver, final MidiOut midiOut, final SectionType type) {
-		this.midiOut = midiOut;
+	public LcdDisplay(final MackieMcuProExtension driver, final MidiOutScheduler output, final SectionType type) {
+		this.output = output;
+		this.midiOut = output.getMidiOut();
+		this.host = driver.getHost();
 		if (type == SectionType.XTENDER) {
-			rowDisplayBuffer[4] = 0x15;
-			segBuffer[4] = 0x15;
+			header[4] = 0x15;
 			sysHead = "f0 00 00 66 15 ";
 		} else {
 			sysHead = "f0 00 00 66 14 ";
 		}
+		Arrays.fill(frameBuffer, (byte) ' ');
 		appyVuMode(driver.getVuMode());
 	}
 
@@ -55,7 +77,7 @@ public class LcdDisplay {
 		case LED:
 			midiOut.sendSysex(sysHead + "21 01 f7"); // Vertical VU
 			for (int i = 0; i < 8; i++) {
-				midiOut.sendMidi(Midi.CHANNEL_AT, i << 4, 0);
+				output.sendMidi(Priority.VU, Midi.CHANNEL_AT, i << 4, 0);
 				midiOut.sendSysex(sysHead + "20 0" + i + " 01 f7");
 			}
 			break;
@@ -63,7 +85,7 @@ public class LcdDisplay {
 			midiOut.sendSysex(sysHead + "21 01 f7"); // Vertical VU
 			for (int i = 0; i < 8; i++) {
 				midiOut.sendSysex(sysHead + "20 0" + i + " 03 f7");
-				midiOut.sendMidi(Midi.CHANNEL_AT, i << 4, 0);
+				output.sendMidi(Priority.VU, Midi.CHANNEL_AT, i << 4, 0);
 			}
 			midiOut.sendSysex(sysHead + "20 00 03 f7");
 			break;
@@ -71,19 +93,13 @@ public class LcdDisplay {
 			midiOut.sendSysex(sysHead + "21 00 f7"); // Horizontal VU
 			for (int i = 0; i < 8; i++) {
 				midiOut.sendSysex(sysHead + "20 0" + i + " 03 f7");
-				midiOut.sendMidi(Midi.CHANNEL_AT, i << 4, 0);
+				output.sendMidi(Priority.VU, Midi.CHANNEL_AT, i << 4, 0);
 			}
 			break;
 		}
 		refreshDisplay();
 	}
 
-	private void resetGrids(final int row) {
-		for (int cell = 0; cell < lastSendGrids[row].length; cell++) {
-			lastSendGrids[row][cell] = "";
-		}
-	}
-
 	public void centerText(final int row, final String text) {
 		sendToDisplay(row, pad4Center(text));
 	}
@@ -100,43 +116,111 @@ public class LcdDisplay {
 	}
 
 	public void sendToDisplay(final int row, final String text) {
-		resetGrids(row);
-		rowDisplayBuffer[6] = (byte) (row * ROW2_START);
-		final char[] ca = text.toCharArray();
-		for (int i = 0; i < DISPLAY_LEN; i++) {
-			rowDisplayBuffer[i + 7] = i < ca.length ? (byte) ca[i] : 32;
-		}
-		midiOut.sendSysex(rowDisplayBuffer);
+		writeText(row * ROW2_START, DISPLAY_LEN, text);
 	}
 
 	public void sendToRow(final int row, final int segment, final String text) {
 		if (row > 1 || row < 0) {
 			return;
 		}
-		if (!text.equals(lastSendGrids[row][segment])) {
-			lastSendGrids[row][segment] = text;
-			sendTextSeg(row, segment, text);
+		final int offset = row * ROW2_START + segment * SEGMENT_LEN;
+		writeText(offset, SEGMENT_LEN - 1, text);
+		writeChar(offset + SEGMENT_LEN - 1, (byte) ' ');
+	}
+
+	private void writeText(final int offset, final int len, final String text) {
+		final int textLen = text.length();
+		for (int i = 0; i < len; i++) {
+			writeChar(offset + i, i < textLen ? (byte) text.charAt(i) : 32);
 		}
 	}
 
-	private void sendTextSeg(final int row, final int segment, final String text) {
-		segBuffer[6] = (byte) (row * ROW2_START + segment * 7);
-		final char[] ca = text.toCharArray();
-		for (int i = 0; i < 6; i++) {
-			segBuffer[i + 7] = i < ca.length ? (byte) ca[i] : 32;
+	private void writeChar(final int index, final byte c) {
+		if (frameBuffer[index] == c) {
+			return;
 		}
-		if (segment < 7) {
-			segBuffer[13] = ' ';
+		frameBuffer[index] = c;
+		markDirty(index, index);
+	}
+
+	private void markDirty(final int from, final int to) {
+		if (dirtyFrom > dirtyTo) {
+			host.requestFlush();
 		}
-		midiOut.sendSysex(segBuffer);
+		dirtyFrom = Math.min(dirtyFrom, from);
+		dirtyTo = Math.max(dirtyTo, to);
 	}
 
+	/**
+	 * Forces the whole display to be resent on the next {@link #flush()}.
+	 */
 	public void refreshDisplay() {
-		for (int row = 0; row < 2; row++) {
-			for (int segment = 0; segment < 8; segment++) {
-				sendTextSeg(row, segment, lastSendGrids[row][segment]);
+		Arrays.fill(sentBuffer, UNKNOWN);
+		markDirty(0, CHAR_COUNT - 1);
+	}
+
+	/**
+	 * Sends all characters that differ from what the device shows. Each
+	 * contiguous run of changed characters becomes one sysex write, runs separated
+	 * by a gap shorter than the message overhead are merged.
+	 */
+	public void flush() {
+		lastFlushBytes = 0;
+		lastFlushMessages = 0;
+		int index = dirtyFrom;
+		while (index <= dirtyTo) {
+			if (frameBuffer[index] == sentBuffer[index]) {
+				index++;
+				continue;
+			}
+			final int from = index;
+			int to = index;
+			for (int i = index + 1; i <= dirtyTo && i - to <= MESSAGE_OVERHEAD; i++) {
+				if (frameBuffer[i] != sentBuffer[i]) {
+					to = i;
+				}
 			}
+			sendRange(from, to);
+			index = to + 1;
+		}
+		dirtyFrom = CHAR_COUNT;
+		dirtyTo = -1;
+		totalBytesSent += lastFlushBytes;
+	}
+
+	private void sendRange(final int from, final int to) {
+		final int len = to - from + 1;
+		byte[] message = messageBuffers[len];
+		if (message == null) {
+			message = new byte[len + MESSAGE_OVERHEAD];
+			messageBuffers[len] = message;
 		}
+		System.arraycopy(header, 0, message, 0, header.length);
+		message[header.length] = (byte) from;
+		System.arraycopy(frameBuffer, from, message, header.length + 1, len);
+		message[message.length - 1] = (byte) 0xF7;
+		System.arraycopy(frameBuffer, from, sentBuffer, from, len);
+		output.sendSysex(Priority.TEXT, message);
+		lastFlushBytes += message.length;
+		lastFlushMessages++;
+	}
+
+	/**
+	 * @return number of sysex bytes sent by the last {@link #flush()}
+	 */
+	public int getLastFlushBytes() {
+		return lastFlushBytes;
+	}
+
+	/**
+	 * @return number of sysex messages sent by the last {@link #flush()}
+	 */
+	public int getLastFlushMessages() {
+		return lastFlushMessages;
+	}
+
+	public long getTotalBytesSent() {
+		return totalBytesSent;
 	}
 
 	public void sendChar(final int index, final char cx) {
@@ -156,12 +240,14 @@ public class LcdDisplay {
 		midiOut.sendSysex(sysHead + "62 f7");
 		sendToDisplay(0, "");
 		sendToDisplay(1, "");
+		flush();
 	}
 
 	public void exitMessage() {
 		midiOut.sendSysex(sysHead + "62 f7");
 		centerText(0, "Bitwig Studio");
 		centerText(1, "... not running ...");
+		flush();
 	}
 
 	public void clearText() {
@@ -1,35 +1,61 @@
 package com.bitwig.extensions.controllers.mackie.display;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extensions.controllers.mackie.Midi;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler.Priority;
 import com.bitwig.extensions.controllers.mackie.NoteOnAssignment;
 
+/**
+ * The 10 digit timecode display. Position updates are only stored, the digits
+ * are rendered on {@link #flush()} at most at the refresh rate and only changed
+ * digits are sent.
+ */
 public class TimeCodeLed {
-	private final MidiOut midiOut;
+	public static final int DEFAULT_REFRESH_RATE = 30;
+
+	private static final int DIGIT_COUNT = 10;
+	private static final int FIRST_DIGIT_CC = 64;
+	private static final int CHAR_ZERO = 48;
+	private static final int CHAR_MINUS = 45;
+	private static final int DOT = 64;
+
+	private final ControllerHost host;
+	private final MidiOutScheduler midiOut;
 	private double position;
-	private boolean precountBeats = false;
-	private int bars = -1;
-	private int beats = -1;
-	private int subDevision = -1;
-	private int ticks = -1;
-
-	private final boolean precountTime = false;
-	private int frames = -1;
-	private int seconds = -1;
-	private int minutes = -1;
-	private int hours = -1;
-
-	private int tsMain;
-	private int tsDiv;
+	private double timeInSeconds;
+
+	/**
+	 * CC values of the digits, rightmost digit first.
+	 */
+	private final int[] digits = new int[DIGIT_COUNT];
+	private final int[] sentDigits = new int[DIGIT_COUNT];
+	private boolean dirty = true;
+	private long lastRenderTime = 0;
+	private long refreshIntervalNs = 1_000_000_000L / DEFAULT_REFRESH_RATE;
+	private boolean renderScheduled = false;
+
+	private String timeSignature = "";
+	private int tsMain = 4;
+	private int tsDiv = 4;
 	private int tsTicks = 16;
+	private int subDivisions = 4;
 	private Mode mode = Mode.BEATS;
 
 	public enum Mode {
 		BEATS, TIME;
 	}
 
-	public TimeCodeLed(final MidiOut midiOut) {
+	public TimeCodeLed(final ControllerHost host, final MidiOutScheduler midiOut) {
+		this.host = host;
 		this.midiOut = midiOut;
+		Arrays.fill(sentDigits, -1);
+	}
+
+	public void setRefreshRate(final int refreshRate) {
+		refreshIntervalNs = 1_000_000_000L / Math.max(1, refreshRate);
 	}
 
 	public void toggleMode() {
@@ -58,87 +84,104 @@ public class TimeCodeLed {
 	public void setMode(final Mode mode) {
 		if (this.mode != mode) {
 			this.mode = mode;
-			if (mode == Mode.BEATS) {
-				refreshPositon();
-			} else {
-				refreshTime();
-			}
+			dirty = true;
 		}
 	}
 
+	/**
+	 * @param devision time signature as reported by the transport, for example
+	 *                 "4/4" or "7/8,12"
+	 */
 	public void setDivision(final String devision) {
-		final String[] v = devision.split("/");
-		if (v.length == 2) {
-			tsMain = Integer.parseInt(v[0]);
-			if (v[1].indexOf(',') > 0) {
-				final String[] denom = v[1].split(",");
-				if (denom.length == 2) {
-					tsDiv = Integer.parseInt(denom[0]);
-					tsTicks = Integer.parseInt(denom[1]);
-				}
-			} else {
-				tsDiv = Integer.parseInt(v[1]);
-				tsTicks = 16;
+		if (devision.equals(timeSignature)) {
+			return;
+		}
+		final int slash = devision.indexOf('/');
+		if (slash <= 0) {
+			return;
+		}
+		final int comma = devision.indexOf(',', slash);
+		try {
+			final int main = Integer.parseInt(devision.substring(0, slash));
+			final int div = Integer.parseInt(devision.substring(slash + 1, comma < 0 ? devision.length() : comma));
+			final int ticks = comma < 0 ? 16 : Integer.parseInt(devision.substring(comma + 1));
+			if (main <= 0 || div <= 0) {
+				return;
 			}
-			updatePosition(position);
+			tsMain = main;
+			tsDiv = div;
+			tsTicks = ticks;
+		} catch (final NumberFormatException e) {
+			return;
 		}
+		timeSignature = devision;
+		subDivisions = Math.max(1, 16 / tsDiv);
+		dirty = true;
 	}
 
-	private void refreshPositon() {
-		displayTicks(ticks);
-		displaySubdivision(subDevision);
-		displayBeats(beats);
-		displayBars(bars, precountBeats);
+	public void updatePosition(final double pos) {
+		this.position = pos;
+		if (mode == Mode.BEATS) {
+			dirty = true;
+		}
 	}
 
-	private void refreshTime() {
-		displayTicks(frames);
-		displaySubdivision(seconds);
-		displayBeats(minutes);
-		displayBars(hours, precountTime);
+	public void updateTime(final double seconds) {
+		this.timeInSeconds = seconds;
+		if (mode == Mode.TIME) {
+			dirty = true;
+		}
 	}
 
-	public void updatePosition(final double pos) {
-		this.position = pos;
-		final boolean precount = pos < 0;
+	/**
+	 * Sends the digits that changed since the last render, if the refresh
+	 * interval has passed. Otherwise a flush is requested once it has.
+	 */
+	public void flush() {
+		if (!dirty) {
+			return;
+		}
+		final long now = System.nanoTime();
+		final long wait = lastRenderTime + refreshIntervalNs - now;
+		if (wait > 0) {
+			if (!renderScheduled) {
+				renderScheduled = true;
+				host.scheduleTask(() -> {
+					renderScheduled = false;
+					host.requestFlush();
+				}, Math.max(1, wait / 1_000_000L));
+			}
+			return;
+		}
+		lastRenderTime = now;
+		dirty = false;
+		if (mode == Mode.BEATS) {
+			renderPosition(position);
+		} else {
+			renderTime(timeInSeconds);
+		}
+		for (int i = 0; i < DIGIT_COUNT; i++) {
+			if (digits[i] != sentDigits[i]) {
+				sentDigits[i] = digits[i];
+				midiOut.sendMidi(Priority.LED, Midi.CC, FIRST_DIGIT_CC + i, digits[i]);
+			}
+		}
+	}
+
+	private void renderPosition(final double pos) {
 		final double posabs = Math.abs(pos);
 		final int totalBeats = (int) (posabs * tsDiv / 4);
 		final double rest = posabs - (int) posabs;
 
 		final int bars = totalBeats / tsMain + 1;
 		final int beats = totalBeats % tsMain + 1;
-		final int sub = (int) (rest * 4 * tsTicks / 16) % (int) (16.0 / tsDiv) + 1;
+		final int sub = (int) (rest * 4 * tsTicks / 16) % subDivisions + 1;
 		final int ticks = (int) (rest * 400 * tsTicks / 16) % 100;
 
-		if (ticks != this.ticks) {
-			this.ticks = ticks;
-			if (mode == Mode.BEATS) {
-				displayTicks(ticks);
-			}
-		}
-		if (sub != this.subDevision) {
-			this.subDevision = sub;
-			if (mode == Mode.BEATS) {
-				displaySubdivision(sub);
-			}
-		}
-		if (beats != this.beats) {
-			this.beats = beats;
-			if (mode == Mode.BEATS) {
-				displayBeats(beats);
-			}
-		}
-		if (bars != this.bars || precount != this.precountBeats) {
-			this.bars = bars;
-			this.precountBeats = precount;
-			if (mode == Mode.BEATS) {
-				displayBars(bars, precount);
-			}
-		}
+		renderDigits(bars, beats, sub, ticks, pos < 0);
 	}
 
-	public void updateTime(final double seconds) {
-		final boolean precount = seconds < 0;
+	private void renderTime(final double seconds) {
 		final int secondstotal = (int) Math.abs(seconds);
 		final double rest = Math.abs(seconds) - secondstotal;
 		final int secs = secondstotal % 60;
@@ -146,66 +189,21 @@ public class TimeCodeLed {
 		final int hours = secondstotal / 60 / 60;
 		final int frames = (int) Math.round(rest * 24);
 
-		if (frames != this.frames) {
-			this.frames = frames;
-			if (mode == Mode.TIME) {
-				displayTicks(frames);
-			}
-		}
-		if (secs != this.seconds) {
-			this.seconds = secs;
-			if (mode == Mode.TIME) {
-				displaySubdivision(secs);
-			}
-		}
-		if (minutes != this.minutes) {
-			this.minutes = minutes;
-			if (mode == Mode.TIME) {
-				displayBeats(minutes);
-			}
-		}
-		if (hours != this.hours || precount != precountTime) {
-			this.hours = hours;
-			if (mode == Mode.TIME) {
-				displayBars(hours, precount);
-			}
-		}
-	}
-
-	private void displayTicks(final int value) {
-		final int v1 = value % 10;
-		final int v2 = value / 10 % 10;
-		final int v3 = value / 100 % 10;
-		midiOut.sendMidi(Midi.CC, 64, v1 + 48);
-		midiOut.sendMidi(Midi.CC, 65, v2 + 48);
-		midiOut.sendMidi(Midi.CC, 66, v3 + 48);
-	}
-
-	private void displaySubdivision(final int value) {
-		final int v1 = value % 10;
-		final int v2 = value / 10 % 10;
-		midiOut.sendMidi(Midi.CC, 67, v1 + 48 + 64);
-		midiOut.sendMidi(Midi.CC, 68, v2 + 48);
+		renderDigits(hours, minutes, secs, frames, seconds < 0);
 	}
 
-	private void displayBeats(final int value) {
-		final int v1 = value % 10;
-		final int v2 = value / 10 % 10;
-		midiOut.sendMidi(Midi.CC, 69, v1 + 48 + 64);
-		midiOut.sendMidi(Midi.CC, 70, v2 + 48);
-	}
-
-	private void displayBars(final int value, final boolean precount) {
-		final int v1 = value % 10;
-		final int v2 = value / 10 % 10;
-		final int v3 = value / 100 % 10;
-		midiOut.sendMidi(Midi.CC, 71, v1 + 48 + 64);
-		midiOut.sendMidi(Midi.CC, 72, v2 + 48);
-		if (precount) {
-			midiOut.sendMidi(Midi.CC, 73, 45);
-		} else {
-			midiOut.sendMidi(Midi.CC, 73, v3 + 48);
-		}
+	private void renderDigits(final int high, final int mid, final int low, final int lowest,
+			final boolean precount) {
+		digits[0] = CHAR_ZERO + lowest % 10;
+		digits[1] = CHAR_ZERO + lowest / 10 % 10;
+		digits[2] = CHAR_ZERO + lowest / 100 % 10;
+		digits[3] = CHAR_ZERO + low % 10 + DOT;
+		digits[4] = CHAR_ZERO + low / 10 % 10;
+		digits[5] = CHAR_ZERO + mid % 10 + DOT;
+		digits[6] = CHAR_ZERO + mid / 10 % 10;
+		digits[7] = CHAR_ZERO + high % 10 + DOT;
+		digits[8] = CHAR_ZERO + high / 10 % 10;
+		digits[9] = precount ? CHAR_MINUS : CHAR_ZERO + high / 100 % 10;
 	}
 
 	public void setAssignment(final String ch, final boolean dotted) {
@@ -214,8 +212,8 @@ public class TimeCodeLed {
 		}
 		final char c1 = ch.charAt(0);
 		final char c2 = ch.charAt(1);
-		midiOut.sendMidi(Midi.CC, 75, toCharValue(c1));
-		midiOut.sendMidi(Midi.CC, 74, toCharValue(c2) + 64);
+		midiOut.sendMidi(Priority.LED, Midi.CC, 75, toCharValue(c1));
+		midiOut.sendMidi(Priority.LED, Midi.CC, 74, toCharValue(c2) + 64);
 	}
 
 	public void setAssignment(final String ch) {
@@ -224,14 +222,15 @@ public class TimeCodeLed {
 		}
 		final char c1 = ch.charAt(0);
 		final char c2 = ch.charAt(1);
-		midiOut.sendMidi(Midi.CC, 75, toCharValue(c1));
-		midiOut.sendMidi(Midi.CC, 74, toCharValue(c2));
+		midiOut.sendMidi(Priority.LED, Midi.CC, 75, toCharValue(c1));
+		midiOut.sendMidi(Priority.LED, Midi.CC, 74, toCharValue(c2));
 	}
 
 	public void clearAll() {
 		for (int cc = 64; cc < 76; cc++) {
-			midiOut.sendMidi(Midi.CC, cc, 0);
+			midiOut.sendMidi(Priority.LED, Midi.CC, cc, 0);
 		}
+		Arrays.fill(sentDigits, 0);
 	}
 
 	private int toCharValue(final char c) {
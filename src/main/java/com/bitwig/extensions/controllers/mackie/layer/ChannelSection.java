@@ -23,6 +23,8 @@ import com.bitwig.extension.controller.api.Track;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
 import com.bitwig.extensions.controllers.mackie.Midi;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler.Priority;
 import com.bitwig.extensions.controllers.mackie.NoteOnAssignment;
 import com.bitwig.extensions.controllers.mackie.VPotMode;
 import com.bitwig.extensions.controllers.mackie.VPotMode.Assign;
@@ -48,12 +50,16 @@ import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
 import com.bitwig.extensions.framework.AbsoluteHardwareControlBinding;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.LevelMeterEngine;
 import com.bitwig.extensions.framework.RelativeHardwareControlToRangedValueBinding;
 
 public class ChannelSection {
+	private static final int VU_INPUT_RANGE = 128;
+	private static final int VU_RESOLUTION = 14;
 
 	private final MidiIn midiIn;
 	private final MidiOut midiOut;
+	private final MidiOutScheduler output;
 	private final int[] lightStatusMap = new int[127];
 
 	final BindingCache volumeBindings = new BindingCache();
@@ -74,6 +80,7 @@ public class ChannelSection {
 	private final MackieMcuProExtension driver;
 	private final int sectionIndex;
 	private final LcdDisplay mainDisplay;
+	private final LevelMeterEngine vuMeters;
 
 	private final FlippableLayer panLayer;
 	private final FlippableBankLayer sendLayer;
@@ -92,10 +99,11 @@ public class ChannelSection {
 		MAIN, XTENDER;
 	}
 
-	public ChannelSection(final MackieMcuProExtension driver, final MidiIn midiIn, final MidiOut midiOut,
+	public ChannelSection(final MackieMcuProExtension driver, final MidiIn midiIn, final MidiOutScheduler output,
 			final int sectionIndex, final SectionType type) {
 		this.midiIn = midiIn;
-		this.midiOut = midiOut;
+		this.output = output;
+		this.midiOut = output.getMidiOut();
 		this.driver = driver;
 		this.sectionIndex = sectionIndex;
 		this.type = type;
@@ -115,7 +123,9 @@ public class ChannelSection {
 		layers.add(instrumentTrackLayer);
 		layers.add(pluginTrackLayer);
 
-		mainDisplay = new LcdDisplay(driver, midiOut, type);
+		mainDisplay = new LcdDisplay(driver, output, type);
+		vuMeters = new LevelMeterEngine(driver.getHost(), 8, VU_RESOLUTION,
+				(index, level) -> output.sendMidi(Priority.VU, Midi.CHANNEL_AT, index << 4 | level, 0));
 		final HardwareSurface surface = driver.getSurface();
 		initControlHardware(surface);
 
@@ -150,7 +160,7 @@ public class ChannelSection {
 			faderTouch[i] = createTouchButton("FADER_TOUCH", i);
 			knob.setAdjustValueMatcher(this.midiIn.createAbsolutePitchBendValueMatcher(i));
 
-			motorFaderDest[i] = new MotorFader(this.midiOut, i);
+			motorFaderDest[i] = new MotorFader(driver.getHost(), output, i);
 			ringDisplays[i] = new RingDisplay(this.midiOut, i);
 
 			final RelativeHardwareKnob encoder = surface
@@ -272,7 +282,7 @@ public class ChannelSection {
 
 		for (int i = 0; i < lightStatusMap.length; i++) {
 			if (lightStatusMap[i] >= 0) {
-				midiOut.sendMidi(Midi.NOTE_ON, i, lightStatusMap[i]);
+				output.sendMidi(Priority.LED, Midi.NOTE_ON, i, lightStatusMap[i]);
 			}
 		}
 	}
@@ -285,6 +295,31 @@ public class ChannelSection {
 		return button;
 	}
 
+	public void flush() {
+		for (final MotorFader fader : motorFaderDest) {
+			fader.flush();
+		}
+		mainDisplay.flush();
+	}
+
+	/**
+	 * @return number of motor fader values that did not need a MIDI message
+	 */
+	public long getFaderMessagesSaved() {
+		long saved = 0;
+		for (final MotorFader fader : motorFaderDest) {
+			saved += fader.getMessagesSaved();
+		}
+		return saved;
+	}
+
+	/**
+	 * @return number of device parameters currently subscribed for this section
+	 */
+	public int getActiveParameterSubscriptions() {
+		return eqTrackLayer.getSubscribedParameterCount();
+	}
+
 	public LcdDisplay getMainDisplay() {
 		return mainDisplay;
 	}
@@ -411,8 +446,8 @@ public class ChannelSection {
 //		channel.trackType().addValueObserver(v -> {
 //			final TrackType type = TrackType.toType(v);
 //		});
-		channel.addVuMeterObserver(14, -1, true, v -> {
-			midiOut.sendMidi(Midi.CHANNEL_AT, index << 4 | v, 0);
+		channel.addVuMeterObserver(VU_INPUT_RANGE, -1, true, v -> {
+			vuMeters.setLevel(index, v, VU_INPUT_RANGE);
 		});
 
 		// TODO this binding doesn't go away if the param is gone
@@ -424,7 +459,10 @@ public class ChannelSection {
 
 		// mainLayer.bindIsPressed poses a problem because it also want a background
 		// light, which the fader doesn't have
-		faderTouch[index].isPressed().addValueObserver(touched -> handleTouch(touched));
+		faderTouch[index].isPressed().addValueObserver(touched -> {
+			motorFaderDest[index].setTouched(touched);
+			handleTouch(touched);
+		});
 
 		channel.isActivated().markInterested();
 		channel.canHoldAudioData().markInterested();
@@ -625,12 +663,14 @@ public class ChannelSection {
 
 	private void sendLedLightStatus(final int noteNr, final int value) {
 		lightStatusMap[noteNr] = value;
-		midiOut.sendMidi(Midi.NOTE_ON, noteNr, value);
+		output.sendMidi(Priority.LED, Midi.NOTE_ON, noteNr, value);
 	}
 
 	public void resetFaders() {
 		for (final MotorFader fader : motorFaderDest) {
 			fader.sendValue(0);
+			// also used on exit, when no flush follows
+			fader.flush();
 		}
 	}
 
@@ -651,6 +691,7 @@ public class ChannelSection {
 
 	public void applyVuMode(final VuMode mode) {
 		mainDisplay.appyVuMode(mode);
+		vuMeters.invalidate();
 	}
 
 	public void navigateLeftRight(final int direction) {
@@ -83,6 +83,14 @@ public class FlippableParameterBankLayer extends FlippableLayer {
 		parameterSlot.resetBindings();
 	}
 
+	public int getSubscribedParameterCount() {
+		int count = 0;
+		for (final ParameterPage band : bands) {
+			count += band.getSubscribedParameterCount();
+		}
+		return count;
+	}
+
 	@Override
 	void activateNonTouchDisplay() {
 		displayTouchLayer.deactivate();
@@ -1,35 +1,121 @@
 package com.bitwig.extensions.controllers.mackie.targets;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler;
+import com.bitwig.extensions.controllers.mackie.MidiOutScheduler.Priority;
 
+/**
+ * Output stage of a motor fader. Values are collected and sent at most once
+ * per {@link #flush()}, the latest value wins. Moves smaller than the deadband
+ * are not sent while the value keeps changing, except to reach the end
+ * positions; once a value stays unchanged for a flush it is sent, so the motor
+ * always settles on the actual value. Nothing is sent while the fader is
+ * touched.
+ */
 public class MotorFader {
-	private final MidiOut midi;
+	public static final int DEFAULT_DEADBAND = 16;
+	private static final int MAX_VALUE = 16383;
+
+	private final ControllerHost host;
+	private final MidiOutScheduler midi;
 	private final int aftertouchValue;
 	int lastValue = -1;
+	private int pendingValue = -1;
+	private boolean forceSend = false;
+	private boolean changedSinceFlush = false;
+	private boolean touched = false;
+	private int deadband = DEFAULT_DEADBAND;
+
+	private long valuesReceived = 0;
+	private long messagesSent = 0;
 
-	public MotorFader(final MidiOut midi, final int which) {
+	public MotorFader(final ControllerHost host, final MidiOutScheduler midi, final int which) {
+		this.host = host;
 		this.aftertouchValue = 0xE0 | which;
 		this.midi = midi;
 	}
 
 	public void sendValue(final double v) {
-		final int value = (int) (v * 16383);
-		if (value != lastValue) {
-			lastValue = value;
-			final int lsb = value & 0x7F;
-			final int msb = value >> 7;
-			midi.sendMidi(aftertouchValue, lsb, msb);
-		}
+		pendingValue = (int) (v * MAX_VALUE);
+		changedSinceFlush = true;
+		valuesReceived++;
 	}
 
 	public int getWhich() {
 		return aftertouchValue & 0xF;
 	}
 
+	/**
+	 * Sends the last known value again with the next flush.
+	 */
 	public void refresh() {
-		final int lsb = lastValue & 0x7F;
-		final int msb = lastValue >> 7;
-		midi.sendMidi(aftertouchValue, lsb, msb);
+		if (pendingValue < 0) {
+			pendingValue = lastValue;
+		}
+		forceSend = true;
+	}
+
+	public void setDeadband(final int deadband) {
+		this.deadband = deadband;
+	}
+
+	/**
+	 * While touched the fader follows the hand and no values are sent, on release
+	 * the latest value is sent.
+	 */
+	public void setTouched(final boolean touched) {
+		this.touched = touched;
+		if (!touched) {
+			refresh();
+		}
+	}
+
+	public void flush() {
+		if (touched || pendingValue < 0) {
+			return;
+		}
+		final int value = pendingValue;
+		if (!forceSend && !exceedsDeadband(value)) {
+			if (value == lastValue) {
+				pendingValue = -1;
+				return;
+			}
+			if (changedSinceFlush) {
+				// still moving, send it once it stayed unchanged until the next flush
+				changedSinceFlush = false;
+				host.requestFlush();
+				return;
+			}
+		}
+		pendingValue = -1;
+		changedSinceFlush = false;
+		forceSend = false;
+		lastValue = value;
+		final int lsb = value & 0x7F;
+		final int msb = value >> 7;
+		midi.sendMidi(Priority.FADER, aftertouchValue, lsb, msb);
+		messagesSent++;
+	}
+
+	private boolean exceedsDeadband(final int value) {
+		if (value == lastValue) {
+			return false;
+		}
+		if (lastValue < 0 || value == 0 || value == MAX_VALUE) {
+			return true;
+		}
+		return Math.abs(value - lastValue) >= deadband;
+	}
+
+	/**
+	 * @return number of values that did not result in a MIDI message
+	 */
+	public long getMessagesSaved() {
+		return Math.max(0, valuesReceived - messagesSent);
+	}
+
+	public long getMessagesSent() {
+		return messagesSent;
 	}
 
 }
@@ -12,13 +12,17 @@ import com.bitwig.extension.controller.api.SceneBank;
 import com.bitwig.extension.controller.api.Track;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.LevelMeterEngine;
 
 public class KompleteKontrolSMk2Extension extends KompleteKontrolExtension {
 
+	private static final int LEVEL_PEAK_HOLD_MS = 400;
 	private static byte[] levelDbLookup = new byte[201]; // maps level values to align with KK display
 
 	final ModeButton[] selectButtons = new ModeButton[8];
 
+	private LevelMeterEngine levelMeters;
+
 	protected KompleteKontrolSMk2Extension(final KompleteKontrolSMk2ExtensionDefinition definition,
 			final ControllerHost host) {
 		super(definition, host);
@@ -29,6 +33,8 @@ public class KompleteKontrolSMk2Extension extends KompleteKontrolExtension {
 		initSliderLookup();
 		super.init();
 		final ControllerHost host = getHost();
+		levelMeters = new LevelMeterEngine(host, 16, levelDbLookup.length, this::updateLevel);
+		levelMeters.setPeakHoldTime(LEVEL_PEAK_HOLD_MS);
 
 		intoDawMode();
 		surface = host.createHardwareSurface();
@@ -93,6 +99,7 @@ public class KompleteKontrolSMk2Extension extends KompleteKontrolExtension {
 	public void flush() {
 		if (dawModeConfirmed) {
 			surface.updateHardware();
+			trackLevelMeterComand.update(midiOutDaw);
 		}
 	}
 
@@ -106,15 +113,22 @@ public class KompleteKontrolSMk2Extension extends KompleteKontrolExtension {
 			final int v = (int) (value * 127);
 			midiOutDaw.sendMidi(0xBF, 0x58 + index, v);
 		});
-		channel.addVuMeterObserver(201, 0, true, leftValue -> {
-			trackLevelMeterComand.updateLeft(index, levelDbLookup[leftValue]);
+		channel.addVuMeterObserver(levelDbLookup.length, 0, true, leftValue -> {
+			levelMeters.setLevel(index * 2, leftValue, levelDbLookup.length);
 		});
-		channel.addVuMeterObserver(201, 1, true, rightValue -> {
-			trackLevelMeterComand.updateRight(index, levelDbLookup[rightValue]);
-			trackLevelMeterComand.update(midiOutDaw);
+		channel.addVuMeterObserver(levelDbLookup.length, 1, true, rightValue -> {
+			levelMeters.setLevel(index * 2 + 1, rightValue, levelDbLookup.length);
 		});
 	}
 
+	private void updateLevel(final int meter, final int level) {
+		if (meter % 2 == 0) {
+			trackLevelMeterComand.updateLeft(meter / 2, levelDbLookup[level]);
+		} else {
+			trackLevelMeterComand.updateRight(meter / 2, levelDbLookup[level]);
+		}
+	}
+
 	@Override
 	protected void initNaviagtion() {
 		final Clip cursorClip = getHost().createLauncherCursorClip(8, 128);
@@ -2,9 +2,14 @@ package com.bitwig.extensions.controllers.nativeinstruments.komplete;
 
 import com.bitwig.extension.controller.api.MidiOut;
 
+/**
+ * Level meter values of all 8 tracks, sent as one sysex message. Updates are
+ * collected and only sent by {@link #update(MidiOut)} if a level has changed.
+ */
 public class NhiaSyexLevelsCommand extends NhiaSysexCommand {
 
 	private final byte[] levelsArray;
+	private boolean changed = false;
 
 	public NhiaSyexLevelsCommand(final int commandId) {
 		levelsArray = new byte[BASE_FORMAT.length + 16];
@@ -16,19 +21,33 @@ public class NhiaSyexLevelsCommand extends NhiaSysexCommand {
 	}
 
 	public void updateLevel(final int track, final int levelLeft, final int levelRight) {
-		levelsArray[13 + track * 2] = (byte) levelLeft;
-		levelsArray[14 + track * 2] = (byte) levelRight;
+		updateLeft(track, levelLeft);
+		updateRight(track, levelRight);
 	}
 
 	public void updateLeft(final int track, final int levelLeft) {
-		levelsArray[13 + track * 2] = (byte) levelLeft;
+		setLevel(13 + track * 2, levelLeft);
 	}
 
 	public void updateRight(final int track, final int levelRight) {
-		levelsArray[14 + track * 2] = (byte) levelRight;
+		setLevel(14 + track * 2, levelRight);
 	}
 
+	private void setLevel(final int index, final int level) {
+		if (levelsArray[index] != (byte) level) {
+			levelsArray[index] = (byte) level;
+			changed = true;
+		}
+	}
+
+	/**
+	 * Sends the levels of all tracks if any of them changed since the last
+	 * update.
+	 */
 	public void update(final MidiOut midiOut) {
-		midiOut.sendSysex(levelsArray);
+		if (changed) {
+			changed = false;
+			midiOut.sendSysex(levelsArray);
+		}
 	}
 }
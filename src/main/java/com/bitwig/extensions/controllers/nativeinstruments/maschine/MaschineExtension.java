@@ -39,6 +39,7 @@ import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadB
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.ArpDisplayLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.BrowserLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.DeviceLayer;
+import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.DisplayBuffer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.DisplayLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.MixerLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.PadModeDisplayLayer;
@@ -59,14 +60,7 @@ import com.bitwig.extensions.framework.Layers;
 
 public class MaschineExtension extends ControllerExtension implements JogWheelDestination {
 
-	private final byte[] displayBuffer = { //
-			(byte) 240, 0, 0, 102, 23, 18, 0, // 6: the grid number 0-3 * 28
-			0, 0, 0, 0, 0, 0, 0, 0, // 7: 27 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, // 15:
-			0, 0, 0, 0, 0, 0, 0, 0, // 22:
-			0, 0, 0, 0, // 28:
-			(byte) 247 };
-	private final String[] lastSenGrids = new String[4];
+	private final DisplayBuffer display = new DisplayBuffer();
 	private Transport transport;
 	private MaschineLayer mainLayer;
 	private MaschineLayer globalShiftLayer;
@@ -120,7 +114,6 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 	private final BooleanValueObject inArrangeMode = new BooleanValueObject();
 	private TouchHandler touchHandler;
 
-	private final String[] displayBackupFields = new String[4];
 	private long lastTempUpdate = 0;
 	private PopupBrowser browser;
 	private BrowserLayer browserLayer;
@@ -374,26 +367,30 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 	}
 
 	public void backToPreviousDisplayMode() {
-		currentDisplayMode.deactivate();
-		if (currentMode.getAssociatedDisplay() != null) {
-			setDisplayMode(currentMode.getAssociatedDisplay());
-		} else if (currentMode.isPrefersControlDisplay()) {
-			setDisplayMode(lastControlDisplay);
-		}
-		currentDisplayMode.activate();
+		layers.batch(() -> {
+			currentDisplayMode.deactivate();
+			if (currentMode.getAssociatedDisplay() != null) {
+				setDisplayMode(currentMode.getAssociatedDisplay());
+			} else if (currentMode.isPrefersControlDisplay()) {
+				setDisplayMode(lastControlDisplay);
+			}
+			currentDisplayMode.activate();
+		});
 	}
 
 	public void setDisplayMode(final DisplayLayer mode) {
 		if (currentDisplayMode == mode) {
 			return;
 		}
-		currentDisplayMode.deactivate();
-		if (currentDisplayMode.isControlDisplay()) {
-			lastControlDisplay = currentDisplayMode;
-		}
+		layers.batch(() -> {
+			currentDisplayMode.deactivate();
+			if (currentDisplayMode.isControlDisplay()) {
+				lastControlDisplay = currentDisplayMode;
+			}
 
-		currentDisplayMode = mode;
-		currentDisplayMode.activate();
+			currentDisplayMode = mode;
+			currentDisplayMode.activate();
+		});
 	}
 
 	public void enterColorSelection(final Consumer<BitWigColor> colorAction) {
@@ -416,21 +413,20 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 		if (currentMode == mode || mode == null) {
 			return;
 		}
-		currentMode.deactivate();
-		boolean forcePreferred = false;
-		if (currentMode.getAssociatedDisplay() != null) {
-			forcePreferred = true;
-		}
-		currentMode = mode;
-
-		if (currentMode.getAssociatedDisplay() != null) {
-			setDisplayMode(currentMode.getAssociatedDisplay());
-		} else if (forcePreferred //
-				&& currentMode.isPrefersControlDisplay() //
-				&& !currentDisplayMode.isControlDisplay()) {
-			setDisplayMode(lastControlDisplay);
-		}
-		currentMode.activate();
+		layers.batch(() -> {
+			currentMode.deactivate();
+			final boolean forcePreferred = currentMode.getAssociatedDisplay() != null;
+			currentMode = mode;
+
+			if (currentMode.getAssociatedDisplay() != null) {
+				setDisplayMode(currentMode.getAssociatedDisplay());
+			} else if (forcePreferred //
+					&& currentMode.isPrefersControlDisplay() //
+					&& !currentDisplayMode.isControlDisplay()) {
+				setDisplayMode(lastControlDisplay);
+			}
+			currentMode.activate();
+		});
 	}
 
 	public DisplayLayer getCurrentDisplayMode() {
@@ -791,10 +787,6 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 	}
 
 	private void initDisplaySection() {
-		for (int i = 0; i < lastSenGrids.length; i++) {
-			lastSenGrids[i] = "----------------------";
-		}
-
 		displayKnobs = new RelativeHardwareKnob[8];
 		displayButtons = new ModeButton[8];
 		touchButtons = new HardwareButton[8];
@@ -955,41 +947,46 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 
 	public void handleTempDisplay() {
 		if (lastTempUpdate > 0 && System.currentTimeMillis() - lastTempUpdate > 1000) {
-			this.sendToDisplay(0, displayBackupFields[0]);
+			display.clearTemporary(0);
 			lastTempUpdate = 0;
+			host.requestFlush();
 		}
 		this.host.scheduleTask(this::handleTempDisplay, 300);
 	}
 
+	/**
+	 * Shows the text instead of the grid content for about a second.
+	 */
 	public void sendToDisplayTemp(final int grid, final String text) {
 		lastTempUpdate = System.currentTimeMillis();
-		sendToDisplay(grid, text);
+		display.setTemporary(grid, text);
 	}
 
+	/**
+	 * Writes the text of a layer, which ends a temporary readout shown in the
+	 * same grid.
+	 */
 	public void sendToDisplayBuffered(final int grid, final String text) {
-		displayBackupFields[grid] = text;
+		display.clearTemporary(Math.min(grid, 3));
 		sendToDisplay(grid, text);
-		lastTempUpdate = 0;
 	}
 
+	/**
+	 * Writes the text to the display buffer, changed grids are sent with the next
+	 * flush.
+	 */
 	public void sendToDisplay(final int grid, final String text) {
-		if (text.equals(lastSenGrids[grid])) {
-			return;
-		}
-		lastSenGrids[grid] = text;
-		displayBuffer[6] = (byte) (Math.min(grid, 3) * 28);
-		final char[] ca = text.toCharArray();
-		for (int i = 0; i < 28; i++) {
-			displayBuffer[i + 7] = i < ca.length ? (byte) ca[i] : 32;
-		}
-		midiOut.sendSysex(displayBuffer);
+		display.setText(Math.min(grid, 3), text);
+	}
+
+	public DisplayBuffer getDisplayBuffer() {
+		return display;
 	}
 
 	@Override
 	public void exit() {
-		for (int i = 0; i < 4; i++) {
-			sendToDisplay(i, "");
-		}
+		display.clearAll();
+		display.flush(midiOut);
 		Arrays.stream(CcAssignment.values()).forEach(assignment -> {
 			sendLedUpdate(assignment, 0);
 		});
@@ -1007,6 +1004,8 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 
 	@Override
 	public void flush() {
+		currentDisplayMode.flushDisplay();
+		display.flush(midiOut);
 		surface.updateHardware();
 	}
 
@@ -1,44 +1,48 @@
 package com.bitwig.extensions.controllers.nativeinstruments.maschine;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.bitwig.extension.controller.api.SettableColorValue;
+import com.bitwig.extensions.framework.ColorQuantizer;
 
+/**
+ * Converts Bitwig colors to the Maschine pad color palette. Colors of the
+ * Bitwig palette map to fixed indices, all other colors are quantized through a
+ * table that is computed once from their hue, saturation and brightness.
+ */
 public class NIColorUtil {
 
 	private static final Hsb BLACK_HSB = new Hsb(0, 0, 0);
-	private static final Map<Integer, Integer> fixedColorTable = new HashMap<Integer, Integer>();
-	private static final Map<Integer, Integer> colorTable = new HashMap<Integer, Integer>();
+	private static final int WHITE = 68;
+	private static final ColorQuantizer fixedColorTable = new ColorQuantizer(NIColorUtil::quantize);
 
 	static {
-		fixedColorTable.put(13016944, 16);
-		fixedColorTable.put(5526612, 68);
-		fixedColorTable.put(8026746, 68);
-		fixedColorTable.put(13224393, 68);
-		fixedColorTable.put(8817068, 52);
-		fixedColorTable.put(10713411, 12);
-		fixedColorTable.put(5726662, 48);
-		fixedColorTable.put(8686304, 48);
-		fixedColorTable.put(9783755, 52);
-		fixedColorTable.put(14235761, 60);
-		fixedColorTable.put(14233124, 4);
-		fixedColorTable.put(16733958, 8);
-		fixedColorTable.put(14261520, 16);
-		fixedColorTable.put(7575572, 24);
-		fixedColorTable.put(40263, 28);
-		fixedColorTable.put(42644, 32);
-		fixedColorTable.put(39385, 44);
-		fixedColorTable.put(12351216, 52);
-		fixedColorTable.put(14771857, 64);
-		fixedColorTable.put(15491415, 12);
-		fixedColorTable.put(16745278, 12);
-		fixedColorTable.put(14989134, 16);
-		fixedColorTable.put(10534988, 24);
-		fixedColorTable.put(4111202, 32);
-		fixedColorTable.put(4444857, 36);
-		fixedColorTable.put(4507903, 40);
-		fixedColorTable.put(8355711, 68);
+		fixedColorTable.addColor(0, 0);
+		fixedColorTable.addColor(13016944, 16);
+		fixedColorTable.addColor(5526612, 68);
+		fixedColorTable.addColor(8026746, 68);
+		fixedColorTable.addColor(13224393, 68);
+		fixedColorTable.addColor(8817068, 52);
+		fixedColorTable.addColor(10713411, 12);
+		fixedColorTable.addColor(5726662, 48);
+		fixedColorTable.addColor(8686304, 48);
+		fixedColorTable.addColor(9783755, 52);
+		fixedColorTable.addColor(14235761, 60);
+		fixedColorTable.addColor(14233124, 4);
+		fixedColorTable.addColor(16733958, 8);
+		fixedColorTable.addColor(14261520, 16);
+		fixedColorTable.addColor(7575572, 24);
+		fixedColorTable.addColor(40263, 28);
+		fixedColorTable.addColor(42644, 32);
+		fixedColorTable.addColor(39385, 44);
+		fixedColorTable.addColor(12351216, 52);
+		fixedColorTable.addColor(14771857, 64);
+		fixedColorTable.addColor(15491415, 12);
+		fixedColorTable.addColor(16745278, 12);
+		fixedColorTable.addColor(14989134, 16);
+		fixedColorTable.addColor(10534988, 24);
+		fixedColorTable.addColor(4111202, 32);
+		fixedColorTable.addColor(4444857, 36);
+		fixedColorTable.addColor(4507903, 40);
+		fixedColorTable.addColor(8355711, 68);
 	}
 
 	public static int convertColor(final SettableColorValue color) {
@@ -46,11 +50,7 @@ public class NIColorUtil {
 	}
 
 	public static int convertColor(final BitWigColor color) {
-		final Integer colorIndex = fixedColorTable.get(color.getLookupIndex());
-		if (colorIndex != null) {
-			return colorIndex.intValue();
-		}
-		return 68;
+		return fixedColorTable.getPaletteIndex(color.getLookupIndex());
 	}
 
 	public static boolean isOff(final SettableColorValue color) {
@@ -61,22 +61,13 @@ public class NIColorUtil {
 		if (red == 0 && green == 0 && blue == 0) {
 			return 0;
 		}
+		return fixedColorTable.getPaletteIndex(red, green, blue);
+	}
 
-		final int rv = (int) Math.floor(red * 255);
-		final int gv = (int) Math.floor(green * 255);
-		final int bv = (int) Math.floor(blue * 255);
-		final int lookupIndex = rv << 16 | gv << 8 | bv;
-		if (fixedColorTable.containsKey(lookupIndex)) {
-			return fixedColorTable.get(lookupIndex);
-		}
-		if (colorTable.containsKey(lookupIndex)) {
-			return colorTable.get(lookupIndex);
-		}
-
+	private static int quantize(final int red, final int green, final int blue) {
 		final Hsb hsb = rgbToHsb(red, green, blue);
 		if (hsb.bright < 1 || hsb.sat < 3) {
-			colorTable.put(lookupIndex, 68);
-			return colorTable.get(lookupIndex);
+			return WHITE;
 		}
 		int off = 0;
 		if (hsb.bright + hsb.sat < 22) {
@@ -86,9 +77,7 @@ public class NIColorUtil {
 			off = 2;
 		}
 		final int color_index = Math.min(hsb.hue + off + 1, 16);
-		final int color = color_index << 2;
-		colorTable.put(lookupIndex, color);
-		return color;
+		return color_index << 2;
 	}
 
 	private static Hsb rgbToHsb(final float rv, final float gv, final float bv) {
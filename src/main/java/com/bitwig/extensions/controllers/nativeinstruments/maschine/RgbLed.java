@@ -1,14 +1,11 @@
 package com.bitwig.extensions.controllers.nativeinstruments.maschine;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
 
 public class RgbLed extends InternalHardwareLightState {
 
-	private static final Map<Integer, RgbLed> cache = new HashMap<Integer, RgbLed>();
+	private static final RgbLed[] cache = new RgbLed[128];
 
 	protected int color = 0;
 
@@ -18,10 +15,13 @@ public class RgbLed extends InternalHardwareLightState {
 	}
 
 	public static RgbLed colorOf(final int colorCode) {
-		RgbLed cachedColor = cache.get(colorCode);
+		if (colorCode < 0 || colorCode >= cache.length) {
+			return new RgbLed(colorCode);
+		}
+		RgbLed cachedColor = cache[colorCode];
 		if (cachedColor == null) {
 			cachedColor = new RgbLed(colorCode);
-			cache.put(colorCode, cachedColor);
+			cache[colorCode] = cachedColor;
 		}
 		return cachedColor;
 	}
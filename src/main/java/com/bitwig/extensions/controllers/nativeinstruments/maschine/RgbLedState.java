@@ -1,13 +1,10 @@
 package com.bitwig.extensions.controllers.nativeinstruments.maschine;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 
 public final class RgbLedState extends RgbLed {
 
-	private static Map<Integer, RgbLedState> cache = new HashMap<Integer, RgbLedState>();
+	private static final RgbLedState[] cache = new RgbLedState[128];
 	public static RgbLedState OFF = new RgbLedState(0);
 	public static RgbLedState TRACK_ON = new RgbLedState(Colors.LIGHT_ORANGE, ColorBrightness.DARKENED);
 	public static RgbLedState TRACK_OFF = new RgbLedState(Colors.LIGHT_ORANGE, ColorBrightness.BRIGHT);
@@ -50,10 +47,13 @@ public final class RgbLedState extends RgbLed {
 	}
 
 	public static RgbLedState colorOf(final int colorCode) {
-		RgbLedState rgbColor = cache.get(colorCode);
+		if (colorCode < 0 || colorCode >= cache.length) {
+			return new RgbLedState(colorCode);
+		}
+		RgbLedState rgbColor = cache[colorCode];
 		if (rgbColor == null) {
 			rgbColor = new RgbLedState(colorCode);
-			cache.put(colorCode, rgbColor);
+			cache[colorCode] = rgbColor;
 		}
 		return rgbColor;
 	}
@@ -37,7 +37,7 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 		browser.selectedContentTypeIndex().markInterested();
 		browser.selectedContentTypeName().addValueObserver(content -> {
 			selectedContentType = content;
-			updateDisplay();
+			markDisplayDirty();
 		});
 
 		deviceItem = (CursorBrowserFilterItem) browser.deviceColumn().createCursorItem();
@@ -45,7 +45,7 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 		deviceItem.name().addValueObserver(v -> {
 			deviceElement = v.trim();
 			currentHits = deviceItem.hitCount().get();
-			updateDisplay();
+			markDisplayDirty();
 		});
 
 		fileTypeItem = (CursorBrowserFilterItem) browser.fileTypeColumn().createCursorItem();
@@ -53,7 +53,7 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 		fileTypeItem.name().addValueObserver(v -> {
 			fileTypeElement = v.trim();
 			currentHits = fileTypeItem.hitCount().get();
-			updateDisplay();
+			markDisplayDirty();
 		});
 
 		categoryItem = (CursorBrowserFilterItem) browser.categoryColumn().createCursorItem();
@@ -61,7 +61,7 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 		categoryItem.name().addValueObserver(v -> {
 			categoryElement = v.trim();
 			currentHits = categoryItem.hitCount().get();
-			updateDisplay();
+			markDisplayDirty();
 		});
 
 		creatorItem = (CursorBrowserFilterItem) browser.creatorColumn().createCursorItem();
@@ -69,7 +69,7 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 		creatorItem.name().addValueObserver(v -> {
 			creatorElement = v.trim();
 			currentHits = creatorItem.hitCount().get();
-			updateDisplay();
+			markDisplayDirty();
 		});
 
 		tagItem = (CursorBrowserFilterItem) browser.tagColumn().createCursorItem();
@@ -77,13 +77,13 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 		tagItem.name().addValueObserver(v -> {
 			tagElement = v.trim();
 			currentHits = tagItem.hitCount().get();
-			updateDisplay();
+			markDisplayDirty();
 		});
 
 		final BrowserResultsItem resultCursorItem = browser.resultsColumn().createCursorItem();
 		resultCursorItem.name().addValueObserver(v -> {
 			selectedElement = v;
-			updateDisplay();
+			markDisplayDirty();
 		});
 
 		bindPressed(buttons[3], browser.shouldAudition());
@@ -151,10 +151,8 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 		}
 	}
 
-	private void updateDisplay() {
-		if (!isActive()) {
-			return;
-		}
+	@Override
+	protected void renderDisplay() {
 		sendToDisplay(0, DisplayUtil.padString("BROWSE (" + currentHits + ")", 20) + "|<AUDIT>");
 
 		if (touchedIndex == -1 || touchedIndex > 4) {
@@ -198,7 +196,7 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 				touchedIndex = -1;
 			}
 		}
-		updateDisplay();
+		markDisplayDirty();
 	}
 
 	@Override
@@ -219,7 +217,7 @@ public class BrowserLayer extends DisplayLayer implements JogWheelDestination {
 	protected void doActivate() {
 		super.doActivate();
 		setKnobSensitivity(1.0);
-		updateDisplay();
+		markDisplayDirty();
 	}
 
 	@Override
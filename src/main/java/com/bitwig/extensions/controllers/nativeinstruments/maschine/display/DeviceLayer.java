@@ -87,7 +87,8 @@ public class DeviceLayer extends DisplayLayer implements NameContainer {
 		} else if (getDriver().getTouchHandler().isTouched() //
 				&& currentParamIndex != -1 //
 				&& parameterExsists[currentParamIndex]) {
-			b.append(fullNames[currentParamIndex] + " = " + currentParamLayer.getValue(currentParamIndex));
+			b.append(fullNames[currentParamIndex] + " = "
+					+ DisplayUtil.padString(currentParamLayer.getValue(currentParamIndex), 6));
 		} else {
 			b.append("P: " + deviceName);
 		}
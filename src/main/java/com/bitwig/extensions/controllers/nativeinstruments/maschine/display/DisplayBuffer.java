@@ -0,0 +1,294 @@
+package com.bitwig.extensions.controllers.nativeinstruments.maschine.display;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Frame buffer of the four 28 character grids of the Maschine Mk3 display.
+ * Text is encoded into the buffer in place, only the bytes that actually change
+ * mark a grid dirty and {@link #flush(MidiOut)} sends only grids that differ
+ * from what the device shows.
+ *
+ * A grid can be covered by a temporary text, which is shown instead of the
+ * grid content until it is cleared.
+ */
+public class DisplayBuffer {
+	public static final int GRID_COUNT = 4;
+	public static final int GRID_SIZE = 28;
+
+	private static final byte SPACE = ' ';
+	private static final byte UNKNOWN = '?';
+	private static final byte NOT_SENT = -1;
+	private static final int TEXT_OFFSET = 7;
+
+	private static final byte[] ENCODING = createEncoding();
+
+	private final byte[] frame = new byte[GRID_COUNT * GRID_SIZE];
+	private final byte[] temporary = new byte[GRID_COUNT * GRID_SIZE];
+	private final byte[] sent = new byte[GRID_COUNT * GRID_SIZE];
+	private final boolean[] temporaryActive = new boolean[GRID_COUNT];
+	private final int[] dirtyFrom = new int[GRID_COUNT];
+	private final int[] dirtyTo = new int[GRID_COUNT];
+	private final Line[] lines = new Line[GRID_COUNT];
+	private final char[] digits = new char[11];
+
+	private final byte[] sysex = { //
+			(byte) 240, 0, 0, 102, 23, 18, 0, // 6: the grid number 0-3 * 28
+			0, 0, 0, 0, 0, 0, 0, 0, // 7: 28 Chars
+			0, 0, 0, 0, 0, 0, 0, 0, // 15:
+			0, 0, 0, 0, 0, 0, 0, 0, // 23:
+			0, 0, 0, 0, // 31:
+			(byte) 247 };
+
+	private long gridsSent = 0;
+
+	public DisplayBuffer() {
+		Arrays.fill(frame, SPACE);
+		for (int i = 0; i < GRID_COUNT; i++) {
+			lines[i] = new Line(i);
+		}
+		invalidate();
+	}
+
+	/**
+	 * @return the device byte for a character, accented latin characters are
+	 *         reduced to their base letter
+	 */
+	public static byte encode(final char c) {
+		return c < ENCODING.length ? ENCODING[c] : UNKNOWN;
+	}
+
+	/**
+	 * Starts writing a grid from its first character. The returned line is
+	 * reused, the write has to be completed with {@link Line#end()}.
+	 */
+	public Line line(final int grid) {
+		final Line line = lines[grid];
+		line.pos = 0;
+		return line;
+	}
+
+	public void setText(final int grid, final CharSequence text) {
+		line(grid).text(text).end();
+	}
+
+	public void setTemporary(final int grid, final CharSequence text) {
+		final int offset = grid * GRID_SIZE;
+		for (int i = 0; i < GRID_SIZE; i++) {
+			temporary[offset + i] = i < text.length() ? encode(text.charAt(i)) : SPACE;
+		}
+		temporaryActive[grid] = true;
+		markDirty(grid, 0, GRID_SIZE);
+	}
+
+	public void clearTemporary(final int grid) {
+		if (temporaryActive[grid]) {
+			temporaryActive[grid] = false;
+			markDirty(grid, 0, GRID_SIZE);
+		}
+	}
+
+	public void clearAll() {
+		for (int i = 0; i < GRID_COUNT; i++) {
+			clearTemporary(i);
+			line(i).end();
+		}
+	}
+
+	/**
+	 * Forgets what has been sent, so that all grids are sent with the next flush.
+	 */
+	public void invalidate() {
+		Arrays.fill(sent, NOT_SENT);
+		for (int i = 0; i < GRID_COUNT; i++) {
+			markDirty(i, 0, GRID_SIZE);
+		}
+	}
+
+	public boolean isDirty() {
+		for (int i = 0; i < GRID_COUNT; i++) {
+			if (dirtyFrom[i] < dirtyTo[i]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sends every grid that differs from the content last sent.
+	 */
+	public void flush(final MidiOut midiOut) {
+		for (int grid = 0; grid < GRID_COUNT; grid++) {
+			if (dirtyFrom[grid] < dirtyTo[grid] && hasChanged(grid)) {
+				sendGrid(midiOut, grid);
+			}
+			dirtyFrom[grid] = GRID_SIZE;
+			dirtyTo[grid] = 0;
+		}
+	}
+
+	public long getGridsSent() {
+		return gridsSent;
+	}
+
+	private byte[] source(final int grid) {
+		return temporaryActive[grid] ? temporary : frame;
+	}
+
+	private boolean hasChanged(final int grid) {
+		final byte[] source = source(grid);
+		final int offset = grid * GRID_SIZE;
+		for (int i = offset + dirtyFrom[grid]; i < offset + dirtyTo[grid]; i++) {
+			if (source[i] != sent[i]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void sendGrid(final MidiOut midiOut, final int grid) {
+		final int offset = grid * GRID_SIZE;
+		System.arraycopy(source(grid), offset, sent, offset, GRID_SIZE);
+		System.arraycopy(sent, offset, sysex, TEXT_OFFSET, GRID_SIZE);
+		sysex[6] = (byte) offset;
+		midiOut.sendSysex(sysex);
+		gridsSent++;
+	}
+
+	private void markDirty(final int grid, final int from, final int to) {
+		dirtyFrom[grid] = Math.min(dirtyFrom[grid], from);
+		dirtyTo[grid] = Math.max(dirtyTo[grid], to);
+	}
+
+	private static byte[] createEncoding() {
+		final byte[] encoding = new byte[256];
+		Arrays.fill(encoding, UNKNOWN);
+		for (int c = 0; c < 32; c++) {
+			encoding[c] = SPACE;
+		}
+		for (int c = 32; c < 127; c++) {
+			encoding[c] = (byte) c;
+		}
+		encoding[0xA0] = SPACE;
+		final String latin = "AAAAAAACEEEEIIIIDNOOOOOxOUUUUYPsaaaaaaaceeeeiiiidnooooo/ouuuuypy";
+		for (int i = 0; i < latin.length(); i++) {
+			encoding[0xC0 + i] = (byte) latin.charAt(i);
+		}
+		return encoding;
+	}
+
+	/**
+	 * Writes one grid from left to right. Text beyond the end of the grid is
+	 * dropped.
+	 */
+	public final class Line {
+		private final int grid;
+		private final int offset;
+		private int pos;
+
+		private Line(final int grid) {
+			this.grid = grid;
+			this.offset = grid * GRID_SIZE;
+		}
+
+		public Line ch(final char c) {
+			put(encode(c));
+			return this;
+		}
+
+		public Line text(final CharSequence text) {
+			for (int i = 0; i < text.length(); i++) {
+				put(encode(text.charAt(i)));
+			}
+			return this;
+		}
+
+		/**
+		 * Writes the text cut or padded with spaces to the given width.
+		 */
+		public Line text(final CharSequence text, final int width) {
+			for (int i = 0; i < width; i++) {
+				put(i < text.length() ? encode(text.charAt(i)) : SPACE);
+			}
+			return this;
+		}
+
+		public Line spaces(final int count) {
+			for (int i = 0; i < count; i++) {
+				put(SPACE);
+			}
+			return this;
+		}
+
+		/**
+		 * Writes the number left aligned, cut or padded with spaces to the given
+		 * width.
+		 */
+		public Line number(final int value, final int width) {
+			final int length = toDigits(value);
+			for (int i = 0; i < width; i++) {
+				put(i < length ? (byte) digits[digits.length - length + i] : SPACE);
+			}
+			return this;
+		}
+
+		/**
+		 * Writes the number with leading zeros to the given width, longer numbers
+		 * are cut.
+		 */
+		public Line zeroPadded(final int value, final int width) {
+			final int length = toDigits(value);
+			final int zeros = width - length;
+			for (int i = 0; i < width; i++) {
+				put(i < zeros ? (byte) '0' : (byte) digits[digits.length - length + i - Math.max(0, zeros)]);
+			}
+			return this;
+		}
+
+		/**
+		 * Writes a length in beats as bars:beats, for example 01:02.
+		 */
+		public Line beats(final double length) {
+			return zeroPadded((int) (length / 4.0), 2).ch(':').zeroPadded((int) length % 4, 2);
+		}
+
+		/**
+		 * Fills the rest of the grid with spaces.
+		 */
+		public void end() {
+			while (pos < GRID_SIZE) {
+				put(SPACE);
+			}
+		}
+
+		private void put(final byte value) {
+			if (pos >= GRID_SIZE) {
+				return;
+			}
+			final int index = offset + pos;
+			if (frame[index] != value) {
+				frame[index] = value;
+				markDirty(grid, pos, pos + 1);
+			}
+			pos++;
+		}
+
+		/**
+		 * @return number of characters written to the end of the digits array
+		 */
+		private int toDigits(final int value) {
+			long rest = Math.abs((long) value);
+			int index = digits.length;
+			do {
+				digits[--index] = (char) ('0' + rest % 10);
+				rest /= 10;
+			} while (rest > 0);
+			if (value < 0) {
+				digits[--index] = '-';
+			}
+			return digits.length - index;
+		}
+	}
+
+}
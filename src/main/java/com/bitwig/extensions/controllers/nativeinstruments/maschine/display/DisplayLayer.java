@@ -20,6 +20,7 @@ public abstract class DisplayLayer extends MaschineLayer {
 	private final BooleanValueObject active = new BooleanValueObject();
 	private boolean infoModeActive = false;
 	private int focusTouchIndex = -1;
+	private boolean displayDirty = false;
 
 	protected boolean isMacroDown = false;
 
@@ -63,6 +64,7 @@ public abstract class DisplayLayer extends MaschineLayer {
 	final protected void onDeactivate() {
 		doDeactivate();
 		infoModeActive = false;
+		displayDirty = false;
 		active.setValue(false);
 	}
 
@@ -120,10 +122,50 @@ public abstract class DisplayLayer extends MaschineLayer {
 		}
 	}
 
+	/**
+	 * Marks the display content as outdated. Observers only call this, the
+	 * content is rendered once in the next flush by {@link #renderDisplay()}.
+	 */
+	protected void markDisplayDirty() {
+		if (!displayDirty) {
+			displayDirty = true;
+			getDriver().getHost().requestFlush();
+		}
+	}
+
+	/**
+	 * Called from the extension flush, renders the display if it has been marked
+	 * dirty since the last flush.
+	 */
+	public void flushDisplay() {
+		if (!displayDirty) {
+			return;
+		}
+		displayDirty = false;
+		if (isActive()) {
+			renderDisplay();
+		}
+	}
+
+	protected void renderDisplay() {
+		/* for subclasses */
+	}
+
 	protected void sendToDisplay(final int index, final String displayValue) {
 		getDriver().sendToDisplayBuffered(index, displayValue);
 	}
 
+	/**
+	 * Writes a grid directly into the display buffer, see
+	 * {@link DisplayBuffer#line(int)}. Like {@link #sendToDisplay(int, String)}
+	 * this ends a temporary readout shown in the grid.
+	 */
+	protected DisplayBuffer.Line line(final int index) {
+		final DisplayBuffer display = getDriver().getDisplayBuffer();
+		display.clearTemporary(index);
+		return display.line(index);
+	}
+
 	/**
 	 * Property of Display that control parameters, i.e. Mixer, i.e Device
 	 * 
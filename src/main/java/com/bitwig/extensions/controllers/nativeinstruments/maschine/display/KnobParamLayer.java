@@ -33,13 +33,13 @@ public class KnobParamLayer extends MaschineLayer {
 	}
 
 	public void updateDisplayValues(final String value, final int index) {
-		values[index] = DisplayUtil.padString(value, 6);
+		values[index] = value;
 		refreshValue(index / 4);
 	}
 
 	public void bindDiplayValue(final int index, final SettableRangedValue param) {
 		param.displayedValue().addValueObserver(v -> updateDisplayValues(v, index));
-		values[index] = DisplayUtil.padString(param.displayedValue().get(), 6);
+		values[index] = param.displayedValue().get();
 	}
 
 	public void bindScrollable(final int index, final Scrollable scrollable) {
@@ -93,24 +93,15 @@ public class KnobParamLayer extends MaschineLayer {
 		if (!isActive()) {
 			return;
 		}
-		if (section == 0) {
-			final StringBuilder b = new StringBuilder();
-			for (int i = 0; i < 4; i++) {
-				b.append(getValueSegment(i));
-				if (i < 3) {
-					b.append('|');
+		if (section == 0 || section == 1) {
+			final DisplayBuffer.Line line = getDriver().getDisplayBuffer().line(section + 2);
+			for (int i = section * 4; i < section * 4 + 4; i++) {
+				line.text(getValueSegment(i), 6);
+				if (i % 4 < 3) {
+					line.ch('|');
 				}
 			}
-			getDriver().sendToDisplay(2, b.toString());
-		} else if (section == 1) {
-			final StringBuilder b = new StringBuilder();
-			for (int i = 4; i < 8; i++) {
-				b.append(getValueSegment(i));
-				if (i < 7) {
-					b.append('|');
-				}
-			}
-			getDriver().sendToDisplay(3, b.toString());
+			line.end();
 		}
 		if (nameContainer != null) {
 			nameContainer.updateDetail();
@@ -13,7 +13,6 @@ import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.Mode
 public class MixerLayer extends DisplayLayer implements NameContainer {
 
 	private final String[] names = new String[8];
-	private final String[] fullNames = new String[8];
 	private final boolean[] trackExists = new boolean[8];
 	private String currentSendName = "";
 
@@ -51,8 +50,7 @@ public class MixerLayer extends DisplayLayer implements NameContainer {
 			track.volume().displayedValue().markInterested();
 			track.pan().displayedValue().markInterested();
 
-			names[i] = DisplayUtil.padString(track.name().get(), 6);
-			fullNames[i] = DisplayUtil.padString(track.name().get(), 12);
+			names[i] = track.name().get();
 
 			final SendBank sendBank = track.sendBank();
 
@@ -103,21 +101,28 @@ public class MixerLayer extends DisplayLayer implements NameContainer {
 		if (!isActive()) {
 			return;
 		}
-		final StringBuilder b = new StringBuilder();
-		String detailSegment2 = "";
+		final DisplayBuffer.Line detail = line(TOP_LEFT);
+		final DisplayBuffer.Line detailSegment2 = line(TOP_RIGHT);
 		final int currentParamIndex = getFocusTouchIndex();
 		if (isInfoModeActive()) {
-			b.append(" ---- | ---- |<PARAM|PARAM>");
-			detailSegment2 = " ---- | ---- | ---- | //// ";
+			detail.text(" ---- | ---- |<PARAM|PARAM>");
+			detailSegment2.text(" ---- | ---- | ---- | //// ");
 		} else if (getDriver().getTouchHandler().isTouched() //
 				&& currentParamIndex != -1 //
 				&& trackExists[currentParamIndex]) {
-			b.append(fullNames[currentParamIndex] + " = " + currentParamLayer.getValue(currentParamIndex));
+			detail.text(names[currentParamIndex], 12).text(" = ").text(currentParamLayer.getValue(currentParamIndex), 6);
 		} else {
-			b.append(currentParamLayer.getTitle() + (currentParamLayer == sendLayer ? " " + currentSendName : ""));
+			writeTitle(detail);
+		}
+		detail.end();
+		detailSegment2.end();
+	}
+
+	private void writeTitle(final DisplayBuffer.Line line) {
+		line.text(currentParamLayer.getTitle());
+		if (currentParamLayer == sendLayer) {
+			line.ch(' ').text(currentSendName);
 		}
-		sendToDisplay(0, b.toString());
-		sendToDisplay(1, detailSegment2);
 	}
 
 	public void incLayer(final int inc) {
@@ -144,9 +149,10 @@ public class MixerLayer extends DisplayLayer implements NameContainer {
 			currentParamLayer = nextMode;
 			currentParamLayer.getValueDescriptors();
 			currentParamLayer.activate();
-			sendToDisplay(0,
-					currentParamLayer.getTitle() + (currentParamLayer == sendLayer ? " " + currentSendName : ""));
-			sendToDisplay(1, "");
+			final DisplayBuffer.Line title = line(TOP_LEFT);
+			writeTitle(title);
+			title.end();
+			line(TOP_RIGHT).end();
 		}
 	}
 
@@ -181,8 +187,7 @@ public class MixerLayer extends DisplayLayer implements NameContainer {
 	}
 
 	private void updateTrackName(final String name, final int index) {
-		names[index] = DisplayUtil.padString(name, 6);
-		fullNames[index] = DisplayUtil.padString(name, 12);
+		names[index] = name;
 		refreschTrackName(index / 4);
 	}
 
@@ -82,7 +82,7 @@ public class StepEditDisplayLayer extends DisplayLayer {
 			updateTrackName();
 		});
 		clip.clipLauncherSlot().name().addValueObserver(s -> {
-			clipName = DisplayUtil.padString(s, 8);
+			clipName = s;
 			updateClipName();
 		});
 		this.stepMode.setFocusChangerListener(s -> {
@@ -121,65 +121,58 @@ public class StepEditDisplayLayer extends DisplayLayer {
 		if (!isActive()) {
 			return;
 		}
-		String topLeft = "";
-		String topRight = "";
-		String bottomLeft = "";
-		String bottomRight = "";
+		final DisplayBuffer.Line topLeft = line(TOP_LEFT);
+		final DisplayBuffer.Line topRight = line(TOP_RIGHT);
+		final DisplayBuffer.Line bottomLeft = line(BOTTOM_LEFT);
+		final DisplayBuffer.Line bottomRight = line(BOTTOM_RIGHT);
 		if (isInfoModeActive()) {
-			topLeft = " ---- | ---- | <POS | POS> ";
-			topRight = "+CLIP | DUPL | ---- | ---- ";
-			bottomLeft = getLeftValues(true);
-			bottomRight = " ---- | ---- | ---- | ---- ";
+			topLeft.text(" ---- | ---- | <POS | POS> ");
+			topRight.text("+CLIP | DUPL | ---- | ---- ");
+			writeLeftValues(bottomLeft, true);
+			bottomRight.text(" ---- | ---- | ---- | ---- ");
 		} else {
-			topRight = "EDIT POS:" + DisplayUtil.beatsFormatted(stepMode.getPositionHandler().getPosition() * 16);
-			topLeft = getTrackClipInfo();
-			bottomLeft = getLeftValues(false);
-			bottomRight = "";
+			topRight.text("EDIT POS:").beats(stepMode.getPositionHandler().getPosition() * 16);
+			writeTrackClipInfo(topLeft);
+			writeLeftValues(bottomLeft, false);
 		}
-		sendToDisplay(TOP_LEFT, topLeft);
-		sendToDisplay(TOP_RIGHT, topRight);
-		sendToDisplay(BOTTOM_LEFT, bottomLeft);
-		sendToDisplay(BOTTOM_RIGHT, bottomRight);
-
+		topLeft.end();
+		topRight.end();
+		bottomLeft.end();
+		bottomRight.end();
 	}
 
-	public String getRightValues(final boolean forceValue) {
-		final StringBuilder sb = new StringBuilder();
-		sb.append("I.NLEN ");
-		return sb.toString();
+	private void writeRightValues(final DisplayBuffer.Line line) {
+		line.text("I.NLEN ");
 	}
 
-	public String getLeftValues(final boolean forceValue) {
-		final StringBuilder sb = new StringBuilder();
+	private void writeLeftValues(final DisplayBuffer.Line line, final boolean forceValue) {
 		if (touched[0]) {
-			sb.append(DisplayUtil.padString(stepMode.getFocus(), 27));
+			line.text(stepMode.getFocus(), 27);
+			return;
+		}
+		if (forceValue) {
+			line.text(stepMode.getFocus(), 6);
 		} else {
-			if (forceValue) {
-				sb.append(DisplayUtil.padString(stepMode.getFocus(), 6));
-			} else {
-				sb.append("I.NOTE");
-			}
-			sb.append("|");
-			if (touched[1] || forceValue) {
-				sb.append(DisplayUtil.padValue(this.stepMode.getRefVelocity(), 6));
-			} else {
-				sb.append("I.VEL ");
-			}
-			sb.append("|");
-			if (touched[2] || forceValue) {
-				sb.append(
-						DisplayUtil.padString(DisplayUtil.beatsFormatted(stepMode.getClip().getLoopLength().get()), 6));
-			} else {
-				sb.append("CL.LEN");
-			}
-			sb.append("|");
-			if (touched[3] || forceValue) {
-				sb.append(DisplayUtil.padString(stepMode.getPositionHandler().getGridValue(), 6));
-			} else {
-				sb.append("GR.RES");
-			}
+			line.text("I.NOTE");
+		}
+		line.ch('|');
+		if (touched[1] || forceValue) {
+			line.number(this.stepMode.getRefVelocity(), 6);
+		} else {
+			line.text("I.VEL ");
+		}
+		line.ch('|');
+		if (touched[2] || forceValue) {
+			line.beats(stepMode.getClip().getLoopLength().get()).spaces(1);
+		} else {
+			line.text("CL.LEN");
+		}
+		line.ch('|');
+		if (touched[3] || forceValue) {
+			line.text(stepMode.getPositionHandler().getGridValue(), 6);
+		} else {
+			line.text("GR.RES");
 		}
-		return sb.toString();
 	}
 
 	private void duplicateClip() {
@@ -231,29 +224,33 @@ public class StepEditDisplayLayer extends DisplayLayer {
 
 	private void updateTrackName() {
 		if (isActive()) {
-			sendToDisplay(TOP_LEFT, getTrackClipInfo());
+			final DisplayBuffer.Line line = line(TOP_LEFT);
+			writeTrackClipInfo(line);
+			line.end();
 		}
 	}
 
-	public String getTrackClipInfo() {
-		return "TR:" + trackName + " C:" + clipName;
+	private void writeTrackClipInfo(final DisplayBuffer.Line line) {
+		line.text("TR:").text(trackName).text(" C:").text(clipName, 8);
 	}
 
 	private void updateClipName() {
-		if (isActive()) {
-			sendToDisplay(TOP_LEFT, getTrackClipInfo());
-		}
+		updateTrackName();
 	}
 
 	private void updateBottomLeft() {
 		if (isActive()) {
-			sendToDisplay(BOTTOM_LEFT, getLeftValues(false));
+			final DisplayBuffer.Line line = line(BOTTOM_LEFT);
+			writeLeftValues(line, false);
+			line.end();
 		}
 	}
 
 	private void updateBottomRight() {
 		if (isActive()) {
-			sendToDisplay(BOTTOM_RIGHT, getRightValues(false));
+			final DisplayBuffer.Line line = line(BOTTOM_RIGHT);
+			writeRightValues(line);
+			line.end();
 		}
 	}
 
@@ -2,6 +2,8 @@ package com.bitwig.extensions.controllers.novation.launchkey_mini;
 
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
 import com.bitwig.extensions.controllers.novation.common.SimpleLedColor;
+import com.bitwig.extensions.framework.animation.TransportClock;
+import com.bitwig.extensions.framework.animation.TransportSyncedBlinkAnimation;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.BooleanValue;
 import com.bitwig.extension.controller.api.ClipLauncherSlot;
@@ -21,6 +23,7 @@ import com.bitwig.extension.controller.api.RemoteControl;
 import com.bitwig.extension.controller.api.Scene;
 import com.bitwig.extension.controller.api.Track;
 import com.bitwig.extension.controller.api.TrackBank;
+import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extension.controller.api.UserControlBank;
 
 public class LaunchkeyMiniControllerExtension extends ControllerExtension
@@ -36,8 +39,10 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
       }
    }
 
+   /** Queued clips blink every eighth note. */
+   private static final double BLINK_CYCLE_IN_BEATS = 0.5;
+
    Mode mMode;
-   private boolean mBlink = true;
 
    public LaunchkeyMiniControllerExtension(
       final LaunchkeyMiniControllerExtensionDefinition definition,
@@ -107,16 +112,9 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
 
       setMode(Mode.PLAY);
 
-      blinkTimer();
-   }
-
-   private void blinkTimer()
-   {
-      int BLINK_RATE = 160;
-
-      mBlink = !mBlink;
-
-      mHost.scheduleTask(this::blinkTimer, BLINK_RATE);
+      final Transport transport = mHost.createTransport();
+      mBlinkAnimation = new TransportSyncedBlinkAnimation(this, new TransportClock(transport),
+         () -> mMode == Mode.LAUNCH, () -> Boolean.TRUE, BLINK_CYCLE_IN_BEATS);
    }
 
    private void updateIndications()
@@ -339,6 +337,8 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
    @Override
    public void flush()
    {
+      final boolean blink = mBlinkAnimation.getAsBoolean();
+
       for (SimpleLed sceneLed : mSceneLeds)
       {
          sceneLed.setColor(SimpleLedColor.Off);
@@ -409,7 +409,7 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
                mPadLeds[p].setColor(SimpleLedColor.Off);
             }
 
-            if (mBlink)
+            if (blink)
             {
                if (slot.isStopQueued().get())
                {
@@ -491,4 +491,5 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
    private BooleanValue[] mIsCursorDevice = new BooleanValue[8];
    private UserControlBank mUserControls;
    private PopupBrowser mPopupBrowser;
+   private TransportSyncedBlinkAnimation mBlinkAnimation;
 }
@@ -4,6 +4,8 @@ import java.util.Arrays;
 
 import com.bitwig.extensions.controllers.novation.common.DefaultPalette;
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
+import com.bitwig.extensions.framework.animation.TransportClock;
+import com.bitwig.extensions.framework.animation.TransportSyncedBlinkAnimation;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.BooleanValue;
 import com.bitwig.extension.controller.api.ClipLauncherSlot;
@@ -43,8 +45,10 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
       }
    }
 
+   /** Queued clips blink every eighth note. */
+   private static final double BLINK_CYCLE_IN_BEATS = 0.5;
+
    Mode mMode;
-   private boolean mBlink = true;
    private boolean mIgnoreModeChanges = false;
 
    public LaunchkeyMk2ControllerExtension(
@@ -140,16 +144,8 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
 
       setMode(Mode.PLAY, false);
 
-      blinkTimer();
-   }
-
-   private void blinkTimer()
-   {
-      int BLINK_RATE = 160;
-
-      mBlink = !mBlink;
-
-      mHost.scheduleTask(this::blinkTimer, BLINK_RATE);
+      mBlinkAnimation = new TransportSyncedBlinkAnimation(this, new TransportClock(mTransport),
+         () -> mMode == Mode.LAUNCH, () -> Boolean.TRUE, BLINK_CYCLE_IN_BEATS);
    }
 
    private void updateIndications()
@@ -519,6 +515,8 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
    @Override
    public void flush()
    {
+      final boolean blink = mBlinkAnimation.getAsBoolean();
+
       final int offColor = 0;
       final int white = 3;
       final int grey = 117;
@@ -601,7 +599,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
                mPadLeds[p].setColor(offColor);
             }
 
-            if (mBlink)
+            if (blink)
             {
                if (slot.isStopQueued().get())
                {
@@ -742,6 +740,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
    private BooleanValue[] mIsCursorDevice = new BooleanValue[8];
    private UserControlBank mUserControls;
    private PopupBrowser mPopupBrowser;
+   private TransportSyncedBlinkAnimation mBlinkAnimation;
    private CursorRemoteControlsPage mDeviceEnvelopes;
    private MasterTrack mMasterTrack;
    private Transport mTransport;
@@ -102,7 +102,7 @@ final class Button
    }
 
    public void appendLedUpdate(
-      final StringBuilder ledClear, final StringBuilder ledUpdate, final StringBuilder ledPulseUpdate)
+      final LedSysexBuffer ledClear, final LedSysexBuffer ledUpdate, final LedSysexBuffer ledPulseUpdate)
    {
       final ObjectHardwareProperty<InternalHardwareLightState> state = mLight.state();
       LedState currentState = (LedState)state.currentValue();
@@ -120,12 +120,12 @@ final class Button
       if (pulse == NO_PULSE)
       {
          if (color.isBlack())
-            ledClear.append(String.format(" %02x 00", mIndex));
+            ledClear.append(mIndex, 0);
          else
-            ledUpdate.append(String.format(" %02x %02x %02x %02x", mIndex, color.mRed, color.mGreen, color.mBlue));
+            ledUpdate.append(mIndex, color.mRed, color.mGreen, color.mBlue);
       }
       else
-         ledPulseUpdate.append(String.format(" %02x %02x", mIndex, pulse));
+         ledPulseUpdate.append(mIndex, pulse);
    }
 
    // For debugging
@@ -4,6 +4,12 @@ import com.bitwig.extension.controller.api.ColorValue;
 
 final class Color
 {
+   /**
+    * Canonical colors indexed by their 6 bits components: the first level is indexed by red and the pages by
+    * green and blue. Pages are allocated on demand.
+    */
+   private static final Color[][] CACHE = new Color[64][];
+
    static final Color OFF = Color.fromRgb255(0, 0, 0);
 
    static final Color BLUE = new Color(0.f, 0.f, 1.f);
@@ -138,6 +144,41 @@ final class Color
       return new Color(r / 255.0f, g / 255.0f, b / 255.0f);
    }
 
+   /** Gets the canonical instance for the supplied color value, so that no color gets allocated when flushing. */
+   static Color of(final ColorValue value)
+   {
+      return of((byte)(63 * value.red()), (byte)(63 * value.green()), (byte)(63 * value.blue()));
+   }
+
+   /** Gets the canonical instance for the supplied 6 bits components. */
+   static Color of(final byte red, final byte green, final byte blue)
+   {
+      Color[] page = CACHE[red];
+
+      if (page == null)
+      {
+         page = new Color[64 * 64];
+         CACHE[red] = page;
+      }
+
+      final int index = (green << 6) | blue;
+      Color color = page[index];
+
+      if (color == null)
+      {
+         color = new Color(red, green, blue);
+         page[index] = color;
+      }
+
+      return color;
+   }
+
+   /** The 6 bits components packed as 18 bits. */
+   int toRgb18()
+   {
+      return (mRed << 12) | (mGreen << 6) | mBlue;
+   }
+
    public boolean equals(final Color color)
    {
       return this == color || (mRed == color.mRed && mGreen == color.mGreen && mBlue == color.mBlue);
@@ -145,7 +186,7 @@ final class Color
 
    public static Color scale(final Color color, final float scale)
    {
-      return new Color((byte) (color.mRed * scale),
+      return of((byte) (color.mRed * scale),
          (byte) (color.mGreen * scale),
          (byte) (color.mBlue * scale));
    }
@@ -5,10 +5,10 @@ import com.bitwig.extension.controller.api.PlayingNoteArrayValue;
 
 final class DrumMode extends Mode
 {
-   private static final LedState DRUM1_LED = new LedState(Color.fromRgb255(255, 170, 0));
-   private static final LedState DRUM2_LED = new LedState(Color.fromRgb255(0, 170, 127));
-   private static final LedState DRUM3_LED = new LedState(Color.fromRgb255(255, 0, 255));
-   private static final LedState DRUM4_LED = new LedState(Color.fromRgb255(255, 0, 0));
+   private static final LedState DRUM1_LED = LedState.of(Color.fromRgb255(255, 170, 0));
+   private static final LedState DRUM2_LED = LedState.of(Color.fromRgb255(0, 170, 127));
+   private static final LedState DRUM3_LED = LedState.of(Color.fromRgb255(255, 0, 255));
+   private static final LedState DRUM4_LED = LedState.of(Color.fromRgb255(255, 0, 0));
 
    public DrumMode(final LaunchpadProControllerExtension driver)
    {
@@ -16,7 +16,7 @@ final class KeyboardMode extends Mode
 
       final CursorTrack cursorTrack = driver.mCursorTrack;
       final PlayingNoteArrayValue playingNotes = cursorTrack.playingNotes();
-      mKeyboardLayer = new KeyboardLayer(driver, "keyboard", 0, 0, 8, 8, () -> new Color(cursorTrack.color()),
+      mKeyboardLayer = new KeyboardLayer(driver, "keyboard", 0, 0, 8, 8, () -> Color.of(cursorTrack.color()),
          playingNotes::isNotePlaying, null);
 
       bindPressed(driver.mRightButton, cursorTrack.selectNextAction());
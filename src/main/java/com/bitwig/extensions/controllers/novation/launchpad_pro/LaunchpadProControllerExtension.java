@@ -418,6 +418,10 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       mMidiIn = host.getMidiInPort(0);
       mMidiOut = host.getMidiOutPort(0);
 
+      mLedClearSysexBuffer = new LedSysexBuffer(mMidiOut, LedSysexBuffer.SET_LEDS_COMMAND, 2);
+      mLedColorUpdateSysexBuffer = new LedSysexBuffer(mMidiOut, LedSysexBuffer.SET_LEDS_RGB_COMMAND, 4);
+      mLedPulseUpdateSysexBuffer = new LedSysexBuffer(mMidiOut, LedSysexBuffer.PULSE_LEDS_COMMAND, 2);
+
       mNoteInput = mMidiIn.createNoteInput("Input", "8?????", "9?????", "A?????", "D?????", "E?????");
       mNoteInput.setKeyTranslationTable(NoteInputUtils.NO_NOTES);
       mNoteInput.includeInAllInputs().markInterested();
@@ -565,13 +569,6 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    public void updateButtonLed(final Button button)
    {
       button.appendLedUpdate(mLedClearSysexBuffer, mLedColorUpdateSysexBuffer, mLedPulseUpdateSysexBuffer);
-
-      // Lets not send sysex that are too big
-      if (mLedColorUpdateSysexBuffer.length() >= 4 * 3 * 48)
-      {
-         sendLedUpdateSysex(mLedColorUpdateSysexBuffer.toString());
-         mLedColorUpdateSysexBuffer.setLength(0); // clears it
-      }
    }
 
    public int getFlushIteration()
@@ -583,20 +580,12 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    public void flush()
    {
       ++mFlushIteration;
-      mLedClearSysexBuffer.setLength(0);
-      mLedColorUpdateSysexBuffer.setLength(0);
-      mLedPulseUpdateSysexBuffer.setLength(0);
 
       mHardwareSurface.updateHardware();
 
-      if (mLedClearSysexBuffer.length() > 0)
-         mMidiOut.sendSysex("F0 00 20 29 02 10 0A" + mLedClearSysexBuffer + " F7");
-
-      if (mLedColorUpdateSysexBuffer.length() > 0)
-         sendLedUpdateSysex(mLedColorUpdateSysexBuffer.toString());
-
-      if (mLedPulseUpdateSysexBuffer.length() > 0)
-         mMidiOut.sendSysex("F0 00 20 29 02 10 28" + mLedPulseUpdateSysexBuffer + " F7");
+      mLedClearSysexBuffer.send();
+      mLedColorUpdateSysexBuffer.send();
+      mLedPulseUpdateSysexBuffer.send();
    }
 
    private boolean isRecording()
@@ -612,9 +601,12 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       if (mCurrentMode == mode)
          return;
 
-      mCurrentMode.deactivate();
-      mCurrentMode = mode;
-      mCurrentMode.activate();
+      mLayers.batch(() ->
+      {
+         mCurrentMode.deactivate();
+         mCurrentMode = mode;
+         mCurrentMode.activate();
+      });
 
       updateKeyTranslationTable();
    }
@@ -626,24 +618,27 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       if (isPressed)
          bt.onButtonPressed(getHost());
 
-      if (mBottomOverlay != null)
-         mBottomOverlay.deactivate();
-
-      if (isPressed)
+      mLayers.batch(() ->
       {
-         if (mBottomOverlay != overlay)
-            mBottomOverlay = overlay;
+         if (mBottomOverlay != null)
+            mBottomOverlay.deactivate();
+
+         if (isPressed)
+         {
+            if (mBottomOverlay != overlay)
+               mBottomOverlay = overlay;
+            else
+               mBottomOverlay = null;
+         }
          else
-            mBottomOverlay = null;
-      }
-      else
-      {
-         if (mBottomOverlay == overlay && bt.getButtonState() == Button.State.HOLD)
-            mBottomOverlay = null;
-      }
+         {
+            if (mBottomOverlay == overlay && bt.getButtonState() == Button.State.HOLD)
+               mBottomOverlay = null;
+         }
 
-      if (mBottomOverlay != null)
-         mBottomOverlay.activate();
+         if (mBottomOverlay != null)
+            mBottomOverlay.activate();
+      });
 
       updateKeyTranslationTable();
    }
@@ -715,12 +710,12 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
    Color getTrackColor(final int i)
    {
-      return new Color(mTrackBank.getItemAt(i).color());
+      return Color.of(mTrackBank.getItemAt(i).color());
    }
 
    Color getCursorTrackColor()
    {
-      return new Color(mCursorTrack.color());
+      return Color.of(mCursorTrack.color());
    }
 
    private void setKeyboardLayout(final KeyboardLayout keyboardLayout)
@@ -835,7 +830,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    private int mFlushIteration = 0;
 
    /* Sysex buffer for flushing */
-   private final StringBuilder mLedClearSysexBuffer = new StringBuilder();
-   private final StringBuilder mLedColorUpdateSysexBuffer = new StringBuilder();
-   private final StringBuilder mLedPulseUpdateSysexBuffer = new StringBuilder();
+   private LedSysexBuffer mLedClearSysexBuffer;
+   private LedSysexBuffer mLedColorUpdateSysexBuffer;
+   private LedSysexBuffer mLedPulseUpdateSysexBuffer;
 }
@@ -6,96 +6,131 @@ import com.bitwig.extension.controller.api.InternalHardwareLightState;
 
 final class LedState extends InternalHardwareLightState
 {
-   public static final LedState OFF = new LedState(Color.OFF, 0);
+   /**
+    * Canonical led states keyed by pulse and 18 bits color: the first level is indexed by the pulse and the
+    * red component, the pages by green and blue. Pages are allocated on demand.
+    */
+   private static final LedState[][] CACHE = new LedState[128 * 64][];
 
-   public static final LedState SESSION_MODE_ON = new LedState(Color.SESSION_MODE_ON);
-   public static final LedState SESSION_MODE_OFF = new LedState(Color.SESSION_MODE_OFF);
+   public static final LedState OFF = of(Color.OFF, 0);
 
-   public static final LedState PAN_MODE = new LedState(Color.PAN_MODE);
-   public static final LedState PAN_MODE_LOW = new LedState(Color.PAN_MODE_LOW);
+   public static final LedState SESSION_MODE_ON = of(Color.SESSION_MODE_ON);
+   public static final LedState SESSION_MODE_OFF = of(Color.SESSION_MODE_OFF);
 
-   public static final LedState SENDS_MODE = new LedState(Color.SENDS_MODE);
-   public static final LedState SENDS_MODE_LOW = new LedState(Color.SENDS_MODE_LOW);
+   public static final LedState PAN_MODE = of(Color.PAN_MODE);
+   public static final LedState PAN_MODE_LOW = of(Color.PAN_MODE_LOW);
 
-   public static final LedState VOLUME_MODE = new LedState(Color.VOLUME_MODE);
-   public static final LedState VOLUME_MODE_LOW = new LedState(Color.VOLUME_MODE_LOW);
+   public static final LedState SENDS_MODE = of(Color.SENDS_MODE);
+   public static final LedState SENDS_MODE_LOW = of(Color.SENDS_MODE_LOW);
 
-   public static final LedState PLAY_MODE = new LedState(Color.PLAY_MODE);
-   public static final LedState PLAY_MODE_OFF = new LedState(Color.PLAY_MODE_OFF);
+   public static final LedState VOLUME_MODE = of(Color.VOLUME_MODE);
+   public static final LedState VOLUME_MODE_LOW = of(Color.VOLUME_MODE_LOW);
 
-   public static final LedState DRUM_SEQ_MODE = new LedState(Color.DRUM_SEQ_MODE);
-   public static final LedState DRUM_SEQ_MODE_OFF = new LedState(Color.DRUM_SEQ_MODE_OFF);
+   public static final LedState PLAY_MODE = of(Color.PLAY_MODE);
+   public static final LedState PLAY_MODE_OFF = of(Color.PLAY_MODE_OFF);
 
-   public static final LedState STEP_SEQ_MODE = new LedState(Color.STEP_SEQ_MODE);
-   public static final LedState STEP_SEQ_MODE_OFF = new LedState(Color.STEP_SEQ_MODE_OFF);
+   public static final LedState DRUM_SEQ_MODE = of(Color.DRUM_SEQ_MODE);
+   public static final LedState DRUM_SEQ_MODE_OFF = of(Color.DRUM_SEQ_MODE_OFF);
 
-   public static final LedState TRACK = new LedState(Color.TRACK);
-   public static final LedState TRACK_LOW = new LedState(Color.TRACK_LOW);
+   public static final LedState STEP_SEQ_MODE = of(Color.STEP_SEQ_MODE);
+   public static final LedState STEP_SEQ_MODE_OFF = of(Color.STEP_SEQ_MODE_OFF);
 
-   public static final LedState SCENE = new LedState(Color.SCENE);
-   public static final LedState SCENE_LOW = new LedState(Color.SCENE_LOW);
+   public static final LedState TRACK = of(Color.TRACK);
+   public static final LedState TRACK_LOW = of(Color.TRACK_LOW);
 
-   public static final LedState SHIFT_ON = new LedState(Color.SHIFT_ON);
-   public static final LedState SHIFT_OFF = new LedState(Color.SHIFT_OFF);
+   public static final LedState SCENE = of(Color.SCENE);
+   public static final LedState SCENE_LOW = of(Color.SCENE_LOW);
 
-   public static final LedState CLICK_ON = new LedState(Color.CLICK_ON);
-   public static final LedState CLICK_OFF = new LedState(Color.CLICK_OFF);
+   public static final LedState SHIFT_ON = of(Color.SHIFT_ON);
+   public static final LedState SHIFT_OFF = of(Color.SHIFT_OFF);
 
-   public static final LedState UNDO_ON = new LedState(Color.UNDO_ON);
-   public static final LedState UNDO_OFF = new LedState(Color.UNDO_OFF);
+   public static final LedState CLICK_ON = of(Color.CLICK_ON);
+   public static final LedState CLICK_OFF = of(Color.CLICK_OFF);
 
-   public static final LedState REC_ON = new LedState(Color.REC_ON);
-   public static final LedState REC_OFF = new LedState(Color.REC_OFF);
+   public static final LedState UNDO_ON = of(Color.UNDO_ON);
+   public static final LedState UNDO_OFF = of(Color.UNDO_OFF);
 
-   public static final LedState PLAY_ON = new LedState(Color.PLAY_ON);
-   public static final LedState PLAY_OFF = new LedState(Color.PLAY_OFF);
+   public static final LedState REC_ON = of(Color.REC_ON);
+   public static final LedState REC_OFF = of(Color.REC_OFF);
 
-   public static final LedState DELETE_ON = new LedState(Color.DELETE_ON);
-   public static final LedState DELETE_OFF = new LedState(Color.DELETE_OFF);
+   public static final LedState PLAY_ON = of(Color.PLAY_ON);
+   public static final LedState PLAY_OFF = of(Color.PLAY_OFF);
 
-   public static final LedState QUANTIZE_ON = new LedState(Color.QUANTIZE_ON);
-   public static final LedState QUANTIZE_OFF = new LedState(Color.QUANTIZE_OFF);
+   public static final LedState DELETE_ON = of(Color.DELETE_ON);
+   public static final LedState DELETE_OFF = of(Color.DELETE_OFF);
 
-   public static final LedState DUPLICATE_ON = new LedState(Color.DUPLICATE_ON);
-   public static final LedState DUPLICATE_OFF = new LedState(Color.DUPLICATE_OFF);
+   public static final LedState QUANTIZE_ON = of(Color.QUANTIZE_ON);
+   public static final LedState QUANTIZE_OFF = of(Color.QUANTIZE_OFF);
 
-   public static final LedState MUTE = new LedState(Color.MUTE);
-   public static final LedState MUTE_LOW = new LedState(Color.MUTE_LOW);
+   public static final LedState DUPLICATE_ON = of(Color.DUPLICATE_ON);
+   public static final LedState DUPLICATE_OFF = of(Color.DUPLICATE_OFF);
 
-   public static final LedState SOLO = new LedState(Color.SOLO);
-   public static final LedState SOLO_LOW = new LedState(Color.SOLO_LOW);
+   public static final LedState MUTE = of(Color.MUTE);
+   public static final LedState MUTE_LOW = of(Color.MUTE_LOW);
 
-   public static final LedState STOP_CLIP_ON = new LedState(Color.STOP_CLIP_ON);
-   public static final LedState STOP_CLIP_OFF = new LedState(Color.STOP_CLIP_OFF);
+   public static final LedState SOLO = of(Color.SOLO);
+   public static final LedState SOLO_LOW = of(Color.SOLO_LOW);
 
-   public static final LedState STEP_HOLD = new LedState(Color.STEP_HOLD);
-   public static final LedState STEP_PLAY_HEAD = new LedState(Color.STEP_PLAY_HEAD);
-   public static final LedState STEP_PLAY = new LedState(Color.STEP_PLAY);
-   public static final LedState STEP_ON = new LedState(Color.STEP_ON);
-   public static final LedState STEP_SUSTAIN = new LedState(Color.STEP_SUSTAIN);
-   public static final LedState STEP_OFF = new LedState(Color.STEP_OFF);
+   public static final LedState STOP_CLIP_ON = of(Color.STOP_CLIP_ON);
+   public static final LedState STOP_CLIP_OFF = of(Color.STOP_CLIP_OFF);
 
-   public static final LedState PITCH = new LedState(Color.PITCH);
-   public static final LedState PITCH_LOW = new LedState(Color.PITCH_LOW);
+   public static final LedState STEP_HOLD = of(Color.STEP_HOLD);
+   public static final LedState STEP_PLAY_HEAD = of(Color.STEP_PLAY_HEAD);
+   public static final LedState STEP_PLAY = of(Color.STEP_PLAY);
+   public static final LedState STEP_ON = of(Color.STEP_ON);
+   public static final LedState STEP_SUSTAIN = of(Color.STEP_SUSTAIN);
+   public static final LedState STEP_OFF = of(Color.STEP_OFF);
 
-   final static LedState ROOT_KEY_COLOR = new LedState(Color.fromRgb255(11, 100, 63));
-   final static LedState USED_KEY_COLOR = new LedState(Color.fromRgb255(255, 240, 240));
-   final static LedState UNUSED_KEY_COLOR = new LedState(Color.fromRgb255(40, 40, 40));
-   final static LedState SCALE_ON_COLOR = new LedState(Color.fromRgb255(50, 167, 202));
-   final static LedState SCALE_OFF_COLOR = new LedState(Color.scale(SCALE_ON_COLOR.mColor, 0.2f));
+   public static final LedState PITCH = of(Color.PITCH);
+   public static final LedState PITCH_LOW = of(Color.PITCH_LOW);
 
+   final static LedState ROOT_KEY_COLOR = of(Color.fromRgb255(11, 100, 63));
+   final static LedState USED_KEY_COLOR = of(Color.fromRgb255(255, 240, 240));
+   final static LedState UNUSED_KEY_COLOR = of(Color.fromRgb255(40, 40, 40));
+   final static LedState SCALE_ON_COLOR = of(Color.fromRgb255(50, 167, 202));
+   final static LedState SCALE_OFF_COLOR = of(Color.scale(SCALE_ON_COLOR.mColor, 0.2f));
 
-   public LedState(final ColorValue color)
+
+   /**
+    * Gets the canonical led state for the supplied color. Led states are interned so that computing the led
+    * states does not allocate when flushing and comparing them is mostly an identity check.
+    */
+   static LedState of(final ColorValue color)
    {
-      this(new Color(color));
+      return of(Color.of(color), 0);
    }
 
-   LedState(final Color color)
+   static LedState of(final Color color)
    {
-      this(color, 0);
+      return of(color, 0);
+   }
+
+   static LedState of(final Color color, final int pulse)
+   {
+      assert pulse >= 0 && pulse < 128;
+
+      final int key = (pulse << 18) | color.toRgb18();
+      LedState[] page = CACHE[key >> 12];
+
+      if (page == null)
+      {
+         page = new LedState[64 * 64];
+         CACHE[key >> 12] = page;
+      }
+
+      final int index = key & 0xFFF;
+      LedState state = page[index];
+
+      if (state == null)
+      {
+         state = new LedState(Color.of(color.mRed, color.mGreen, color.mBlue), pulse);
+         page[index] = state;
+      }
+
+      return state;
    }
 
-   LedState(final Color color, final int pulse)
+   private LedState(final Color color, final int pulse)
    {
       mColor = color;
       mPulse = pulse;
@@ -115,6 +150,7 @@ final class LedState extends InternalHardwareLightState
 
    public boolean equals(final LedState obj)
    {
+      // Led states are interned, only compare the values in case an instance got created concurrently.
       if (obj == this)
          return true;
 
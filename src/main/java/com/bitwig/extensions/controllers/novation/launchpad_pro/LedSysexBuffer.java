@@ -0,0 +1,114 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Accumulates LED updates for one of the Launchpad Pro LED sysex commands directly as bytes, so that
+ * flushing does not need to format and re-parse hex strings. Messages are split when they reach the maximum
+ * number of LEDs per message, and the sent byte arrays are reused for every message of the same size.
+ */
+final class LedSysexBuffer
+{
+   /** Sets the colors of LEDs from the palette: index, color. */
+   static final int SET_LEDS_COMMAND = 0x0A;
+
+   /** Sets the colors of LEDs as RGB: index, red, green, blue. */
+   static final int SET_LEDS_RGB_COMMAND = 0x0B;
+
+   /** Makes LEDs pulse using a color from the palette: index, color. */
+   static final int PULSE_LEDS_COMMAND = 0x28;
+
+   private static final byte[] SYSEX_HEADER = { (byte)0xF0, 0x00, 0x20, 0x29, 0x02, 0x10 };
+
+   private static final int MAX_LEDS_PER_MESSAGE = 48;
+
+   LedSysexBuffer(final MidiOut midiOut, final int command, final int bytesPerLed)
+   {
+      mMidiOut = midiOut;
+      mBytesPerLed = bytesPerLed;
+
+      mData = new byte[SYSEX_HEADER.length + 1 + MAX_LEDS_PER_MESSAGE * bytesPerLed + 1];
+      System.arraycopy(SYSEX_HEADER, 0, mData, 0, SYSEX_HEADER.length);
+      mData[SYSEX_HEADER.length] = (byte)command;
+      mLength = HEADER_LENGTH;
+
+      mMessagesByLedCount = new byte[MAX_LEDS_PER_MESSAGE + 1][];
+   }
+
+   void append(final int index, final int value)
+   {
+      assert mBytesPerLed == 2;
+
+      mData[mLength++] = (byte)index;
+      mData[mLength++] = (byte)value;
+
+      ledAppended();
+   }
+
+   void append(final int index, final int red, final int green, final int blue)
+   {
+      assert mBytesPerLed == 4;
+
+      mData[mLength++] = (byte)index;
+      mData[mLength++] = (byte)red;
+      mData[mLength++] = (byte)green;
+      mData[mLength++] = (byte)blue;
+
+      ledAppended();
+   }
+
+   private void ledAppended()
+   {
+      ++mLedCount;
+
+      // Lets not send sysex that are too big
+      if (mLedCount == MAX_LEDS_PER_MESSAGE)
+         send();
+   }
+
+   /** Sends the pending LED updates, if any. */
+   void send()
+   {
+      if (mLedCount == 0)
+         return;
+
+      byte[] message = mMessagesByLedCount[mLedCount];
+
+      if (message == null)
+      {
+         message = new byte[mLength + 1];
+         mMessagesByLedCount[mLedCount] = message;
+      }
+
+      System.arraycopy(mData, 0, message, 0, mLength);
+      message[mLength] = (byte)0xF7;
+
+      mMidiOut.sendSysex(message);
+
+      mBytesSent += message.length;
+      mLedCount = 0;
+      mLength = HEADER_LENGTH;
+   }
+
+   /** The total number of sysex bytes sent by this buffer. */
+   long getBytesSent()
+   {
+      return mBytesSent;
+   }
+
+   private static final int HEADER_LENGTH = SYSEX_HEADER.length + 1;
+
+   private final MidiOut mMidiOut;
+
+   private final int mBytesPerLed;
+
+   private final byte[] mData;
+
+   private int mLength;
+
+   private int mLedCount;
+
+   private final byte[][] mMessagesByLedCount;
+
+   private long mBytesSent;
+}
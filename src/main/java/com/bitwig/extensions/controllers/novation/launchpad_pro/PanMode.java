@@ -28,7 +28,7 @@ final class PanMode extends Mode
                   return LedState.OFF;
                if ((value < 0 && padValue < 0 && padValue >= value) ||
                   (value > 0 && padValue > 0 && padValue <= value))
-                  return new LedState(track.color());
+                  return LedState.of(track.color());
                return LedState.OFF;
             }, button.mLight);
          }
@@ -39,8 +39,8 @@ final class PanMode extends Mode
             if (!track.exists().get())
                return LedState.OFF;
             if (pan.get() == 0)
-               return new LedState(track.color());
-            return new LedState(Color.scale(new Color(track.color()), .2f));
+               return LedState.of(track.color());
+            return LedState.of(Color.scale(Color.of(track.color()), .2f));
          }, sceneButton.mLight);
       }
 
@@ -0,0 +1,118 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import com.bitwig.extension.controller.api.NoteStep;
+
+/**
+ * Index of the notes in the step window of the cursor clip, fed by the clip's note step observer. For every
+ * step it keeps a bitset of the keys having a note starting on that step and a bitset of the keys having a
+ * note sustained over that step, so that painting a step or testing a key does not have to query the 128
+ * keys of the step from the clip.
+ */
+final class StepNoteIndex
+{
+   StepNoteIndex(final int stepCount)
+   {
+      mStepCount = stepCount;
+      mNoteOnKeys = new long[stepCount * WORDS_PER_STEP];
+      mNoteSustainKeys = new long[stepCount * WORDS_PER_STEP];
+   }
+
+   /** To be registered with {@link com.bitwig.extension.controller.api.Clip#addNoteStepObserver}. */
+   void onNoteStepChanged(final NoteStep noteStep)
+   {
+      final int step = noteStep.x();
+      final int key = noteStep.y();
+
+      if (noteStep.channel() != 0 || step < 0 || step >= mStepCount || key < 0 || key >= 128)
+         return;
+
+      final int word = step * WORDS_PER_STEP + (key >> 6);
+      final long bit = 1L << key;
+
+      mNoteOnKeys[word] &= ~bit;
+      mNoteSustainKeys[word] &= ~bit;
+
+      switch (noteStep.state())
+      {
+         case NoteOn:
+            mNoteOnKeys[word] |= bit;
+            break;
+         case NoteSustain:
+            mNoteSustainKeys[word] |= bit;
+            break;
+         case Empty:
+            /* Nothing to do */
+      }
+   }
+
+   boolean isNoteOn(final int step, final int key)
+   {
+      assert key >= 0 && key < 128;
+
+      return (mNoteOnKeys[step * WORDS_PER_STEP + (key >> 6)] & (1L << key)) != 0;
+   }
+
+   /** Finds the lowest key greater or equal to fromKey with a note starting on the step, or -1. */
+   int nextNoteOnKey(final int step, final int fromKey)
+   {
+      return nextKey(mNoteOnKeys, step, fromKey);
+   }
+
+   /** Finds the highest key with a note sustained over the step, or -1. */
+   int lastNoteSustainKey(final int step)
+   {
+      final int offset = step * WORDS_PER_STEP;
+
+      for (int w = WORDS_PER_STEP - 1; w >= 0; --w)
+      {
+         final long bits = mNoteSustainKeys[offset + w];
+         if (bits != 0)
+            return (w << 6) + 63 - Long.numberOfLeadingZeros(bits);
+      }
+
+      return -1;
+   }
+
+   /**
+    * The state of the step as shown by the step sequencer: NoteOn if a note starts on it, NoteSustain if a
+    * note is sustained over it and Empty otherwise.
+    */
+   NoteStep.State getStepState(final int step)
+   {
+      final int offset = step * WORDS_PER_STEP;
+
+      if ((mNoteOnKeys[offset] | mNoteOnKeys[offset + 1]) != 0)
+         return NoteStep.State.NoteOn;
+
+      if ((mNoteSustainKeys[offset] | mNoteSustainKeys[offset + 1]) != 0)
+         return NoteStep.State.NoteSustain;
+
+      return NoteStep.State.Empty;
+   }
+
+   private static int nextKey(final long[] keys, final int step, final int fromKey)
+   {
+      final int offset = step * WORDS_PER_STEP;
+
+      for (int w = fromKey >> 6; w < WORDS_PER_STEP; ++w)
+      {
+         long bits = keys[offset + w];
+
+         if (w == fromKey >> 6)
+            bits &= -1L << fromKey;
+
+         if (bits != 0)
+            return (w << 6) + Long.numberOfTrailingZeros(bits);
+      }
+
+      return -1;
+   }
+
+   private static final int WORDS_PER_STEP = 2;
+
+   private final int mStepCount;
+
+   private final long[] mNoteOnKeys;
+
+   private final long[] mNoteSustainKeys;
+}
@@ -16,9 +16,10 @@ final class StepSequencerMode extends AbstractSequencerMode
       super(driver, "step-sequencer");
 
       final PinnableCursorClip cursorClip = driver.mCursorClip;
+      cursorClip.addNoteStepObserver(mStepNoteIndex::onNoteStepChanged);
 
       mKeyboardLayer = new KeyboardLayer(driver, "step-sequencer-keyboard", 0, 0, 8, 4,
-         () -> new Color(mDriver.mCursorClip.color()), this::isKeyOn, this::onKeyDataPressed);
+         () -> Color.of(mDriver.mCursorClip.color()), this::isKeyOn, this::onKeyDataPressed);
       mMixDataLayer = new LaunchpadLayer(driver, "drum-seq-mix-data");
       mSoundDataLayer = new LaunchpadLayer(driver, "drum-seq-sound-data");
 
@@ -154,14 +155,8 @@ final class StepSequencerMode extends AbstractSequencerMode
    @Override
    protected NoteStep findStepInfo(final int clipStepIndex)
    {
-      final Clip cursorClip = mDriver.mCursorClip;
-      for (int key = 0; key < 128; ++key)
-      {
-         final NoteStep noteStep = cursorClip.getStep(0, clipStepIndex, key);
-         if (noteStep.state() == NoteStep.State.NoteOn)
-            return noteStep;
-      }
-      return cursorClip.getStep(0, clipStepIndex, 0);
+      final int key = mStepNoteIndex.nextNoteOnKey(clipStepIndex, 0);
+      return mDriver.mCursorClip.getStep(0, clipStepIndex, key >= 0 ? key : 0);
    }
 
    private boolean isKeyOn(final int key)
@@ -171,14 +166,12 @@ final class StepSequencerMode extends AbstractSequencerMode
       if (mDriver.mCursorClip.getTrack().playingNotes().isNotePlaying(key))
          return true;
 
-      final Clip cursorClip = mDriver.mCursorClip;
       final List<Button> stepsInHoldState = getStepsInHoldState();
       for (final Button button : stepsInHoldState)
       {
          final int clipStepIndex = calculateClipStepIndex(button.mX - 1, 8 - button.mY);
 
-         final NoteStep noteStep = cursorClip.getStep(0, clipStepIndex, key);
-         return noteStep.state() == NoteStep.State.NoteOn;
+         return mStepNoteIndex.isNoteOn(clipStepIndex, key);
       }
 
       return false;
@@ -189,14 +182,13 @@ final class StepSequencerMode extends AbstractSequencerMode
       final Clip clip = mDriver.mCursorClip;
       final int playingStep = clip.playingStep().get();
 
-      final int clipStepIndex = calculateClipStepIndex(x, y);
-      final NoteStep noteStep = computeVerticalStepState(clipStepIndex);
-
       if (playingStep == mPage * 32 + 8 * y + x)
          return LedState.STEP_PLAY_HEAD;
       if (mDriver.getPadButton(x, 7- y).getButtonState() == Button.State.HOLD)
          return LedState.STEP_HOLD;
-      switch (noteStep.state())
+
+      final int clipStepIndex = calculateClipStepIndex(x, y);
+      switch (mStepNoteIndex.getStepState(clipStepIndex))
       {
          case NoteOn:
             return LedState.STEP_ON;
@@ -209,28 +201,6 @@ final class StepSequencerMode extends AbstractSequencerMode
       }
    }
 
-   private NoteStep computeVerticalStepState(final int absoluteStepIndex)
-   {
-      final Clip clip = mDriver.mCursorClip;
-      NoteStep value = clip.getStep(0, absoluteStepIndex, 0);
-
-      for (int i = 0; i < 128; ++i)
-      {
-         final NoteStep noteStep = clip.getStep(0, absoluteStepIndex, i);
-         switch (noteStep.state())
-         {
-            case NoteOn:
-               return noteStep;
-            case NoteSustain:
-               value = noteStep;
-               break;
-            case Empty:
-               /* Nothing to do */
-         }
-      }
-      return value;
-   }
-
    void invalidate()
    {
       if (!isActive())
@@ -248,11 +218,10 @@ final class StepSequencerMode extends AbstractSequencerMode
       {
          final int clipStepIndex = calculateClipStepIndex(buttonState.mX - 1, 8 - buttonState.mY);
 
-         for (int key = 0; key < 128; ++key)
+         for (int key = mStepNoteIndex.nextNoteOnKey(clipStepIndex, 0); key >= 0;
+              key = mStepNoteIndex.nextNoteOnKey(clipStepIndex, key + 1))
          {
             final NoteStep noteStep = clip.getStep(0, clipStepIndex, key);
-            if (noteStep.state() != NoteStep.State.NoteOn)
-               continue;
 
             switch (y)
             {
@@ -285,11 +254,10 @@ final class StepSequencerMode extends AbstractSequencerMode
       {
          final int clipStepIndex = calculateClipStepIndex(buttonState.mX - 1, 8 - buttonState.mY);
 
-         for (int key = 0; key < 128; ++key)
+         for (int key = mStepNoteIndex.nextNoteOnKey(clipStepIndex, 0); key >= 0;
+              key = mStepNoteIndex.nextNoteOnKey(clipStepIndex, key + 1))
          {
             final NoteStep noteStep = clip.getStep(0, clipStepIndex, key);
-            if (noteStep.state() != NoteStep.State.NoteOn)
-               continue;
 
             switch (y)
             {
@@ -346,8 +314,7 @@ final class StepSequencerMode extends AbstractSequencerMode
       if (mDriver.isShiftOn() || mDriver.isDeleteOn())
          return;
 
-      final NoteStep noteStep = computeVerticalStepState(absoluteStep);
-      if (noteStep.state() == NoteStep.State.NoteOn && !wasHeld)
+      if (mStepNoteIndex.getStepState(absoluteStep) == NoteStep.State.NoteOn && !wasHeld)
          cursorClip.clearStepsAtX(0, absoluteStep);
    }
 
@@ -396,6 +363,7 @@ final class StepSequencerMode extends AbstractSequencerMode
       }
    }
 
+   private final StepNoteIndex mStepNoteIndex = new StepNoteIndex(32);
    private final KeyboardLayer mKeyboardLayer;
    private final LaunchpadLayer mMixDataLayer;
    private final LaunchpadLayer mSoundDataLayer;
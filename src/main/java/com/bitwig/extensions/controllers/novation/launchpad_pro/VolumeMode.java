@@ -27,7 +27,7 @@ final class VolumeMode extends Mode
                if (!track.exists().get())
                   return LedState.OFF;
                if (value >= padValue)
-                  return new LedState(track.color());
+                  return LedState.of(track.color());
                return LedState.OFF;
             }, button.mLight);
          }
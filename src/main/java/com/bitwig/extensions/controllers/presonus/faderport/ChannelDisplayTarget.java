@@ -86,6 +86,21 @@ class ChannelDisplayTarget implements DisplayTarget
       return "";
    }
 
+   @Override
+   public boolean addChangeListener(final Runnable listener)
+   {
+      mTrack.exists().addValueObserver(exists -> listener.run());
+      mTrack.position().addValueObserver(position -> listener.run());
+      mTrack.name().addValueObserver(name -> listener.run());
+      mTrack.pan().addValueObserver(pan -> listener.run());
+      mIsSelected.addValueObserver(isSelected -> listener.run());
+      mMotorFader.isBeingTouched().addValueObserver(isTouched -> listener.run());
+      getMainControl().displayedValue().addValueObserver(value -> listener.run());
+      getLabelControl().name().addValueObserver(name -> listener.run());
+
+      return true;
+   }
+
    protected Parameter getMainControl()
    {
       return mTrack.volume();
@@ -1,6 +1,8 @@
 package com.bitwig.extensions.controllers.presonus.faderport;
 
-import com.bitwig.extension.api.util.midi.SysexBuilder;
+import java.util.ArrayList;
+import java.util.List;
+
 import com.bitwig.extension.controller.api.HardwareTextDisplay;
 import com.bitwig.extension.controller.api.MidiOut;
 
@@ -8,41 +10,71 @@ class Display
 {
    private static int TEXT_LINES = 7;
 
+   private static int MAX_TEXT_LENGTH = 7;
+
+   private static final int TEXT_COMMAND = 0x12;
+
+   private static final int MODE_COMMAND = 0x13;
+
    public Display(final int channel, final String sysexHeader, final PresonusFaderPort extension)
    {
       mChannel = channel;
-      mSysexHeader = sysexHeader;
+      mSysexHeader = parseHex(sysexHeader);
       mExtension = extension;
       mTextDisplay = extension.mHardwareSurface.createHardwareTextDisplay("display" + (channel + 1),
          TEXT_LINES);
+
+      mModeMessage = createMessage(2);
+      mModeMessage[mSysexHeader.length] = MODE_COMMAND;
+      mModeMessage[mSysexHeader.length + 1] = (byte)channel;
+
+      for (int length = 0; length <= MAX_TEXT_LENGTH; length++)
+      {
+         final byte[] message = createMessage(3 + length);
+         message[mSysexHeader.length] = TEXT_COMMAND;
+         message[mSysexHeader.length + 1] = (byte)channel;
+         mTextMessages[length] = message;
+      }
+   }
+
+   /**
+    * Registers a target that may be bound to this display. Targets that report their changes only cause an
+    * update after a change, all others are polled on every flush.
+    */
+   public void addTarget(final DisplayTarget displayTarget)
+   {
+      if (!displayTarget.addChangeListener(this::invalidate))
+         mPolledTargets.add(displayTarget);
    }
 
    public void setDisplayTarget(final DisplayTarget displayTarget)
    {
       assert (mDisplayTarget == null) != (displayTarget == null);
 
-      if (mDisplayTarget != null)
-      {
-         for (int line = 0; line < TEXT_LINES; line++)
-         {
-            mTextDisplay.line(line).text().setValueSupplier(null);
-         }
-      }
-
       mDisplayTarget = displayTarget;
+      mIsPolling = displayTarget != null && mPolledTargets.contains(displayTarget);
 
-      if (mDisplayTarget != null)
-      {
-         for (int line = 0; line < TEXT_LINES; line++)
-         {
-            final int finalLine = line;
-            mTextDisplay.line(line).text().setValueSupplier(() -> displayTarget.getText(finalLine));
-         }
-      }
+      invalidate();
+   }
+
+   /** Marks the content as changed, it will be evaluated in the next flush. */
+   public void invalidate()
+   {
+      mIsDirty = true;
    }
 
-   public void updateHardware()
+   /**
+    * Sends the parts of the display that changed.
+    *
+    * @return The number of text lines that were sent.
+    */
+   public int updateHardware()
    {
+      if (!mIsDirty && !mIsPolling)
+         return 0;
+
+      mIsDirty = false;
+
       final DisplayTarget target = mDisplayTarget != null ? mDisplayTarget : NULL_TARGET;
 
       final int barValue = target.getBarValue();
@@ -67,17 +99,15 @@ class Display
 
       if (mode != mLastMode)
       {
-         final SysexBuilder sb = SysexBuilder.fromHex(mSysexHeader);
-         sb.addHex("13");
-         sb.addByte(mChannel);
-         final int m = mode.ordinal() & 0xF;
-         sb.addByte(m);
-         midiOutPort.sendSysex(sb.terminate());
+         mModeMessage[mSysexHeader.length + 2] = (byte)(mode.ordinal() & 0xF);
+         midiOutPort.sendSysex(mModeMessage);
       }
 
+      int linesSent = 0;
+
       for (int line = 0; line < TEXT_LINES; line++)
       {
-         String text = mTextDisplay.line(line).text().currentValue();
+         String text = target.getText(line);
 
          if (text == null)
             text = "";
@@ -93,20 +123,52 @@ class Display
             mLastText[line] = text;
             mLastFlags[line] = flags;
 
-            final SysexBuilder sb = SysexBuilder.fromHex(mSysexHeader);
-            sb.addHex("12");
-            sb.addByte(mChannel);
-            sb.addByte(line);
-            sb.addByte(flags);
-            sb.addString(text, Math.min(7, text.length()));
-
-            midiOutPort.sendSysex(sb.terminate());
+            mTextDisplay.line(line).text().setValue(text);
+            midiOutPort.sendSysex(textMessage(line, flags, text));
+            linesSent++;
          }
       }
 
       mLastMode = mode;
       mLastBarValue = barValue;
       mLastValueBarMode = valueBarMode;
+
+      return linesSent;
+   }
+
+   private byte[] textMessage(final int line, final int flags, final String text)
+   {
+      final int length = Math.min(MAX_TEXT_LENGTH, text.length());
+      final byte[] message = mTextMessages[length];
+      int i = mSysexHeader.length + 2;
+
+      message[i++] = (byte)line;
+      message[i++] = (byte)flags;
+
+      for (int c = 0; c < length; c++)
+         message[i++] = (byte)(text.charAt(c) & 0x7F);
+
+      return message;
+   }
+
+   /** Creates a sysex message starting with the header and ending with F7, with room for the payload. */
+   private byte[] createMessage(final int payloadLength)
+   {
+      final byte[] message = new byte[mSysexHeader.length + payloadLength + 1];
+      System.arraycopy(mSysexHeader, 0, message, 0, mSysexHeader.length);
+      message[message.length - 1] = (byte)0xF7;
+      return message;
+   }
+
+   private static byte[] parseHex(final String hex)
+   {
+      final String[] parts = hex.trim().split("\\s+");
+      final byte[] bytes = new byte[parts.length];
+
+      for (int i = 0; i < parts.length; i++)
+         bytes[i] = (byte)Integer.parseInt(parts[i], 16);
+
+      return bytes;
    }
 
    private final int mChannel;
@@ -117,7 +179,12 @@ class Display
 
    private ValueBarMode mLastValueBarMode;
 
-   private final String mSysexHeader;
+   private final byte[] mSysexHeader;
+
+   private final byte[] mModeMessage;
+
+   /** Text messages by text length, the content is filled in before sending. */
+   private final byte[][] mTextMessages = new byte[MAX_TEXT_LENGTH + 1][];
 
    private final String[] mLastText = new String[TEXT_LINES];
 
@@ -129,6 +196,12 @@ class Display
 
    private DisplayTarget mDisplayTarget;
 
+   private final List<DisplayTarget> mPolledTargets = new ArrayList<>();
+
+   private boolean mIsPolling;
+
+   private boolean mIsDirty = true;
+
    private static final DisplayTarget NULL_TARGET = new DisplayTarget()
    {
       @Override
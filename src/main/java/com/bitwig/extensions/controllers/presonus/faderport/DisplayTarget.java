@@ -28,4 +28,16 @@ public interface DisplayTarget
    {
       return DisplayMode.Default;
    }
+
+   /**
+    * Registers observers on all values this target reads, so that the display is only updated after one of
+    * them changed. Called once during initialization.
+    *
+    * @return true if the listener gets called for every change, false if the display needs to poll this
+    *         target on every flush.
+    */
+   default boolean addChangeListener(final Runnable listener)
+   {
+      return false;
+   }
 }
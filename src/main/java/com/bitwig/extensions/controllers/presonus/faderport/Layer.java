@@ -11,6 +11,7 @@ class Layer extends com.bitwig.extensions.framework.Layer
 
    public void bind(final Display display, final DisplayTarget displayTarget)
    {
+      display.addTarget(displayTarget);
       addBinding(new DisplayBinding(display, displayTarget));
    }
 }
@@ -37,6 +37,7 @@ import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.LayerGroup;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.LevelMeterEngine;
 import com.bitwig.extensions.util.ValueUtils;
 
 public abstract class PresonusFaderPort extends ControllerExtension
@@ -53,6 +54,8 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
    private static final Color ARM_HIGH = Color.fromRGB(1.0f, 0.0f, 0.0f);
 
+   private static final int LEVEL_METER_RESOLUTION = 128;
+
    static int[] SELECT_IDS = { 0x18, 0x19, 0x1a, 0x1b, 0x1c, 0x1d, 0x1e, 0x1f, 0x7, 0x21, 0x22, 0x23, 0x24,
          0x25, 0x26, 0x27 };
 
@@ -183,6 +186,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
       initHardwareSurface();
       initLayers();
+      initLevelMeters();
 
       runningStatusTimer();
 
@@ -444,12 +448,12 @@ public abstract class PresonusFaderPort extends ControllerExtension
       mDefaultLayer.bind(mDisplayEncoder, mCursorTrack.pan());
       mDefaultLayer.bindPressed(mDisplayEncoder, mCursorTrack.pan()::reset);
 
-      mDefaultLayer.bindPressed(mShiftLeftButton, () -> mShift = true);
-      mDefaultLayer.bindReleased(mShiftLeftButton, () -> mShift = false);
+      mDefaultLayer.bindPressed(mShiftLeftButton, () -> setShift(true));
+      mDefaultLayer.bindReleased(mShiftLeftButton, () -> setShift(false));
       mDefaultLayer.bind(() -> mShift, mShiftLeftButton);
 
-      mDefaultLayer.bindPressed(mShiftRightButton, () -> mShift = true);
-      mDefaultLayer.bindReleased(mShiftRightButton, () -> mShift = false);
+      mDefaultLayer.bindPressed(mShiftRightButton, () -> setShift(true));
+      mDefaultLayer.bindReleased(mShiftRightButton, () -> setShift(false));
       mDefaultLayer.bind(() -> mShift, mShiftRightButton);
 
       mDefaultLayer.bindToggle(mPlayButton, mTransport.playAction(), mTransport.isPlaying());
@@ -661,6 +665,16 @@ public abstract class PresonusFaderPort extends ControllerExtension
             {
                return DisplayMode.Menu;
             }
+
+            @Override
+            public boolean addChangeListener(final Runnable listener)
+            {
+               cueMarker.exists().addValueObserver(exists -> listener.run());
+               cueMarker.getName().addValueObserver(name -> listener.run());
+               cueMarker.position().addValueObserver(position -> listener.run());
+
+               return true;
+            }
          });
       }
 
@@ -713,6 +727,29 @@ public abstract class PresonusFaderPort extends ControllerExtension
       }
    }
 
+   private void initLevelMeters()
+   {
+      mLevelMeters = new LevelMeterEngine(getHost(), mChannelCount, LEVEL_METER_RESOLUTION, this::sendLevel);
+
+      for (int channelIndex = 0; channelIndex < mChannelCount; channelIndex++)
+      {
+         final int meter = channelIndex;
+         final Track track = mTrackBank.getItemAt(channelIndex);
+
+         track.addVuMeterObserver(LEVEL_METER_RESOLUTION, -1, true,
+            v -> mLevelMeters.setLevel(meter, v, LEVEL_METER_RESOLUTION));
+      }
+   }
+
+   private void sendLevel(final int meter, final int level)
+   {
+      // Meters of the channels 1-8 use channel pressure, those of 9-16 use program change.
+
+      final int status = meter >= 8 ? 0xC0 | (meter - 8) : 0xD0 | meter;
+
+      mMidiOut.sendMidi(status, level, 0);
+   }
+
    private void initMasterLayer()
    {
       bindTrack(mMasterLayer, mChannelCount - 1, mMasterTrack);
@@ -733,9 +770,36 @@ public abstract class PresonusFaderPort extends ControllerExtension
    {
       mHardwareSurface.updateHardware();
 
+      int displayLinesSent = 0;
+
       for (int index = 0; index < mChannelCount; index++)
       {
-         mChannels[index].display.updateHardware();
+         displayLinesSent += mChannels[index].display.updateHardware();
+      }
+
+      mLastFlushDisplayLines = displayLinesSent;
+      mTotalDisplayLines += displayLinesSent;
+   }
+
+   /** Number of display text lines sent in the last flush. */
+   public int getLastFlushDisplayLines()
+   {
+      return mLastFlushDisplayLines;
+   }
+
+   public long getTotalDisplayLines()
+   {
+      return mTotalDisplayLines;
+   }
+
+   private void setShift(final boolean shift)
+   {
+      mShift = shift;
+
+      // The highlighted remote controls page depends on shift.
+      for (int index = 0; index < mChannelCount; index++)
+      {
+         mChannels[index].display.invalidate();
       }
    }
 
@@ -836,6 +900,21 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
                return false;
             }
+
+            @Override
+            public boolean addChangeListener(final Runnable listener)
+            {
+               parameter.value().addValueObserver(value -> listener.run());
+               parameter.name().addValueObserver(name -> listener.run());
+               parameter.displayedValue().addValueObserver(value -> listener.run());
+               mRemoteControls.pageNames().addValueObserver(pageNames -> listener.run());
+               mRemoteControls.selectedPageIndex().addValueObserver(index -> listener.run());
+
+               if (mRemoteControls2 != null)
+                  mRemoteControls2.selectedPageIndex().addValueObserver(index -> listener.run());
+
+               return true;
+            }
          });
       }
    }
@@ -979,6 +1058,12 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
    private MidiOut mMidiOut;
 
+   private LevelMeterEngine mLevelMeters;
+
+   private int mLastFlushDisplayLines;
+
+   private long mTotalDisplayLines;
+
    private Application mApplication;
 
    private Project mProject;
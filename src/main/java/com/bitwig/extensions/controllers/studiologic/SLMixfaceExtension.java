@@ -33,7 +33,8 @@ import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.DebugUtilities;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
-import com.bitwig.extensions.framework.animation.BlinkAnimation;
+import com.bitwig.extensions.framework.animation.TransportClock;
+import com.bitwig.extensions.framework.animation.TransportSyncedBlinkAnimation;
 
 public class SLMixfaceExtension extends ControllerExtension
 {
@@ -48,6 +49,7 @@ public class SLMixfaceExtension extends ControllerExtension
       final ControllerHost host = getHost();
 
       mTransport = host.createTransport();
+      mTransportClock = new TransportClock(mTransport);
       mTransport.isPlaying().markInterested();
       mTrackBank = host.createTrackBank(8, 0, 0);
       mMasterTrack = host.createMasterTrack(0);
@@ -446,8 +448,12 @@ public class SLMixfaceExtension extends ControllerExtension
 
             slot.isPlaying().markInterested();
 
-            layer.bind(new BlinkAnimation(this, () -> slot.isPlaying().get() && mTransport.isPlaying().get(),
-               slot.hasContent(), 0.1), button);
+            slot.hasContent().markInterested();
+
+            layer.bind(new TransportSyncedBlinkAnimation(this, mTransportClock,
+               () -> slot.isPlaying().get() && mTransport.isPlaying().get(), () -> slot.hasContent().get(),
+               BLINK_CYCLE_IN_BEATS),
+               button);
 
             sceneIndex++;
          }
@@ -518,8 +524,12 @@ public class SLMixfaceExtension extends ControllerExtension
          mTransport.record();
    }
 
+   private static final double BLINK_CYCLE_IN_BEATS = 0.5;
+
    private Transport mTransport;
 
+   private TransportClock mTransportClock;
+
    private TrackBank mTrackBank;
 
    private Track mMasterTrack;
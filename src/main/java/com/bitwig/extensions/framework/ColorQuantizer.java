@@ -0,0 +1,162 @@
+package com.bitwig.extensions.framework;
+
+import java.util.Arrays;
+
+/**
+ * Maps RGB colors to the palette index of a controller. Colors of the Bitwig palette can be registered to
+ * map exactly, all other colors are looked up in a table of 15 bit RGB values that is computed once from a
+ * {@link Mapping}. Lookups neither allocate nor box, so they can be used on every repaint.
+ */
+public final class ColorQuantizer
+{
+   /** Computes the palette index for an RGB color with 8 bit components. */
+   @FunctionalInterface
+   public interface Mapping
+   {
+      int paletteIndex(int red, int green, int blue);
+   }
+
+   /** Creates a quantizer that maps all colors that are not registered to the same palette index. */
+   public ColorQuantizer(final int defaultIndex)
+   {
+      super();
+
+      assert defaultIndex >= 0 && defaultIndex <= 0xFF;
+
+      mDefaultIndex = defaultIndex;
+      mTable = null;
+   }
+
+   /**
+    * Creates a quantizer that maps colors that are not registered with the supplied mapping. The mapping is
+    * evaluated for the center of each of the 32768 15 bit colors.
+    */
+   public ColorQuantizer(final Mapping mapping)
+   {
+      super();
+
+      mDefaultIndex = 0;
+      mTable = new byte[1 << 15];
+
+      for (int i = 0; i < mTable.length; i++)
+      {
+         final int red = expand(i >> 10);
+         final int green = expand(i >> 5);
+         final int blue = expand(i);
+         final int index = mapping.paletteIndex(red, green, blue);
+
+         assert index >= 0 && index <= 0xFF;
+
+         mTable[i] = (byte)index;
+      }
+   }
+
+   /** Registers a color that maps exactly to the supplied palette index. */
+   public void addColor(final int rgb, final int paletteIndex)
+   {
+      assert paletteIndex >= 0 && paletteIndex <= 0xFF;
+
+      if ((mExactCount + 1) * 2 > mExactKeys.length)
+         growExactTable();
+
+      putExact(rgb & 0xFFFFFF, paletteIndex);
+   }
+
+   public int getPaletteIndex(final int rgb)
+   {
+      final int key = rgb & 0xFFFFFF;
+      final int mask = mExactKeys.length - 1;
+
+      for (int slot = hash(key) & mask; mExactKeys[slot] != EMPTY; slot = (slot + 1) & mask)
+      {
+         if (mExactKeys[slot] == key)
+            return mExactValues[slot] & 0xFF;
+      }
+
+      if (mTable == null)
+         return mDefaultIndex;
+
+      return mTable[(key >> 9 & 0x7C00) | (key >> 6 & 0x3E0) | (key >> 3 & 0x1F)] & 0xFF;
+   }
+
+   /** @param red Component in the range 0 to 1, as reported by a color value. */
+   public int getPaletteIndex(final float red, final float green, final float blue)
+   {
+      return getPaletteIndex(toRgb(red, green, blue));
+   }
+
+   /** Converts color components in the range 0 to 1 to a 24 bit RGB value. */
+   public static int toRgb(final float red, final float green, final float blue)
+   {
+      return to8Bit(red) << 16 | to8Bit(green) << 8 | to8Bit(blue);
+   }
+
+   private static int to8Bit(final float value)
+   {
+      return Math.max(0, Math.min(255, (int)Math.floor(value * 255)));
+   }
+
+   /** Center of a 5 bit component in 8 bit. */
+   private static int expand(final int component5)
+   {
+      return (component5 & 0x1F) << 3 | 0x4;
+   }
+
+   private static int hash(final int key)
+   {
+      final int h = key * 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   private void putExact(final int key, final int paletteIndex)
+   {
+      final int mask = mExactKeys.length - 1;
+      int slot = hash(key) & mask;
+
+      while (mExactKeys[slot] != EMPTY && mExactKeys[slot] != key)
+         slot = (slot + 1) & mask;
+
+      if (mExactKeys[slot] == EMPTY)
+         mExactCount++;
+
+      mExactKeys[slot] = key;
+      mExactValues[slot] = (byte)paletteIndex;
+   }
+
+   private void growExactTable()
+   {
+      final int[] keys = mExactKeys;
+      final byte[] values = mExactValues;
+
+      mExactKeys = newKeys(keys.length * 2);
+      mExactValues = new byte[keys.length * 2];
+      mExactCount = 0;
+
+      for (int i = 0; i < keys.length; i++)
+      {
+         if (keys[i] != EMPTY)
+            putExact(keys[i], values[i] & 0xFF);
+      }
+   }
+
+   private static int[] newKeys(final int capacity)
+   {
+      final int[] keys = new int[capacity];
+      Arrays.fill(keys, EMPTY);
+      return keys;
+   }
+
+   private static final int EMPTY = -1;
+
+   private static final int INITIAL_EXACT_CAPACITY = 64;
+
+   private final int mDefaultIndex;
+
+   private final byte[] mTable;
+
+   private int[] mExactKeys = newKeys(INITIAL_EXACT_CAPACITY);
+
+   private byte[] mExactValues = new byte[INITIAL_EXACT_CAPACITY];
+
+   private int mExactCount;
+}
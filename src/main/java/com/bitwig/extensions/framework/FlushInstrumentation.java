@@ -0,0 +1,195 @@
+package com.bitwig.extensions.framework;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.DocumentState;
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extension.controller.api.SettableStringValue;
+
+/**
+ * Opt-in measurements of what the flush of an extension costs, to find out which of several running
+ * controllers is busy. Records histograms of the flush duration, of the messages and sysex bytes sent per
+ * flush and of the bindings toggled and the time spent per change of the active layers.
+ *
+ * A driver measures its flush by running it through {@link #measureFlush(Runnable)}, counts its output by
+ * sending through the ports returned from {@link #instrument(MidiOut)} and registers its layers with
+ * {@link #instrument(Layers)}. Messages sent between two flushes, for example from MIDI
+ * callbacks, are counted for the next flush. The histograms can be printed with {@link #print()},
+ * periodically with {@link #setReportInterval(int)} and be shown in the studio I/O panel with
+ * {@link #showInDocumentState(DocumentState)}.
+ */
+public class FlushInstrumentation
+{
+   public FlushInstrumentation(final ControllerHost host, final String name)
+   {
+      super();
+
+      mHost = host;
+      mName = name;
+   }
+
+   /** Runs the flush of the extension and records its duration and output. */
+   public void measureFlush(final Runnable flush)
+   {
+      final long start = System.nanoTime();
+
+      flush.run();
+
+      mFlushNanos.add(System.nanoTime() - start);
+      mMessagesPerFlush.add(mMessageCount);
+      mSysexBytesPerFlush.add(mSysexByteCount);
+      mMessageCount = 0;
+      mSysexByteCount = 0;
+   }
+
+   /** Wraps a port so that the messages sent through it are counted. */
+   public MidiOut instrument(final MidiOut midiOut)
+   {
+      return new RecordingMidiOut(midiOut, new RecordingMidiOut.Recorder()
+      {
+         @Override
+         public void midiSent(final int status, final int data1, final int data2)
+         {
+            mMessageCount++;
+         }
+
+         @Override
+         public void sysexSent(final byte[] data)
+         {
+            mMessageCount++;
+            mSysexByteCount += data.length;
+         }
+
+         @Override
+         public void sysexSent(final String hex)
+         {
+            mMessageCount++;
+            mSysexByteCount += RecordingMidiOut.getSysexLength(hex);
+         }
+      });
+   }
+
+   /** Measures every change of the active layers. */
+   public void instrument(final Layers layers)
+   {
+      layers.addActiveBindingsListener((changedLayers, durationNanos) -> {
+         mLayerChangeNanos.add(durationNanos);
+         mBindingChangesPerLayerChange.add(changedLayers.getLastBindingChangeCount());
+      });
+   }
+
+   public Histogram getFlushNanos()
+   {
+      return mFlushNanos;
+   }
+
+   public Histogram getMessagesPerFlush()
+   {
+      return mMessagesPerFlush;
+   }
+
+   public Histogram getSysexBytesPerFlush()
+   {
+      return mSysexBytesPerFlush;
+   }
+
+   public Histogram getLayerChangeNanos()
+   {
+      return mLayerChangeNanos;
+   }
+
+   public Histogram getBindingChangesPerLayerChange()
+   {
+      return mBindingChangesPerLayerChange;
+   }
+
+   /** Prints all histograms to the controller script console. */
+   public void print()
+   {
+      for (final Histogram histogram : mHistograms)
+         mHost.println(mName + " " + histogram);
+   }
+
+   public void clear()
+   {
+      for (final Histogram histogram : mHistograms)
+         histogram.clear();
+   }
+
+   /**
+    * Reports the histograms every given number of milliseconds, to the console and to the document state
+    * if shown there, and clears them afterwards so each report covers one interval. 0 stops reporting.
+    */
+   public void setReportInterval(final int intervalMs)
+   {
+      mReportIntervalMs = intervalMs;
+
+      if (intervalMs > 0 && !mIsReportScheduled)
+         scheduleReport();
+   }
+
+   /** Shows the histograms as text settings, updated on every periodic report. */
+   public void showInDocumentState(final DocumentState documentState)
+   {
+      mReadouts = new SettableStringValue[mHistograms.length];
+
+      for (int i = 0; i < mHistograms.length; i++)
+      {
+         mReadouts[i] = documentState.getStringSetting(mHistograms[i].getName(), "Instrumentation " + mName,
+            READOUT_LENGTH, "");
+         mReadouts[i].set(mHistograms[i].toString());
+      }
+   }
+
+   private void scheduleReport()
+   {
+      mIsReportScheduled = true;
+
+      mHost.scheduleTask(() -> {
+         mIsReportScheduled = false;
+
+         if (mReportIntervalMs <= 0)
+            return;
+
+         print();
+
+         if (mReadouts != null)
+         {
+            for (int i = 0; i < mHistograms.length; i++)
+               mReadouts[i].set(mHistograms[i].toString());
+         }
+
+         clear();
+         scheduleReport();
+      }, mReportIntervalMs);
+   }
+
+   private static final int READOUT_LENGTH = 80;
+
+   private final ControllerHost mHost;
+
+   private final String mName;
+
+   private final Histogram mFlushNanos = new Histogram("flush", "ns");
+
+   private final Histogram mMessagesPerFlush = new Histogram("messages per flush", "messages");
+
+   private final Histogram mSysexBytesPerFlush = new Histogram("sysex bytes per flush", "bytes");
+
+   private final Histogram mLayerChangeNanos = new Histogram("layer change", "ns");
+
+   private final Histogram mBindingChangesPerLayerChange = new Histogram("bindings per layer change",
+      "bindings");
+
+   private final Histogram[] mHistograms = {mFlushNanos, mMessagesPerFlush, mSysexBytesPerFlush,
+      mLayerChangeNanos, mBindingChangesPerLayerChange};
+
+   private int mMessageCount;
+
+   private int mSysexByteCount;
+
+   private int mReportIntervalMs;
+
+   private boolean mIsReportScheduled;
+
+   private SettableStringValue[] mReadouts;
+}
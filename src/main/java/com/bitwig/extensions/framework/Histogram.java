@@ -0,0 +1,98 @@
+package com.bitwig.extensions.framework;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non negative values with power of two buckets: bucket 0 counts zeros and bucket n the values
+ * from 2^(n-1) to 2^n - 1. Adding a value does not allocate, so it can be used on every flush. Percentiles
+ * are reported as the upper bound of their bucket and are therefore accurate within a factor of two.
+ */
+public class Histogram
+{
+   public Histogram(final String name, final String unit)
+   {
+      super();
+
+      mName = name;
+      mUnit = unit;
+   }
+
+   public String getName()
+   {
+      return mName;
+   }
+
+   public void add(final long value)
+   {
+      final long clippedValue = Math.max(0, value);
+
+      mCounts[64 - Long.numberOfLeadingZeros(clippedValue)]++;
+      mCount++;
+      mSum += clippedValue;
+      mMax = Math.max(mMax, clippedValue);
+   }
+
+   public long getCount()
+   {
+      return mCount;
+   }
+
+   public long getSum()
+   {
+      return mSum;
+   }
+
+   public long getMax()
+   {
+      return mMax;
+   }
+
+   public double getMean()
+   {
+      return mCount == 0 ? 0 : (double)mSum / mCount;
+   }
+
+   /** Upper bound of the bucket that holds the given percentage of all values, limited to the maximum. */
+   public long getPercentile(final double percent)
+   {
+      final long threshold = (long)Math.ceil(percent / 100 * mCount);
+      long count = 0;
+
+      for (int i = 0; i < mCounts.length; i++)
+      {
+         count += mCounts[i];
+
+         if (count >= threshold && count > 0)
+            return Math.min(mMax, i == 0 ? 0 : (1L << i) - 1);
+      }
+
+      return mMax;
+   }
+
+   public void clear()
+   {
+      Arrays.fill(mCounts, 0);
+      mCount = 0;
+      mSum = 0;
+      mMax = 0;
+   }
+
+   @Override
+   public String toString()
+   {
+      return String.format("%s: n=%d mean=%.1f p50<=%d p90<=%d p99<=%d max=%d %s", mName, mCount, getMean(),
+         getPercentile(50), getPercentile(90), getPercentile(99), mMax, mUnit);
+   }
+
+   private final String mName;
+
+   private final String mUnit;
+
+   private final long[] mCounts = new long[65];
+
+   private long mCount;
+
+   private long mSum;
+
+   private long mMax;
+}
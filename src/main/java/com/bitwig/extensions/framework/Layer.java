@@ -379,27 +379,25 @@ public class Layer
       {
          if (isActive && mLayerGroup != null)
          {
-            for (final Layer other : mLayerGroup.getLayers())
-            {
-               if (other != this)
-               {
-                  other.doSetIsActive(false);
-               }
-            }
+            mLayerGroup.activate(this);
          }
+         else
+         {
+            doSetIsActive(isActive);
 
-         doSetIsActive(isActive);
-
-         mLayers.activeLayersChanged();
+            mLayers.notifyActiveLayersChanged();
+         }
       }
    }
 
-   private final void doSetIsActive(final boolean isActive)
+   final void doSetIsActive(final boolean isActive)
    {
       if (isActive != mIsActive)
       {
          mIsActive = isActive;
 
+         mLayers.invalidateLayer(this);
+
          isActiveChanged();
 
          if (isActive)
@@ -441,6 +439,11 @@ public class Layer
       /* reserved for subclasses */
    }
 
+   LayerGroup getLayerGroup()
+   {
+      return mLayerGroup;
+   }
+
    void setLayerGroup(final LayerGroup layerGroup)
    {
       assert layerGroup != null;
@@ -456,7 +459,24 @@ public class Layer
 
    public void setShouldReplaceBindingsInLayersBelow(final boolean value)
    {
-      mShouldReplaceBindingsInLayersBelow = value;
+      if (value != mShouldReplaceBindingsInLayersBelow)
+      {
+         mShouldReplaceBindingsInLayersBelow = value;
+
+         if (mIsActive)
+            mLayers.invalidateLayer(this);
+      }
+   }
+
+   /** The priority of this layer among its layers. Layers created later have a higher priority. */
+   int getPriority()
+   {
+      return mPriority;
+   }
+
+   void setPriority(final int priority)
+   {
+      mPriority = priority;
    }
 
    private boolean mIsActive;
@@ -472,4 +492,6 @@ public class Layer
    private LayerGroup mLayerGroup;
 
    private boolean mShouldReplaceBindingsInLayersBelow = true;
+
+   private int mPriority;
 }
@@ -1,5 +1,6 @@
 package com.bitwig.extensions.framework;
 
+/** A group of layers of which only one can be active at a time. */
 public class LayerGroup
 {
    public LayerGroup(final Layer...layers)
@@ -18,5 +19,29 @@ public class LayerGroup
       return mLayers;
    }
 
+   /**
+    * Activates the supplied layer and deactivates all other layers in this group as a single transaction,
+    * so that bindings are only resolved once.
+    */
+   void activate(final Layer layer)
+   {
+      assert layer.getLayerGroup() == this;
+
+      layer.getLayers().batch(() ->
+      {
+         for (final Layer other : mLayers)
+         {
+            if (other != layer)
+            {
+               other.doSetIsActive(false);
+            }
+         }
+
+         layer.doSetIsActive(true);
+
+         layer.getLayers().notifyActiveLayersChanged();
+      });
+   }
+
    private final Layer[] mLayers;
 }
@@ -2,14 +2,25 @@ package com.bitwig.extensions.framework;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 
 import com.bitwig.extension.controller.ControllerExtension;
 
 public class Layers
 {
+   /** Notified after each update of the active bindings, for example to measure its cost. */
+   public interface ActiveBindingsListener
+   {
+      /**
+       * @param durationNanos Time the update took, the bindings it changed are counted by
+       *           {@link Layers#getLastBindingChangeCount()}.
+       */
+      void activeBindingsUpdated(Layers layers, long durationNanos);
+   }
+
    public Layers(final ControllerExtension controllerExtension)
    {
       super();
@@ -23,6 +34,8 @@ public class Layers
 
    void addLayer(final Layer layer)
    {
+      layer.setPriority(mLayers.size());
+
       mLayers.add(layer);
    }
 
@@ -36,60 +49,275 @@ public class Layers
       return Collections.unmodifiableList(mLayers);
    }
 
+   /**
+    * Called by a layer whose bindings need to be resolved again on the next call to
+    * {@link #activeLayersChanged()}, either because it was activated/deactivated or because its
+    * replacement behavior changed.
+    */
+   void invalidateLayer(final Layer layer)
+   {
+      if (!mInvalidLayers.contains(layer))
+         mInvalidLayers.add(layer);
+   }
+
+   /**
+    * Incrementally updates which bindings are active. Only the bindings of layers that were invalidated
+    * since the last update are visited: each of them is pushed onto (or removed from) the stack of bindings
+    * sharing its exclusivity object, and only those stacks are resolved again. The cost of toggling a
+    * layer therefore depends on the number of bindings in that layer and not on the total number of
+    * bindings. Only bindings whose active state actually changed get activated or deactivated, which
+    * avoids needlessly removing and adding host hardware bindings.
+    */
    @SuppressWarnings("rawtypes")
    private void updateActiveBindings()
    {
-      mActiveBindings.clear();
+      if (mInvalidLayers.isEmpty())
+      {
+         mLastBindingChangeCount = 0;
+         mLastHostRebindCount = 0;
+         return;
+      }
 
-      for (final Layer layer : mLayers)
+      for (int i = 0; i < mInvalidLayers.size(); i++)
       {
-         if (layer.isActive())
+         final Layer layer = mInvalidLayers.get(i);
+         final boolean isActive = layer.isActive();
+         final boolean isResolved = mResolvedLayers.contains(layer);
+
+         for (final Binding binding : layer.mBindings)
          {
-            for (final Binding binding : layer.mBindings)
+            final Object exclusivityObject = binding.getExclusivityObject();
+
+            if (isActive != isResolved)
             {
-               if (layer.shouldReplaceBindingsInLayersBelow())
-               {
-                  final Object exclusivityObject = binding.getExclusivityObject();
-
-                  for (final Iterator<Binding> i = mActiveBindings.iterator(); i.hasNext();)
-                  {
-                     final Binding activeBinding = i.next();
-
-                     if (Objects.equals(activeBinding.getExclusivityObject(), exclusivityObject)
-                        && activeBinding.getLayer() != layer)
-                     {
-                        i.remove();
-                        activeBinding.setIsActive(false);
-                     }
-                  }
-               }
-
-               mActiveBindings.add(binding);
+               if (isActive)
+                  pushBinding(exclusivityObject, binding);
+               else
+                  removeBinding(exclusivityObject, binding);
             }
+
+            mInvalidExclusivityObjects.add(exclusivityObject);
          }
+
+         if (isActive)
+            mResolvedLayers.add(layer);
          else
+            mResolvedLayers.remove(layer);
+      }
+
+      mInvalidLayers.clear();
+
+      for (final Object exclusivityObject : mInvalidExclusivityObjects)
+         resolveBindings(exclusivityObject);
+
+      mInvalidExclusivityObjects.clear();
+
+      // The queued bindings are the difference between the active bindings before and after this update.
+      // Deactivate first so that a hardware control is never bound to 2 targets at the same time.
+
+      int hostRebindCount = 0;
+
+      for (final Binding binding : mBindingsToDeactivate)
+      {
+         binding.setIsActive(false);
+
+         if (binding instanceof HardwareBinding)
+            hostRebindCount++;
+      }
+
+      for (final Binding binding : mBindingsToActivate)
+      {
+         binding.setIsActive(true);
+
+         if (binding instanceof HardwareBinding)
+            hostRebindCount++;
+      }
+
+      mLastBindingChangeCount = mBindingsToDeactivate.size() + mBindingsToActivate.size();
+      mLastHostRebindCount = hostRebindCount;
+      mHostRebindCount += hostRebindCount;
+
+      mBindingsToDeactivate.clear();
+      mBindingsToActivate.clear();
+   }
+
+   /** Inserts the binding into the stack for its exclusivity object, ordered by layer priority. */
+   @SuppressWarnings("rawtypes")
+   private void pushBinding(final Object exclusivityObject, final Binding binding)
+   {
+      List<Binding> stack = mBindingStacks.get(exclusivityObject);
+
+      if (stack == null)
+      {
+         stack = new ArrayList<>(2);
+         mBindingStacks.put(exclusivityObject, stack);
+      }
+
+      final int priority = binding.getLayer().getPriority();
+      int index = stack.size();
+
+      while (index > 0 && stack.get(index - 1).getLayer().getPriority() > priority)
+         index--;
+
+      stack.add(index, binding);
+   }
+
+   @SuppressWarnings("rawtypes")
+   private void removeBinding(final Object exclusivityObject, final Binding binding)
+   {
+      final List<Binding> stack = mBindingStacks.get(exclusivityObject);
+
+      assert stack != null;
+
+      stack.remove(binding);
+
+      if (stack.isEmpty())
+         mBindingStacks.remove(exclusivityObject);
+
+      if (binding.isActive())
+         mBindingsToDeactivate.add(binding);
+   }
+
+   /**
+    * Walks the stack of bindings for an exclusivity object from the top-most layer down. Bindings are active
+    * until a layer that replaces bindings in layers below has been passed.
+    */
+   @SuppressWarnings("rawtypes")
+   private void resolveBindings(final Object exclusivityObject)
+   {
+      final List<Binding> stack = mBindingStacks.get(exclusivityObject);
+
+      if (stack == null)
+         return;
+
+      boolean isHidden = false;
+      int i = stack.size() - 1;
+
+      while (i >= 0)
+      {
+         final Layer layer = stack.get(i).getLayer();
+
+         for (; i >= 0 && stack.get(i).getLayer() == layer; i--)
          {
-            for (final Binding binding : layer.mBindings)
+            final Binding binding = stack.get(i);
+            final boolean shouldBeActive = !isHidden;
+
+            if (binding.isActive() != shouldBeActive)
             {
-               binding.setIsActive(false);
+               if (shouldBeActive)
+                  mBindingsToActivate.add(binding);
+               else
+                  mBindingsToDeactivate.add(binding);
             }
          }
-      }
 
-      for (final Binding binding : mActiveBindings)
-      {
-         binding.setIsActive(true);
+         if (layer.shouldReplaceBindingsInLayersBelow())
+            isHidden = true;
       }
    }
 
    protected void activeLayersChanged()
    {
+      if (mActiveBindingsListeners.isEmpty())
+      {
+         updateActiveBindings();
+         return;
+      }
+
+      final long start = System.nanoTime();
+
       updateActiveBindings();
+
+      final long durationNanos = System.nanoTime() - start;
+
+      for (int i = 0; i < mActiveBindingsListeners.size(); i++)
+         mActiveBindingsListeners.get(i).activeBindingsUpdated(this, durationNanos);
    }
 
+   public void addActiveBindingsListener(final ActiveBindingsListener listener)
+   {
+      mActiveBindingsListeners.add(listener);
+   }
+
+   /**
+    * Runs the supplied runnable as one transaction: layers activated or deactivated by it (or by nested
+    * transactions) only get their bindings resolved once, when the outermost transaction ends. This should
+    * be used when switching modes that activate or deactivate several layers at once.
+    */
+   public void batch(final Runnable runnable)
+   {
+      mBatchDepth++;
+
+      try
+      {
+         runnable.run();
+      }
+      finally
+      {
+         mBatchDepth--;
+
+         if (mBatchDepth == 0 && mHasPendingActiveLayersChange)
+         {
+            mHasPendingActiveLayersChange = false;
+
+            activeLayersChanged();
+         }
+      }
+   }
+
+   public boolean isInBatch()
+   {
+      return mBatchDepth > 0;
+   }
+
+   /** Called by a layer when its active state changed. */
+   void notifyActiveLayersChanged()
+   {
+      if (mBatchDepth > 0)
+         mHasPendingActiveLayersChange = true;
+      else
+         activeLayersChanged();
+   }
+
+   @SuppressWarnings("rawtypes")
    public List<Binding> getActiveBindings()
    {
-      return Collections.unmodifiableList(mActiveBindings);
+      final List<Binding> activeBindings = new ArrayList<>();
+
+      for (final Layer layer : mLayers)
+      {
+         if (layer.isActive())
+         {
+            for (final Binding binding : layer.mBindings)
+            {
+               if (binding.isActive())
+                  activeBindings.add(binding);
+            }
+         }
+      }
+
+      return Collections.unmodifiableList(activeBindings);
+   }
+
+   /** The number of bindings that were activated or deactivated by the last change of the active layers. */
+   public int getLastBindingChangeCount()
+   {
+      return mLastBindingChangeCount;
+   }
+
+   /**
+    * The number of host hardware bindings that were added or removed by the last change of the active
+    * layers.
+    */
+   public int getLastHostRebindCount()
+   {
+      return mLastHostRebindCount;
+   }
+
+   /** The total number of host hardware bindings that were added or removed since these layers were created. */
+   public long getHostRebindCount()
+   {
+      return mHostRebindCount;
    }
 
    public double getGlobalSensitivity()
@@ -116,10 +344,35 @@ public class Layers
 
    private final List<Layer> mLayers = new ArrayList<>(4);
 
+   /** Layers whose bindings need to be resolved again. */
+   private final List<Layer> mInvalidLayers = new ArrayList<>(4);
+
+   /** Layers whose bindings are currently pushed onto the binding stacks. */
+   private final Set<Layer> mResolvedLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+   /** For each exclusivity object the bindings of active layers, from the lowest to the highest layer. */
+   @SuppressWarnings("rawtypes")
+   private final Map<Object, List<Binding>> mBindingStacks = new IdentityHashMap<>();
+
+   private final Set<Object> mInvalidExclusivityObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+
    @SuppressWarnings("rawtypes")
-   private final List<Binding> mActiveBindings = new ArrayList<>();
+   private final List<Binding> mBindingsToDeactivate = new ArrayList<>();
+
+   @SuppressWarnings("rawtypes")
+   private final List<Binding> mBindingsToActivate = new ArrayList<>();
+
+   private final List<ActiveBindingsListener> mActiveBindingsListeners = new ArrayList<>(1);
 
    private final ControllerExtension mControllerExtension;
 
+   private int mBatchDepth;
+
+   private boolean mHasPendingActiveLayersChange;
+
+   private int mLastBindingChangeCount, mLastHostRebindCount;
+
+   private long mHostRebindCount;
+
    private double mGlobalSensitivity = 1;
 }
@@ -0,0 +1,264 @@
+package com.bitwig.extensions.framework;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+
+/**
+ * Shapes the levels reported by the host for a set of hardware meters. Levels are sampled at a fixed frame
+ * rate, follow configurable attack and release times, can hold their peak for a while before releasing and
+ * are quantized to the resolution of the hardware. Only quantized levels that differ by at least the change
+ * threshold from the last sent level are passed to the {@link Output}, so small fluctuations do not flood
+ * the MIDI port.
+ *
+ * The frame clock only runs while at least one meter is still moving. A flush is requested after each frame
+ * that sent a level, so drivers that batch meter data can send it from their flush.
+ */
+public class LevelMeterEngine
+{
+   public static final int DEFAULT_FRAMES_PER_SEC = 25;
+
+   /** Receives the quantized level of a meter whenever it changed. */
+   @FunctionalInterface
+   public interface Output
+   {
+      void sendLevel(int meter, int level);
+   }
+
+   /**
+    * @param meterCount Number of meters, for example one per channel or two for a stereo channel.
+    * @param resolution Number of quantization steps, the sent levels are in the range 0 to resolution - 1.
+    */
+   public LevelMeterEngine(
+      final ControllerHost host,
+      final int meterCount,
+      final int resolution,
+      final Output output)
+   {
+      super();
+
+      assert meterCount > 0;
+      assert resolution > 1;
+
+      mHost = host;
+      mResolution = resolution;
+      mOutput = output;
+      mInputLevels = new float[meterCount];
+      mLevels = new float[meterCount];
+      mHoldFramesLeft = new int[meterCount];
+      mSentLevels = new int[meterCount];
+
+      updateCoefficients();
+      invalidate();
+   }
+
+   public int getMeterCount()
+   {
+      return mLevels.length;
+   }
+
+   public int getResolution()
+   {
+      return mResolution;
+   }
+
+   public void setFramesPerSecond(final int framesPerSecond)
+   {
+      assert framesPerSecond > 0;
+
+      mFramesPerSecond = framesPerSecond;
+      updateCoefficients();
+   }
+
+   /** Time in milliseconds to rise to a higher level, 0 to jump immediately. */
+   public void setAttackTime(final int attackTimeMs)
+   {
+      mAttackTimeMs = attackTimeMs;
+      updateCoefficients();
+   }
+
+   /** Time in milliseconds to fall to a lower level, 0 to drop immediately. */
+   public void setReleaseTime(final int releaseTimeMs)
+   {
+      mReleaseTimeMs = releaseTimeMs;
+      updateCoefficients();
+   }
+
+   /** Time in milliseconds a peak is held before the level starts to release, 0 to disable peak hold. */
+   public void setPeakHoldTime(final int peakHoldTimeMs)
+   {
+      mPeakHoldTimeMs = peakHoldTimeMs;
+      updateCoefficients();
+   }
+
+   /** Minimum difference in quantized steps to the last sent level before a level is sent again. */
+   public void setChangeThreshold(final int changeThreshold)
+   {
+      assert changeThreshold > 0;
+
+      mChangeThreshold = changeThreshold;
+   }
+
+   /**
+    * Sets the level reported by the host.
+    *
+    * @param level Level in the range 0 to 1.
+    */
+   public void setLevel(final int meter, final float level)
+   {
+      mInputLevels[meter] = level;
+
+      if (!mIsFrameScheduled && level != mLevels[meter])
+         scheduleNextFrame();
+   }
+
+   /** Convenience for levels from a VU meter observer that was registered with the supplied range. */
+   public void setLevel(final int meter, final int value, final int range)
+   {
+      setLevel(meter, range > 1 ? (float)value / (range - 1) : 0);
+   }
+
+   /** Gets the current level of a meter before quantization. */
+   public float getLevel(final int meter)
+   {
+      return mLevels[meter];
+   }
+
+   /** Forgets the sent levels, so that all meters get sent in the next frame, for example after a reset. */
+   public void invalidate()
+   {
+      for (int i = 0; i < mSentLevels.length; i++)
+         mSentLevels[i] = -1;
+
+      if (!mIsFrameScheduled)
+         scheduleNextFrame();
+   }
+
+   private void updateCoefficients()
+   {
+      final float frameTimeMs = 1000f / mFramesPerSecond;
+
+      mAttackCoefficient = coefficient(frameTimeMs, mAttackTimeMs);
+      mReleaseCoefficient = coefficient(frameTimeMs, mReleaseTimeMs);
+      mPeakHoldFrames = Math.round(mPeakHoldTimeMs / frameTimeMs);
+   }
+
+   /** Fraction of the remaining distance covered in one frame for the supplied time constant. */
+   private static float coefficient(final float frameTimeMs, final int timeMs)
+   {
+      if (timeMs <= 0)
+         return 1;
+
+      return (float)(1 - Math.exp(-frameTimeMs / timeMs));
+   }
+
+   private void scheduleNextFrame()
+   {
+      mIsFrameScheduled = true;
+
+      mHost.scheduleTask(this::nextFrame, 1000 / mFramesPerSecond);
+   }
+
+   private void nextFrame()
+   {
+      mIsFrameScheduled = false;
+
+      boolean isMoving = false;
+      boolean hasSentLevel = false;
+
+      for (int meter = 0; meter < mLevels.length; meter++)
+      {
+         if (updateLevel(meter))
+            isMoving = true;
+
+         if (sendLevelIfChanged(meter))
+            hasSentLevel = true;
+      }
+
+      if (hasSentLevel)
+         mHost.requestFlush();
+
+      if (isMoving)
+         scheduleNextFrame();
+   }
+
+   /** Advances the level of a meter by one frame, returns true if it has not settled yet. */
+   private boolean updateLevel(final int meter)
+   {
+      final float input = mInputLevels[meter];
+      final float level = mLevels[meter];
+
+      if (input > level)
+      {
+         mLevels[meter] = level + (input - level) * mAttackCoefficient;
+         mHoldFramesLeft[meter] = mPeakHoldFrames;
+      }
+      else if (mHoldFramesLeft[meter] > 0)
+      {
+         mHoldFramesLeft[meter]--;
+      }
+      else if (input < level)
+      {
+         mLevels[meter] = level - (level - input) * mReleaseCoefficient;
+      }
+
+      // Snap once the remaining distance is below half a quantization step.
+
+      if (Math.abs(mLevels[meter] - input) < 0.5f / (mResolution - 1))
+         mLevels[meter] = input;
+
+      return mLevels[meter] != input || mHoldFramesLeft[meter] > 0;
+   }
+
+   private boolean sendLevelIfChanged(final int meter)
+   {
+      final int level = Math.max(0, Math.min(mResolution - 1, Math.round(mLevels[meter] * (mResolution - 1))));
+      final int sentLevel = mSentLevels[meter];
+
+      if (level == sentLevel)
+         return false;
+
+      // Always send a settled level, so that no meter gets stuck slightly off.
+
+      final boolean isSettled = mLevels[meter] == mInputLevels[meter] && mHoldFramesLeft[meter] == 0;
+
+      if (sentLevel < 0 || isSettled || Math.abs(level - sentLevel) >= mChangeThreshold)
+      {
+         mSentLevels[meter] = level;
+         mOutput.sendLevel(meter, level);
+         return true;
+      }
+
+      return false;
+   }
+
+   private final ControllerHost mHost;
+
+   private final int mResolution;
+
+   private final Output mOutput;
+
+   private final float[] mInputLevels;
+
+   private final float[] mLevels;
+
+   private final int[] mHoldFramesLeft;
+
+   private final int[] mSentLevels;
+
+   private int mFramesPerSecond = DEFAULT_FRAMES_PER_SEC;
+
+   private int mAttackTimeMs = 0;
+
+   private int mReleaseTimeMs = 300;
+
+   private int mPeakHoldTimeMs = 0;
+
+   private int mChangeThreshold = 1;
+
+   private float mAttackCoefficient;
+
+   private float mReleaseCoefficient;
+
+   private int mPeakHoldFrames;
+
+   private boolean mIsFrameScheduled;
+}
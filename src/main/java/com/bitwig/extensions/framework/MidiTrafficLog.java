@@ -0,0 +1,396 @@
+package com.bitwig.extensions.framework;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+import com.bitwig.extension.callback.ShortMidiDataReceivedCallback;
+import com.bitwig.extension.callback.SysexMidiDataReceivedCallback;
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Compact binary log of the MIDI traffic of an extension, so the output of a driver can be compared across
+ * versions and captured input can be replayed against it.
+ *
+ * Every record starts with one byte holding the kind of record, the direction and the port (0 to 31),
+ * followed by the time since the previous record in microseconds as variable length quantity. Short
+ * messages add their three bytes, sysex messages their length as variable length quantity and the complete
+ * message. Flush records mark the end of a flush of the extension, so output can be attributed to flushes.
+ *
+ * Outgoing messages are recorded by the port returned from {@link #recordOutput(int, MidiOut)}, incoming
+ * messages by the callbacks returned from {@link #recordInput(int, ShortMidiDataReceivedCallback)} and
+ * {@link #recordSysexInput(int, SysexMidiDataReceivedCallback)}. Note that messages the host passes to
+ * hardware controls through their matchers do not reach the MIDI callback and are not recorded.
+ */
+public class MidiTrafficLog
+{
+   public enum Direction
+   {
+      IN, OUT
+   }
+
+   /** Receives the records of a log in order, see {@link MidiTrafficLog#accept(Visitor)}. */
+   public interface Visitor
+   {
+      default void midi(
+         final long timeMicros,
+         final Direction direction,
+         final int port,
+         final int status,
+         final int data1,
+         final int data2)
+      {
+      }
+
+      /** The data array is only valid during the call. */
+      default void sysex(final long timeMicros, final Direction direction, final int port, final byte[] data)
+      {
+      }
+
+      default void flush(final long timeMicros)
+      {
+      }
+   }
+
+   /** Records with the time of {@link System#nanoTime()}. */
+   public MidiTrafficLog()
+   {
+      this(System::nanoTime);
+   }
+
+   /** @param nanoClock Clock in nanoseconds, for example the virtual time of a test host. */
+   public MidiTrafficLog(final LongSupplier nanoClock)
+   {
+      super();
+
+      mNanoClock = nanoClock;
+      mLastTimeMicros = nanoClock.getAsLong() / 1000;
+   }
+
+   /** Wraps a port so that everything sent to it is recorded before it is passed on. */
+   public MidiOut recordOutput(final int port, final MidiOut midiOut)
+   {
+      return new RecordingMidiOut(midiOut, new RecordingMidiOut.Recorder()
+      {
+         @Override
+         public void midiSent(final int status, final int data1, final int data2)
+         {
+            recordMidi(Direction.OUT, port, status, data1, data2);
+         }
+
+         @Override
+         public void sysexSent(final byte[] data)
+         {
+            recordSysex(Direction.OUT, port, data);
+         }
+
+         @Override
+         public void sysexSent(final String hex)
+         {
+            recordSysex(Direction.OUT, port, hex);
+         }
+      });
+   }
+
+   /** Wraps a MIDI callback of an input port so that every message is recorded before it is handled. */
+   public ShortMidiDataReceivedCallback recordInput(final int port, final ShortMidiDataReceivedCallback callback)
+   {
+      return (status, data1, data2) -> {
+         recordMidi(Direction.IN, port, status, data1, data2);
+         callback.midiReceived(status, data1, data2);
+      };
+   }
+
+   /** Wraps a sysex callback of an input port so that every message is recorded before it is handled. */
+   public SysexMidiDataReceivedCallback recordSysexInput(
+      final int port,
+      final SysexMidiDataReceivedCallback callback)
+   {
+      return data -> {
+         recordSysex(Direction.IN, port, data);
+         callback.sysexDataReceived(data);
+      };
+   }
+
+   public void recordMidi(
+      final Direction direction,
+      final int port,
+      final int status,
+      final int data1,
+      final int data2)
+   {
+      writeHeader(KIND_MIDI, direction, port);
+      ensureCapacity(3);
+      mData[mSize++] = (byte)status;
+      mData[mSize++] = (byte)data1;
+      mData[mSize++] = (byte)data2;
+      count(direction, 3);
+   }
+
+   public void recordSysex(final Direction direction, final int port, final byte[] data)
+   {
+      writeHeader(KIND_SYSEX, direction, port);
+      writeVarInt(data.length);
+      ensureCapacity(data.length);
+      System.arraycopy(data, 0, mData, mSize, data.length);
+      mSize += data.length;
+      count(direction, data.length);
+   }
+
+   /** Records a sysex message given as hex string as used by the host, spaces are ignored. */
+   public void recordSysex(final Direction direction, final int port, final String hex)
+   {
+      final int length = RecordingMidiOut.getSysexLength(hex);
+
+      writeHeader(KIND_SYSEX, direction, port);
+      writeVarInt(length);
+      ensureCapacity(length);
+
+      final int end = mSize + length;
+      int high = -1;
+
+      for (int i = 0; i < hex.length() && mSize < end; i++)
+      {
+         final int digit = Character.digit(hex.charAt(i), 16);
+
+         if (digit < 0)
+            continue;
+
+         if (high < 0)
+         {
+            high = digit;
+         }
+         else
+         {
+            mData[mSize++] = (byte)(high << 4 | digit);
+            high = -1;
+         }
+      }
+
+      count(direction, length);
+   }
+
+   /** Marks the end of a flush, to be called at the end of the flush of the extension. */
+   public void markFlush()
+   {
+      writeHeader(KIND_FLUSH, Direction.OUT, 0);
+      mFlushCount++;
+   }
+
+   public int getMessageCount(final Direction direction)
+   {
+      return mMessageCounts[direction.ordinal()];
+   }
+
+   public long getByteCount(final Direction direction)
+   {
+      return mByteCounts[direction.ordinal()];
+   }
+
+   public int getFlushCount()
+   {
+      return mFlushCount;
+   }
+
+   /** Size of the log in bytes, without the file header written by {@link #writeTo(OutputStream)}. */
+   public int getSize()
+   {
+      return mSize;
+   }
+
+   public void clear()
+   {
+      mSize = 0;
+      mFlushCount = 0;
+      Arrays.fill(mMessageCounts, 0);
+      Arrays.fill(mByteCounts, 0);
+      mLastTimeMicros = mNanoClock.getAsLong() / 1000;
+   }
+
+   /** Passes all records to the visitor in the order they were recorded. */
+   public void accept(final Visitor visitor)
+   {
+      final Direction[] directions = Direction.values();
+      byte[] sysex = new byte[256];
+      long time = 0;
+      int position = 0;
+
+      while (position < mSize)
+      {
+         final int header = mData[position++] & 0xFF;
+         final int kind = header >> 6;
+         final Direction direction = directions[header >> 5 & 1];
+         final int port = header & PORT_MASK;
+
+         long delta = 0;
+
+         for (int shift = 0;; shift += 7)
+         {
+            final int b = mData[position++];
+            delta |= (long)(b & 0x7F) << shift;
+
+            if (b >= 0)
+               break;
+         }
+
+         time += delta;
+
+         switch (kind)
+         {
+            case KIND_MIDI:
+               visitor.midi(time, direction, port, mData[position] & 0xFF, mData[position + 1] & 0xFF,
+                  mData[position + 2] & 0xFF);
+               position += 3;
+               break;
+
+            case KIND_SYSEX:
+               int length = 0;
+
+               for (int shift = 0;; shift += 7)
+               {
+                  final int b = mData[position++];
+                  length |= (b & 0x7F) << shift;
+
+                  if (b >= 0)
+                     break;
+               }
+
+               if (sysex.length != length)
+                  sysex = new byte[length];
+
+               System.arraycopy(mData, position, sysex, 0, length);
+               position += length;
+               visitor.sysex(time, direction, port, sysex);
+               break;
+
+            default:
+               visitor.flush(time);
+               break;
+         }
+      }
+   }
+
+   public void writeTo(final OutputStream out) throws IOException
+   {
+      out.write(MAGIC);
+      out.write(VERSION);
+      out.write(mSize >>> 24);
+      out.write(mSize >>> 16);
+      out.write(mSize >>> 8);
+      out.write(mSize);
+      out.write(mData, 0, mSize);
+   }
+
+   /** Reads a log written by {@link #writeTo(OutputStream)}, further records are timed by the nano clock. */
+   public static MidiTrafficLog readFrom(final InputStream in, final LongSupplier nanoClock) throws IOException
+   {
+      final DataInputStream dataIn = new DataInputStream(in);
+      final byte[] magic = new byte[MAGIC.length];
+      dataIn.readFully(magic);
+
+      if (!Arrays.equals(magic, MAGIC) || dataIn.readUnsignedByte() != VERSION)
+         throw new IOException("Not a MIDI traffic log");
+
+      final MidiTrafficLog log = new MidiTrafficLog(nanoClock);
+      final int size = dataIn.readInt();
+      log.mData = new byte[Math.max(size, 16)];
+      dataIn.readFully(log.mData, 0, size);
+      log.mSize = size;
+
+      log.accept(new Visitor()
+      {
+         @Override
+         public void midi(
+            final long timeMicros,
+            final Direction direction,
+            final int port,
+            final int status,
+            final int data1,
+            final int data2)
+         {
+            log.count(direction, 3);
+         }
+
+         @Override
+         public void sysex(final long timeMicros, final Direction direction, final int port, final byte[] data)
+         {
+            log.count(direction, data.length);
+         }
+
+         @Override
+         public void flush(final long timeMicros)
+         {
+            log.mFlushCount++;
+         }
+      });
+
+      return log;
+   }
+
+   private void writeHeader(final int kind, final Direction direction, final int port)
+   {
+      assert port >= 0 && port <= PORT_MASK;
+
+      final long now = mNanoClock.getAsLong() / 1000;
+      final long delta = Math.max(0, now - mLastTimeMicros);
+      mLastTimeMicros = now;
+
+      ensureCapacity(1);
+      mData[mSize++] = (byte)(kind << 6 | direction.ordinal() << 5 | port & PORT_MASK);
+      writeVarInt(delta);
+   }
+
+   private void writeVarInt(long value)
+   {
+      ensureCapacity(10);
+
+      while (value > 0x7F)
+      {
+         mData[mSize++] = (byte)(value & 0x7F | 0x80);
+         value >>>= 7;
+      }
+
+      mData[mSize++] = (byte)value;
+   }
+
+   private void count(final Direction direction, final int byteCount)
+   {
+      mMessageCounts[direction.ordinal()]++;
+      mByteCounts[direction.ordinal()] += byteCount;
+   }
+
+   private void ensureCapacity(final int additionalBytes)
+   {
+      if (mSize + additionalBytes > mData.length)
+         mData = Arrays.copyOf(mData, Math.max(mData.length * 2, mSize + additionalBytes));
+   }
+
+   private static final byte[] MAGIC = {'B', 'W', 'M', 'L'};
+
+   private static final int VERSION = 1;
+
+   private static final int KIND_MIDI = 0;
+
+   private static final int KIND_SYSEX = 1;
+
+   private static final int KIND_FLUSH = 2;
+
+   private static final int PORT_MASK = 0x1F;
+
+   private final LongSupplier mNanoClock;
+
+   private byte[] mData = new byte[4096];
+
+   private int mSize;
+
+   private long mLastTimeMicros;
+
+   private int mFlushCount;
+
+   private final int[] mMessageCounts = new int[2];
+
+   private final long[] mByteCounts = new long[2];
+}
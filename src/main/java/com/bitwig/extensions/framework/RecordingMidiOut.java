@@ -0,0 +1,79 @@
+package com.bitwig.extensions.framework;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * MIDI output port that reports everything sent through it to a {@link Recorder}, for example a
+ * {@link MidiTrafficLog}, and passes it on to the port it wraps.
+ */
+final class RecordingMidiOut implements MidiOut
+{
+   interface Recorder
+   {
+      void midiSent(int status, int data1, int data2);
+
+      void sysexSent(byte[] data);
+
+      /** A sysex message given as hex string, see {@link RecordingMidiOut#getSysexLength(String)}. */
+      void sysexSent(String hex);
+   }
+
+   RecordingMidiOut(final MidiOut midiOut, final Recorder recorder)
+   {
+      super();
+
+      mMidiOut = midiOut;
+      mRecorder = recorder;
+   }
+
+   /** Number of bytes of a sysex message given as hex string, spaces are ignored. */
+   static int getSysexLength(final String hex)
+   {
+      int digitCount = 0;
+
+      for (int i = 0; i < hex.length(); i++)
+      {
+         if (Character.digit(hex.charAt(i), 16) >= 0)
+            digitCount++;
+      }
+
+      return digitCount / 2;
+   }
+
+   @Override
+   public void sendMidi(final int status, final int data1, final int data2)
+   {
+      mRecorder.midiSent(status, data1, data2);
+      mMidiOut.sendMidi(status, data1, data2);
+   }
+
+   @Override
+   public void sendSysex(final String hexString)
+   {
+      mRecorder.sysexSent(hexString);
+      mMidiOut.sendSysex(hexString);
+   }
+
+   @Override
+   public void sendSysex(final byte[] data)
+   {
+      mRecorder.sysexSent(data);
+      mMidiOut.sendSysex(data);
+   }
+
+   @Override
+   public void setShouldSendMidiBeatClock(final boolean shouldSendClock)
+   {
+      mMidiOut.setShouldSendMidiBeatClock(shouldSendClock);
+   }
+
+   @Override
+   public String toString()
+   {
+      return "Recording " + mMidiOut;
+   }
+
+   private final MidiOut mMidiOut;
+
+   private final Recorder mRecorder;
+}
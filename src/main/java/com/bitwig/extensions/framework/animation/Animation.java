@@ -1,30 +1,37 @@
 package com.bitwig.extensions.framework.animation;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import com.bitwig.extension.controller.ControllerExtension;
-import com.bitwig.extension.controller.api.ControllerHost;
 
 public abstract class Animation<ValueType> implements Supplier<ValueType>
 {
-   private static final int FRAMES_PER_SEC = 20;
-
    protected Animation(
       final ControllerExtension controllerExtension,
       final BooleanSupplier isOnSupplier,
       final Supplier<ValueType> offValueSupplier)
+   {
+      this(AnimationScheduler.getScheduler(controllerExtension), isOnSupplier, offValueSupplier);
+   }
+
+   protected Animation(
+      final AnimationScheduler scheduler,
+      final BooleanSupplier isOnSupplier,
+      final Supplier<ValueType> offValueSupplier)
    {
       super();
-      mControllerExtension = controllerExtension;
+      mScheduler = scheduler;
       mIsOnSupplier = isOnSupplier;
       mOffValueSupplier = offValueSupplier;
    }
 
+   public AnimationScheduler getScheduler()
+   {
+      return mScheduler;
+   }
+
    @Override
    public ValueType get()
    {
@@ -32,91 +39,66 @@ public abstract class Animation<ValueType> implements Supplier<ValueType>
 
       if (isOn)
       {
-         long timeSinceStartInMs = 0;
-
-         if (mAnimationStartTime == -1)
+         if (!mIsRunning)
          {
             // Animation started
 
-            mAnimationStartTime = System.currentTimeMillis();
+            mScheduler.startAnimation(this);
 
-            startedAnimation(this);
-         }
-         else
-         {
-            timeSinceStartInMs = System.currentTimeMillis() - mAnimationStartTime;
+            mAnimationStartTime = mScheduler.getFrameTime();
+            mValue = getAnimatedValueAtTime(0);
          }
 
-         final double timeSinceStartInSec = timeSinceStartInMs / 1000.0;
-
-         return getAnimatedValueAtTime(timeSinceStartInSec);
+         return mValue;
       }
       else
       {
-         if (mAnimationStartTime != -1)
+         if (mIsRunning)
          {
             // Animation stopped
 
-            mAnimationStartTime = -1;
+            mScheduler.stopAnimation(this);
 
-            stoppedAnimation(this);
+            mValue = null;
          }
 
          return mOffValueSupplier.get();
       }
    }
 
-   private static void startedAnimation(final Animation animation)
+   /**
+    * Computes the value of this animation for a new frame of the scheduler.
+    *
+    * @return true if the value is different from the value of the previous frame.
+    */
+   boolean updateValueForFrame(final long frameTime)
    {
-      final ControllerHost host = animation.mControllerExtension.getHost();
+      final double timeSinceStartInSec = (frameTime - mAnimationStartTime) / 1e9;
 
-      List<Animation> runningAnimations = HOST_TO_RUNNING_ANIMATIONS_MAP.get(host);
+      final ValueType value = getAnimatedValueAtTime(timeSinceStartInSec);
 
-      if (runningAnimations == null)
-      {
-         runningAnimations = new ArrayList<>();
-         HOST_TO_RUNNING_ANIMATIONS_MAP.put(host, runningAnimations);
-      }
+      if (Objects.equals(value, mValue))
+         return false;
 
-      runningAnimations.add(animation);
+      mValue = value;
 
-      if (runningAnimations.size() == 1)
-      {
-         // Start pumping the animations for this host.
-
-         pumpFlush(host, runningAnimations);
-      }
-   }
-
-   private static void stoppedAnimation(final Animation animation)
-   {
-      final ControllerHost host = animation.mControllerExtension.getHost();
-
-      final List<Animation> runningAnimations = HOST_TO_RUNNING_ANIMATIONS_MAP.get(host);
-
-      assert runningAnimations != null;
-      assert runningAnimations.contains(animation);
-
-      runningAnimations.remove(animation);
-   }
-
-   private static void pumpFlush(final ControllerHost host, final List<Animation> runningAnimations)
-   {
-      host.requestFlush();
-
-      if (!runningAnimations.isEmpty())
-         host.scheduleTask(() -> pumpFlush(host, runningAnimations), 1000 / FRAMES_PER_SEC);
+      return true;
    }
 
    protected abstract ValueType getAnimatedValueAtTime(double timeInSec);
 
-   private final ControllerExtension mControllerExtension;
+   private final AnimationScheduler mScheduler;
 
    private final BooleanSupplier mIsOnSupplier;
 
-   private long mAnimationStartTime = -1;
+   private long mAnimationStartTime;
+
+   private ValueType mValue;
 
    private final Supplier<ValueType> mOffValueSupplier;
 
-   private static final Map<ControllerHost, List<Animation>> HOST_TO_RUNNING_ANIMATIONS_MAP = new HashMap<>();
+   boolean mIsRunning;
+
+   @SuppressWarnings("rawtypes")
+   Animation mPreviousRunningAnimation, mNextRunningAnimation;
 }
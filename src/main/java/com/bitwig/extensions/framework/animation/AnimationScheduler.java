@@ -0,0 +1,166 @@
+package com.bitwig.extensions.framework.animation;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.api.ControllerHost;
+
+/**
+ * Drives all the running animations of a controller extension from a single frame clock based on
+ * {@link System#nanoTime()}. While at least one animation is running the scheduler advances the clock at a
+ * fixed frame rate, computes the value of every running animation for the new frame and only requests a
+ * flush from the host if one of these values actually changed.
+ *
+ * Running animations are kept in an intrusive linked list so that starting and stopping an animation is
+ * O(1).
+ */
+public final class AnimationScheduler
+{
+   public static final int DEFAULT_FRAMES_PER_SEC = 20;
+
+   /** Gets the scheduler shared by all animations of the supplied controller extension. */
+   public static AnimationScheduler getScheduler(final ControllerExtension controllerExtension)
+   {
+      synchronized (EXTENSION_TO_SCHEDULER_MAP)
+      {
+         AnimationScheduler scheduler = EXTENSION_TO_SCHEDULER_MAP.get(controllerExtension);
+
+         if (scheduler == null)
+         {
+            scheduler = new AnimationScheduler(controllerExtension.getHost());
+            EXTENSION_TO_SCHEDULER_MAP.put(controllerExtension, scheduler);
+         }
+
+         return scheduler;
+      }
+   }
+
+   private AnimationScheduler(final ControllerHost host)
+   {
+      super();
+      mHost = host;
+   }
+
+   public int getFramesPerSecond()
+   {
+      return mFramesPerSecond;
+   }
+
+   public void setFramesPerSecond(final int framesPerSecond)
+   {
+      assert framesPerSecond > 0;
+
+      mFramesPerSecond = framesPerSecond;
+   }
+
+   /** The time of the current frame in nanoseconds, as returned by {@link System#nanoTime()}. */
+   public long getFrameTime()
+   {
+      return mFrameTime;
+   }
+
+   public int getRunningAnimationCount()
+   {
+      return mRunningAnimationCount;
+   }
+
+   public boolean isRunning()
+   {
+      return mFirstAnimation != null;
+   }
+
+   @SuppressWarnings("rawtypes")
+   void startAnimation(final Animation animation)
+   {
+      assert !animation.mIsRunning;
+
+      if (mFirstAnimation == null)
+      {
+         // The clock was stopped, so the current frame time is stale.
+
+         mFrameTime = System.nanoTime();
+      }
+
+      animation.mIsRunning = true;
+      animation.mPreviousRunningAnimation = null;
+      animation.mNextRunningAnimation = mFirstAnimation;
+
+      if (mFirstAnimation != null)
+         mFirstAnimation.mPreviousRunningAnimation = animation;
+
+      mFirstAnimation = animation;
+      mRunningAnimationCount++;
+
+      if (!mIsFrameScheduled)
+         scheduleNextFrame();
+   }
+
+   @SuppressWarnings("rawtypes")
+   void stopAnimation(final Animation animation)
+   {
+      assert animation.mIsRunning;
+
+      final Animation previous = animation.mPreviousRunningAnimation;
+      final Animation next = animation.mNextRunningAnimation;
+
+      if (previous != null)
+         previous.mNextRunningAnimation = next;
+      else
+         mFirstAnimation = next;
+
+      if (next != null)
+         next.mPreviousRunningAnimation = previous;
+
+      animation.mIsRunning = false;
+      animation.mPreviousRunningAnimation = null;
+      animation.mNextRunningAnimation = null;
+      mRunningAnimationCount--;
+   }
+
+   private void scheduleNextFrame()
+   {
+      mIsFrameScheduled = true;
+
+      mHost.scheduleTask(this::nextFrame, 1000 / mFramesPerSecond);
+   }
+
+   @SuppressWarnings("rawtypes")
+   private void nextFrame()
+   {
+      mIsFrameScheduled = false;
+
+      if (mFirstAnimation == null)
+         return;
+
+      mFrameTime = System.nanoTime();
+
+      boolean hasValueChanged = false;
+
+      for (Animation animation = mFirstAnimation; animation != null; animation = animation.mNextRunningAnimation)
+      {
+         if (animation.updateValueForFrame(mFrameTime))
+            hasValueChanged = true;
+      }
+
+      if (hasValueChanged)
+         mHost.requestFlush();
+
+      scheduleNextFrame();
+   }
+
+   private final ControllerHost mHost;
+
+   private int mFramesPerSecond = DEFAULT_FRAMES_PER_SEC;
+
+   private long mFrameTime = System.nanoTime();
+
+   @SuppressWarnings("rawtypes")
+   private Animation mFirstAnimation;
+
+   private int mRunningAnimationCount;
+
+   private boolean mIsFrameScheduled;
+
+   private static final Map<ControllerExtension, AnimationScheduler> EXTENSION_TO_SCHEDULER_MAP = new WeakHashMap<>();
+}
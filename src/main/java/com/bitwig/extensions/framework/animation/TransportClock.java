@@ -0,0 +1,58 @@
+package com.bitwig.extensions.framework.animation;
+
+import com.bitwig.extension.controller.api.Transport;
+
+/**
+ * Tracks the play position of a transport in beats. The host only reports the play position at a limited
+ * rate, so the position in between 2 reports is interpolated from the tempo. When the transport is stopped
+ * the clock keeps running at the current tempo, so that animations using it keep moving.
+ */
+public class TransportClock
+{
+   public TransportClock(final Transport transport)
+   {
+      super();
+
+      transport.playPosition().addValueObserver(this::playPositionChanged);
+      transport.tempo().value().addRawValueObserver(this::tempoChanged);
+   }
+
+   /**
+    * Gets the play position in beats at the supplied time.
+    *
+    * @param time Time in nanoseconds as returned by {@link System#nanoTime()}.
+    */
+   public double getBeatPosition(final long time)
+   {
+      final double secondsSinceLastUpdate = (time - mLastUpdateTime) / 1e9;
+
+      return mLastBeatPosition + secondsSinceLastUpdate * mTempo / 60;
+   }
+
+   public double getTempo()
+   {
+      return mTempo;
+   }
+
+   private void playPositionChanged(final double beatPosition)
+   {
+      mLastBeatPosition = beatPosition;
+      mLastUpdateTime = System.nanoTime();
+   }
+
+   private void tempoChanged(final double tempo)
+   {
+      // Re-anchor so that the position computed so far is kept.
+
+      final long now = System.nanoTime();
+      mLastBeatPosition = getBeatPosition(now);
+      mLastUpdateTime = now;
+      mTempo = tempo;
+   }
+
+   private double mLastBeatPosition;
+
+   private long mLastUpdateTime = System.nanoTime();
+
+   private double mTempo = 120;
+}
@@ -0,0 +1,42 @@
+package com.bitwig.extensions.framework.animation;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import com.bitwig.extension.controller.ControllerExtension;
+
+/**
+ * An animation whose phase is derived from the play position of the transport rather than from the time it
+ * was started, so that it stays locked to the tempo of the song. It is still driven by the frame clock of
+ * the {@link AnimationScheduler}.
+ */
+public abstract class TransportSyncedAnimation<ValueType> extends Animation<ValueType>
+{
+   protected TransportSyncedAnimation(
+      final ControllerExtension controllerExtension,
+      final TransportClock transportClock,
+      final BooleanSupplier isOnSupplier,
+      final Supplier<ValueType> offValueSupplier)
+   {
+      super(controllerExtension, isOnSupplier, offValueSupplier);
+
+      mTransportClock = transportClock;
+   }
+
+   public TransportClock getTransportClock()
+   {
+      return mTransportClock;
+   }
+
+   @Override
+   protected final ValueType getAnimatedValueAtTime(final double timeInSec)
+   {
+      final double beatPosition = mTransportClock.getBeatPosition(getScheduler().getFrameTime());
+
+      return getAnimatedValueAtBeat(beatPosition);
+   }
+
+   protected abstract ValueType getAnimatedValueAtBeat(double beatPosition);
+
+   private final TransportClock mTransportClock;
+}
@@ -0,0 +1,74 @@
+package com.bitwig.extensions.framework.animation;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.api.BooleanValue;
+
+/** Blinks in time with the transport. The on phase starts on every multiple of the cycle length. */
+public class TransportSyncedBlinkAnimation extends TransportSyncedAnimation<Boolean> implements BooleanSupplier
+{
+   public TransportSyncedBlinkAnimation(
+      final ControllerExtension controllerExtension,
+      final TransportClock transportClock,
+      final BooleanSupplier isOnSupplier,
+      final Supplier<Boolean> offValueSupplier,
+      final double cycleLengthInBeats)
+   {
+      super(controllerExtension, transportClock, isOnSupplier, offValueSupplier);
+
+      if (isOnSupplier instanceof BooleanValue)
+         ((BooleanValue)isOnSupplier).markInterested();
+
+      mCycleLengthInBeats = cycleLengthInBeats;
+   }
+
+   public TransportSyncedBlinkAnimation(
+      final ControllerExtension controllerExtension,
+      final TransportClock transportClock,
+      final BooleanSupplier isOnSupplier,
+      final double cycleLengthInBeats)
+   {
+      this(controllerExtension, transportClock, isOnSupplier, () -> Boolean.FALSE, cycleLengthInBeats);
+   }
+
+   @Override
+   public final boolean getAsBoolean()
+   {
+      return get().booleanValue();
+   }
+
+   @Override
+   protected Boolean getAnimatedValueAtBeat(final double beatPosition)
+   {
+      final double phase = beatPosition / mCycleLengthInBeats;
+
+      return phase - Math.floor(phase) < mOnRatio;
+   }
+
+   public double getCycleLengthInBeats()
+   {
+      return mCycleLengthInBeats;
+   }
+
+   public void setCycleLengthInBeats(final double cycleLengthInBeats)
+   {
+      mCycleLengthInBeats = cycleLengthInBeats;
+   }
+
+   /** The fraction of each cycle during which the animation is on. */
+   public double getOnRatio()
+   {
+      return mOnRatio;
+   }
+
+   public void setOnRatio(final double onRatio)
+   {
+      mOnRatio = onRatio;
+   }
+
+   private double mCycleLengthInBeats;
+
+   private double mOnRatio = 0.5;
+}
@@ -0,0 +1,40 @@
+package com.bitwig.extensions.controllers.mackie.devices;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class EqBandStateTest {
+	private static final int BELL = 7;
+	private static final int LOW_SHELF = 6;
+
+	@Test
+	public void bandIsActiveOnlyIfEnabledWithType() {
+		final EqBandState state = new EqBandState(8);
+		assertFalse(state.isActive(0));
+
+		assertFalse(state.setType(0, BELL), "a disabled band stays inactive");
+		assertTrue(state.setEnabled(0, true));
+		assertTrue(state.isActive(0));
+
+		assertTrue(state.setType(0, EqBandState.TYPE_OFF));
+		assertFalse(state.isActive(0));
+		assertTrue(state.isEnabled(0), "turning the type off keeps the band enabled");
+
+		assertTrue(state.setType(0, BELL));
+		assertTrue(state.setEnabled(0, false));
+		assertFalse(state.isActive(0));
+	}
+
+	@Test
+	public void unchangedActiveStateIsNotReported() {
+		final EqBandState state = new EqBandState(8);
+		state.setEnabled(3, true);
+		state.setType(3, BELL);
+
+		assertFalse(state.setType(3, LOW_SHELF));
+		assertFalse(state.setEnabled(3, true));
+		assertFalse(state.isActive(2), "bands are independent");
+	}
+}
@@ -0,0 +1,58 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.api.ClipLauncherSlot;
+import com.bitwig.extensions.headless.FakeHost;
+import com.bitwig.extensions.headless.FakeMidiOut;
+
+/**
+ * Runs the Launchpad Pro on the headless fake host in session mode: the bottom left pad shows the color of
+ * its clip slot and launches it.
+ */
+public class LaunchpadProSmokeTest
+{
+   @Test
+   public void padShowsSlotColorAndLaunchesSlot()
+   {
+      final FakeHost host = new FakeHost();
+      final LaunchpadProControllerExtension extension = (LaunchpadProControllerExtension)host
+         .start(new LaunchpadProControllerExtensionDefinition());
+      final FakeMidiOut midiOut = host.getMidiOut(0);
+
+      // The bottom row of the grid shows the last scene.
+      final ClipLauncherSlot slot = extension.mTrackBank.getItemAt(0).clipLauncherSlotBank().getItemAt(7);
+      host.setValue(slot.exists(), true);
+      host.setValue(slot.hasContent(), true);
+      host.flush();
+
+      assertTrue(host.getBindingCount() > 0);
+
+      midiOut.clear();
+      host.setValue(slot.color(), new float[] {1, 0, 0, 1});
+      host.flush();
+
+      final byte[] sent = midiOut.toByteArray();
+      assertEquals(1, midiOut.getSysexCount(), "only the changed pad is sent");
+      assertArrayEquals(SYSEX_HEADER, Arrays.copyOf(sent, SYSEX_HEADER.length));
+      assertEquals(PAD_NOTE, sent[SYSEX_HEADER.length + 1], "the first LED of the message is the pad");
+      assertEquals((byte)0xF7, sent[sent.length - 1]);
+
+      final int launchCount = FakeHost.handler(slot.launchAction()).getInvocationCount();
+      host.getMidiIn(0).sendMidi(0x90, PAD_NOTE, 100);
+      host.getMidiIn(0).sendMidi(0x80, PAD_NOTE, 0);
+      host.flushIfRequested();
+
+      assertEquals(launchCount + 1, FakeHost.handler(slot.launchAction()).getInvocationCount());
+   }
+
+   private static final byte[] SYSEX_HEADER = {(byte)0xF0, 0x00, 0x20, 0x29, 0x02, 0x10};
+
+   private static final int PAD_NOTE = 11;
+}
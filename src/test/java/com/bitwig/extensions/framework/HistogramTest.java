@@ -0,0 +1,80 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class HistogramTest
+{
+   @Test
+   public void emptyHistogramReportsZero()
+   {
+      final Histogram histogram = new Histogram("test", "ns");
+
+      assertEquals(0, histogram.getCount());
+      assertEquals(0, histogram.getMean(), 0);
+      assertEquals(0, histogram.getPercentile(50));
+      assertEquals(0, histogram.getPercentile(100));
+   }
+
+   @Test
+   public void zerosAndNegativeValuesFallIntoTheZeroBucket()
+   {
+      final Histogram histogram = new Histogram("test", "ns");
+      histogram.add(0);
+      histogram.add(-5);
+      histogram.add(1);
+
+      assertEquals(3, histogram.getCount());
+      assertEquals(1, histogram.getSum());
+      assertEquals(0, histogram.getPercentile(50));
+      assertEquals(1, histogram.getPercentile(100));
+   }
+
+   @Test
+   public void percentilesAreBucketUpperBoundsLimitedToTheMaximum()
+   {
+      final Histogram histogram = new Histogram("test", "ns");
+      histogram.add(5);
+      histogram.add(6);
+      histogram.add(1000);
+
+      // 5 and 6 share the bucket from 4 to 7, 1000 is in the bucket from 512 to 1023.
+      assertEquals(7, histogram.getPercentile(50));
+      assertEquals(1000, histogram.getPercentile(90));
+      assertEquals(1000, histogram.getMax());
+      assertEquals(337, histogram.getMean(), 0);
+   }
+
+   @Test
+   public void singleBucketIsLimitedToTheMaximum()
+   {
+      final Histogram histogram = new Histogram("test", "ns");
+      histogram.add(4);
+      histogram.add(5);
+
+      assertEquals(5, histogram.getPercentile(0));
+      assertEquals(5, histogram.getPercentile(99));
+   }
+
+   @Test
+   public void largestValuesHaveABucket()
+   {
+      final Histogram histogram = new Histogram("test", "ns");
+      histogram.add(Long.MAX_VALUE);
+
+      assertEquals(Long.MAX_VALUE, histogram.getPercentile(50));
+   }
+
+   @Test
+   public void clearForgetsAllValues()
+   {
+      final Histogram histogram = new Histogram("test", "ns");
+      histogram.add(100);
+      histogram.clear();
+
+      assertEquals(0, histogram.getCount());
+      assertEquals(0, histogram.getMax());
+      assertEquals(0, histogram.getPercentile(50));
+   }
+}
@@ -0,0 +1,106 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.MidiTrafficLog.Direction;
+
+public class MidiTrafficLogTest
+{
+   @Test
+   public void recordsSurviveWriteAndRead() throws IOException
+   {
+      final byte[] longSysex = new byte[300];
+      longSysex[0] = (byte)0xF0;
+      longSysex[longSysex.length - 1] = (byte)0xF7;
+
+      final MidiTrafficLog log = new MidiTrafficLog(() -> mNanos);
+
+      advanceMicros(5);
+      log.recordMidi(Direction.IN, 1, 0x90, 60, 100);
+      // A delta that needs a varint of several bytes.
+      advanceMicros(3_000_000);
+      log.recordSysex(Direction.OUT, 0, "F0 00 20 29 02 10 0E 00 F7");
+      log.recordSysex(Direction.OUT, 31, longSysex);
+      advanceMicros(200);
+      log.markFlush();
+
+      assertEquals(1, log.getMessageCount(Direction.IN));
+      assertEquals(2, log.getMessageCount(Direction.OUT));
+      assertEquals(3, log.getByteCount(Direction.IN));
+      assertEquals(9 + longSysex.length, log.getByteCount(Direction.OUT));
+      assertEquals(1, log.getFlushCount());
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      log.writeTo(out);
+      final MidiTrafficLog readLog = MidiTrafficLog.readFrom(new ByteArrayInputStream(out.toByteArray()),
+         () -> 0);
+
+      assertEquals(log.getSize(), readLog.getSize());
+      assertEquals(1, readLog.getMessageCount(Direction.IN));
+      assertEquals(2, readLog.getMessageCount(Direction.OUT));
+      assertEquals(log.getByteCount(Direction.OUT), readLog.getByteCount(Direction.OUT));
+      assertEquals(1, readLog.getFlushCount());
+
+      final List<String> records = new ArrayList<>();
+      final List<byte[]> sysexData = new ArrayList<>();
+
+      readLog.accept(new MidiTrafficLog.Visitor()
+      {
+         @Override
+         public void midi(
+            final long timeMicros,
+            final Direction direction,
+            final int port,
+            final int status,
+            final int data1,
+            final int data2)
+         {
+            records.add(timeMicros + " " + direction + " " + port + " midi " + status + " " + data1 + " " + data2);
+         }
+
+         @Override
+         public void sysex(final long timeMicros, final Direction direction, final int port, final byte[] data)
+         {
+            records.add(timeMicros + " " + direction + " " + port + " sysex " + data.length);
+            sysexData.add(data.clone());
+         }
+
+         @Override
+         public void flush(final long timeMicros)
+         {
+            records.add(timeMicros + " flush");
+         }
+      });
+
+      assertEquals(List.of("5 IN 1 midi 144 60 100", "3000005 OUT 0 sysex 9", "3000005 OUT 31 sysex 300",
+         "3000205 flush"), records);
+      assertArrayEquals(new byte[] {(byte)0xF0, 0x00, 0x20, 0x29, 0x02, 0x10, 0x0E, 0x00, (byte)0xF7},
+         sysexData.get(0));
+      assertArrayEquals(longSysex, sysexData.get(1));
+   }
+
+   @Test
+   public void readingOtherDataFails()
+   {
+      final byte[] data = {'M', 'T', 'h', 'd', 0, 0, 0, 0, 0};
+
+      assertThrows(IOException.class, () -> MidiTrafficLog.readFrom(new ByteArrayInputStream(data), () -> 0));
+   }
+
+   private void advanceMicros(final long micros)
+   {
+      mNanos += micros * 1000;
+   }
+
+   private long mNanos = 1_000_000;
+}
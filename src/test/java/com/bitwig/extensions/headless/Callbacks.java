@@ -0,0 +1,152 @@
+package com.bitwig.extensions.headless;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invokes the callbacks that an extension passed to the fake API. Callbacks are lambdas or method references
+ * for one of the many callback interfaces of the API, so they are called through the single method of their
+ * interface that takes the supplied number of arguments, converting each argument to its parameter type.
+ */
+final class Callbacks
+{
+   private Callbacks()
+   {
+   }
+
+   /** @return The result of the callback, or null if it has no method taking that many arguments. */
+   static Object invoke(final Object callback, final Object... args)
+   {
+      final Method method = findMethod(callback.getClass(), args.length);
+
+      if (method == null)
+         return null;
+
+      final Class<?>[] parameterTypes = method.getParameterTypes();
+      final Object[] converted = new Object[args.length];
+
+      for (int i = 0; i < args.length; i++)
+         converted[i] = convert(args[i], parameterTypes[i]);
+
+      try
+      {
+         return method.invoke(callback, converted);
+      }
+      catch (final InvocationTargetException e)
+      {
+         final Throwable cause = e.getCause();
+
+         if (cause instanceof RuntimeException)
+            throw (RuntimeException)cause;
+
+         if (cause instanceof Error)
+            throw (Error)cause;
+
+         throw new IllegalStateException(cause);
+      }
+      catch (final IllegalAccessException e)
+      {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   static boolean hasMethod(final Object callback, final int argumentCount)
+   {
+      return findMethod(callback.getClass(), argumentCount) != null;
+   }
+
+   /** Converts a stored value to the type a callback or an API method expects. */
+   static Object convert(final Object value, final Class<?> type)
+   {
+      if (type == boolean.class || type == Boolean.class)
+      {
+         if (value instanceof Boolean)
+            return value;
+
+         return value instanceof Number && ((Number)value).doubleValue() != 0;
+      }
+
+      if (type == int.class || type == Integer.class)
+         return value instanceof Number ? ((Number)value).intValue() : value instanceof Boolean && (Boolean)value ? 1 : 0;
+
+      if (type == double.class || type == Double.class)
+         return value instanceof Number ? ((Number)value).doubleValue() : value instanceof Boolean && (Boolean)value ? 1.0 : 0.0;
+
+      if (type == float.class || type == Float.class)
+         return value instanceof Number ? ((Number)value).floatValue() : value instanceof Boolean && (Boolean)value ? 1.0f : 0.0f;
+
+      if (type == long.class || type == Long.class)
+         return value instanceof Number ? ((Number)value).longValue() : 0L;
+
+      if (type == String.class)
+         return value == null ? "" : String.valueOf(value);
+
+      if (type == String[].class)
+         return value instanceof String[] ? value : new String[0];
+
+      if (value != null && type.isInstance(value))
+         return value;
+
+      if (type.isPrimitive())
+         return convert(null, type);
+
+      return null;
+   }
+
+   private static Method findMethod(final Class<?> callbackClass, final int argumentCount)
+   {
+      Method[] methods = METHODS.get(callbackClass);
+
+      if (methods == null)
+      {
+         methods = new Method[MAX_ARGUMENTS + 1];
+
+         final List<Class<?>> interfaces = new ArrayList<>();
+         collectInterfaces(callbackClass, interfaces);
+
+         for (final Class<?> callbackInterface : interfaces)
+         {
+            for (final Method method : callbackInterface.getMethods())
+            {
+               final int count = method.getParameterCount();
+
+               if (Modifier.isStatic(method.getModifiers()) || count > MAX_ARGUMENTS)
+                  continue;
+
+               // The abstract method wins over default methods with the same number of parameters
+               if (methods[count] == null || methods[count].isDefault() && !method.isDefault())
+               {
+                  // Callback interfaces of the extensions themselves may not be public
+                  method.setAccessible(true);
+                  methods[count] = method;
+               }
+            }
+         }
+
+         METHODS.put(callbackClass, methods);
+      }
+
+      return argumentCount <= MAX_ARGUMENTS ? methods[argumentCount] : null;
+   }
+
+   private static void collectInterfaces(final Class<?> type, final List<Class<?>> interfaces)
+   {
+      for (Class<?> c = type; c != null; c = c.getSuperclass())
+      {
+         for (final Class<?> callbackInterface : c.getInterfaces())
+         {
+            if (!interfaces.contains(callbackInterface))
+               interfaces.add(callbackInterface);
+         }
+      }
+   }
+
+   private static final int MAX_ARGUMENTS = 4;
+
+   private static final Map<Class<?>, Method[]> METHODS = new HashMap<>();
+}
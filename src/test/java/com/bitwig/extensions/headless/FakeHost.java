@@ -0,0 +1,820 @@
+package com.bitwig.extensions.headless;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.ControllerExtensionDefinition;
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.HardwareSurface;
+
+/**
+ * Runs a controller extension outside of Bitwig Studio.
+ *
+ * The host implements the controller API with objects that remember their values and callbacks (see
+ * {@link FakeObjectHandler}), records everything sent to the MIDI output ports (see {@link FakeMidiOut}) and
+ * lets a session script change values, press buttons, move controls or inject MIDI, then flush the
+ * extension like the host does:
+ *
+ * <pre>
+ * final FakeHost host = new FakeHost();
+ * host.start(new LaunchpadProControllerExtensionDefinition());
+ * host.getMidiIn(0).sendMidi(0x90, 11, 127);
+ * host.flush();
+ * host.getMidiOut(0).getByteCount();
+ * </pre>
+ *
+ * Time is virtual: scheduled tasks run when the session calls {@link #advanceTime(long)}.
+ */
+public class FakeHost
+{
+   public FakeHost()
+   {
+      super();
+
+      final FakeObjectHandler hostHandler = new FakeObjectHandler(this, null, ControllerHost.class, "", null)
+      {
+         @Override
+         protected Object invokeSpecial(final Method method, final Object[] args)
+         {
+            return invokeHostMethod(method, args, this);
+         }
+      };
+
+      mHost = (ControllerHost)createProxy(hostHandler);
+   }
+
+   public ControllerHost getHost()
+   {
+      return mHost;
+   }
+
+   /** Creates the extension of the definition and initializes it, followed by a first flush. */
+   public ControllerExtension start(final ControllerExtensionDefinition definition)
+   {
+      assert mExtension == null;
+
+      mExtension = definition.createInstance(mHost);
+      mExtension.init();
+      flush();
+
+      return mExtension;
+   }
+
+   public ControllerExtension getExtension()
+   {
+      return mExtension;
+   }
+
+   public void stop()
+   {
+      mExtension.exit();
+      mExtension = null;
+   }
+
+   /** Flushes the extension, which usually ends with updating the hardware surface. */
+   public void flush()
+   {
+      mIsFlushRequested = false;
+      mExtension.flush();
+      mFlushCount++;
+   }
+
+   /** Flushes the extension if it requested a flush. */
+   public boolean flushIfRequested()
+   {
+      if (!mIsFlushRequested)
+         return false;
+
+      flush();
+      return true;
+   }
+
+   public boolean isFlushRequested()
+   {
+      return mIsFlushRequested;
+   }
+
+   public int getFlushCount()
+   {
+      return mFlushCount;
+   }
+
+   public int getFlushRequestCount()
+   {
+      return mFlushRequestCount;
+   }
+
+   /** Virtual time in milliseconds since the host was created. */
+   public long getTime()
+   {
+      return mTime;
+   }
+
+   /** Advances the virtual time, running the scheduled tasks that become due in order. */
+   public void advanceTime(final long milliseconds)
+   {
+      final long end = mTime + milliseconds;
+
+      while (!mTasks.isEmpty() && mTasks.peek().mDueTime <= end)
+      {
+         final ScheduledTask task = mTasks.poll();
+         mTime = Math.max(mTime, task.mDueTime);
+         task.mTask.run();
+      }
+
+      mTime = end;
+   }
+
+   public int getPendingTaskCount()
+   {
+      return mTasks.size();
+   }
+
+   public FakeMidiOut getMidiOut(final int port)
+   {
+      return mMidiOuts.computeIfAbsent(port, p -> {
+         final FakeMidiOut midiOut = new FakeMidiOut(this, p);
+         createProxy(midiOut);
+         return midiOut;
+      });
+   }
+
+   /** The output ports that were created so far. */
+   public Collection<FakeMidiOut> getMidiOuts()
+   {
+      return mMidiOuts.values();
+   }
+
+   public FakeMidiIn getMidiIn(final int port)
+   {
+      return mMidiIns.computeIfAbsent(port, p -> {
+         final FakeMidiIn midiIn = new FakeMidiIn(this, p);
+         createProxy(midiIn);
+         return midiIn;
+      });
+   }
+
+   /** Lines printed by the extension, popup notifications are prefixed with "popup: ". */
+   public List<String> getLog()
+   {
+      return mLog;
+   }
+
+   /** Also print the output of the extension to the console. */
+   public void setEcho(final boolean echo)
+   {
+      mIsEcho = echo;
+   }
+
+   /** Number of hardware surface updates and of hardware objects that changed in them. */
+   public int getHardwareUpdateCount()
+   {
+      return mHardwareUpdateCount;
+   }
+
+   public int getHardwareChangeCount()
+   {
+      return mHardwareChangeCount;
+   }
+
+   public static boolean isFake(final Object object)
+   {
+      return object != null && Proxy.isProxyClass(object.getClass())
+         && Proxy.getInvocationHandler(object) instanceof FakeObjectHandler;
+   }
+
+   /** The state behind an object of the fake API. */
+   public static FakeObjectHandler handler(final Object object)
+   {
+      if (!isFake(object))
+         throw new IllegalArgumentException("Not an object of the fake host: " + object);
+
+      return (FakeObjectHandler)Proxy.getInvocationHandler(object);
+   }
+
+   /**
+    * Changes a value as if it changed in Bitwig Studio, notifying the observers. Colors are given as array
+    * of red, green, blue and alpha floats.
+    */
+   public void setValue(final Object value, final Object newValue)
+   {
+      handler(value).setValue(newValue);
+   }
+
+   public void setColor(final Object colorValue, final float red, final float green, final float blue)
+   {
+      handler(colorValue).setValue(new float[] {red, green, blue, 1});
+   }
+
+   /** Calls all callbacks passed to a method of the object, for example "addStepDataObserver" of a clip. */
+   public void fireCallbacks(final Object object, final String methodName, final Object... args)
+   {
+      for (final Object callback : handler(object).getCallbacks(methodName))
+         Callbacks.invoke(callback, args);
+   }
+
+   /** Presses a hardware button, invoking what is bound to its pressed action. */
+   public void press(final Object button)
+   {
+      final FakeObjectHandler handler = handler(button);
+      handler(handler.child("isPressed")).setValue(true);
+      fireAction(handler.child("pressedAction"), 1);
+   }
+
+   public void release(final Object button)
+   {
+      final FakeObjectHandler handler = handler(button);
+      handler(handler.child("isPressed")).setValue(false);
+      fireAction(handler.child("releasedAction"), 0);
+   }
+
+   /** Moves an absolute hardware control such as a slider or knob to a normalized value. */
+   public void setControlValue(final Object control, final double value)
+   {
+      handler(handler(control).child("value")).setValue(value);
+
+      for (int i = 0; i < mBindings.size(); i++)
+      {
+         final Binding binding = mBindings.get(i);
+         final Object target = binding.getOther(control);
+
+         if (target != null)
+            adjustAbsolute(target, binding.mMin + value * (binding.mMax - binding.mMin));
+      }
+   }
+
+   /** Turns a relative hardware control such as an endless encoder. */
+   public void turn(final Object control, final double delta)
+   {
+      for (int i = 0; i < mBindings.size(); i++)
+      {
+         final Binding binding = mBindings.get(i);
+         final Object target = binding.getOther(control);
+
+         if (target != null)
+            adjustRelative(target, delta * binding.mSensitivity);
+      }
+   }
+
+   /** Invokes everything bound to a hardware action. */
+   public void fireAction(final Object action, final double pressure)
+   {
+      for (int i = 0; i < mBindings.size(); i++)
+      {
+         final Object target = mBindings.get(i).getOther(action);
+
+         if (target != null)
+            invokeBindable(target, pressure);
+      }
+   }
+
+   /** Number of bindings between hardware and targets that currently exist. */
+   public int getBindingCount()
+   {
+      return mBindings.size();
+   }
+
+   Object createObject(
+      final FakeObjectHandler parent,
+      final Class<?> type,
+      final String createdBy,
+      final Object[] args)
+   {
+      return createProxy(new FakeObjectHandler(this, parent, type, createdBy, args));
+   }
+
+   void registerHardware(final FakeObjectHandler handler)
+   {
+      if (!handler.mIsHardware)
+      {
+         handler.mIsHardware = true;
+         mHardware.add(handler);
+      }
+   }
+
+   /** Methods with a meaning for the host, called for every object before its generic behavior. */
+   Object invokeSpecial(final FakeObjectHandler handler, final Method method, final Object[] args)
+   {
+      final String name = method.getName();
+
+      switch (name)
+      {
+         case "setBinding":
+            removeBindings(handler.getProxy());
+            return addBinding(handler, method, args);
+
+         case "addBinding":
+         case "addBindingWithRange":
+         case "addBindingWithSensitivity":
+         case "addBindingWithRangeAndSensitivity":
+            return addBinding(handler, method, args);
+
+         case "clearBindings":
+            removeBindings(handler.getProxy());
+            return null;
+
+         case "removeBinding":
+            mBindings.removeIf(binding -> binding.mProxy == handler.getProxy());
+            return null;
+
+         case "setValueSupplier":
+         case "setColorSupplier":
+            handler.setSupplier(args[0]);
+            return null;
+
+         case "onUpdateHardware":
+            handler.addHardwareUpdateCallback(args[0]);
+            return null;
+
+         case "setValue":
+            if (!isHardwareProperty(handler))
+               return FakeObjectHandler.NOT_HANDLED;
+            handler.setValue(args[0]);
+            registerHardware(handler);
+            return null;
+
+         case "subscribe":
+            handler.mIsSubscribed = true;
+            return null;
+
+         case "unsubscribe":
+            handler.mIsSubscribed = false;
+            return null;
+
+         case "setIsSubscribed":
+            handler.mIsSubscribed = (Boolean)args[0];
+            return null;
+
+         case "isSubscribed":
+            return handler.mIsSubscribed;
+
+         case "currentValue":
+            if (!isHardwareProperty(handler))
+               return FakeObjectHandler.NOT_HANDLED;
+            return Callbacks.convert(handler.getValue(), method.getReturnType());
+
+         case "lastSentValue":
+         case "getLastSentValue":
+            if (!isHardwareProperty(handler))
+               return FakeObjectHandler.NOT_HANDLED;
+            return Callbacks.convert(handler.getLastSentValue(), method.getReturnType());
+
+         case "setActionMatcher":
+         case "setPressureActionMatcher":
+         case "setAdjustValueMatcher":
+            mMatchers.removeIf(matcher -> matcher[0] == handler.getProxy());
+            mMatchers.add(new Object[] {handler.getProxy(), args[0]});
+            return null;
+
+         case "updateHardware":
+            if (handler.getType() != HardwareSurface.class)
+               return FakeObjectHandler.NOT_HANDLED;
+            updateHardware();
+            return null;
+
+         case "createIsCCExpression":
+            return "(status == " + (0xB0 | (int)args[0]) + " && data1 == " + args[1] + ")";
+
+         case "createIsCCValueExpression":
+            return "(status == " + (0xB0 | (int)args[0]) + " && data1 == " + args[1] + " && data2 == " + args[2]
+               + ")";
+
+         case "createIsNoteOnExpression":
+            return "(status == " + (0x90 | (int)args[0]) + " && data1 == " + args[1] + ")";
+
+         case "createIsNoteOffExpression":
+            return "(status == " + (0x80 | (int)args[0]) + " && data1 == " + args[1] + ")";
+
+         default:
+            return FakeObjectHandler.NOT_HANDLED;
+      }
+   }
+
+   /**
+    * Offers a message received on a port to the hardware controls with matchers of that port.
+    *
+    * @return true if a control consumed the message.
+    */
+   boolean dispatchToHardware(final FakeMidiIn port, final int status, final int data1, final int data2)
+   {
+      boolean isConsumed = false;
+
+      for (int i = 0; i < mMatchers.size(); i++)
+      {
+         final Object target = mMatchers.get(i)[0];
+         final FakeObjectHandler matcher = handler(mMatchers.get(i)[1]);
+
+         if (root(matcher) != port)
+            continue;
+
+         final double value = match(matcher, status, data1, data2);
+
+         if (Double.isNaN(value))
+            continue;
+
+         isConsumed = true;
+
+         if (handler(target).getType().getSimpleName().equals("HardwareAction"))
+            fireHardwareAction(target, value);
+         else if (matcher.getCreatedBy().contains("Relative"))
+            turn(target, value);
+         else
+            setControlValue(target, value);
+      }
+
+      return isConsumed;
+   }
+
+   /** Fires an action of a hardware control, the pressed and released actions also update its state. */
+   private void fireHardwareAction(final Object action, final double pressure)
+   {
+      final FakeObjectHandler handler = handler(action);
+
+      if (handler.getParent() != null && handler.getCreatedBy().equals("pressedAction"))
+         handler(handler.getParent().child("isPressed")).setValue(true);
+      else if (handler.getParent() != null && handler.getCreatedBy().equals("releasedAction"))
+         handler(handler.getParent().child("isPressed")).setValue(false);
+
+      fireAction(action, pressure);
+   }
+
+   private Object invokeHostMethod(final Method method, final Object[] args, final FakeObjectHandler hostHandler)
+   {
+      switch (method.getName())
+      {
+         case "getMidiOutPort":
+            return getMidiOut((int)args[0]).getProxy();
+
+         case "getMidiInPort":
+            return getMidiIn((int)args[0]).getProxy();
+
+         case "scheduleTask":
+            if (args[0] instanceof Runnable)
+               mTasks.add(new ScheduledTask(mTime + ((Number)args[args.length - 1]).longValue(),
+                  mTaskCount++, (Runnable)args[0]));
+            return null;
+
+         case "requestFlush":
+            mIsFlushRequested = true;
+            mFlushRequestCount++;
+            return null;
+
+         case "println":
+         case "errorln":
+            log((String)args[0]);
+            return null;
+
+         case "showPopupNotification":
+            log("popup: " + args[0]);
+            return null;
+
+         default:
+            return invokeSpecial(hostHandler, method, args);
+      }
+   }
+
+   private void log(final String line)
+   {
+      mLog.add(line);
+
+      if (mIsEcho)
+         System.out.println(line);
+   }
+
+   private Object addBinding(final FakeObjectHandler handler, final Method method, final Object[] args)
+   {
+      final Binding binding = new Binding(handler.getProxy(), args[0]);
+
+      switch (method.getName())
+      {
+         case "addBindingWithRange":
+            binding.mMin = ((Number)args[1]).doubleValue();
+            binding.mMax = ((Number)args[2]).doubleValue();
+            break;
+
+         case "addBindingWithSensitivity":
+            binding.mSensitivity = ((Number)args[1]).doubleValue();
+            break;
+
+         case "addBindingWithRangeAndSensitivity":
+            binding.mMin = ((Number)args[1]).doubleValue();
+            binding.mMax = ((Number)args[2]).doubleValue();
+            binding.mSensitivity = ((Number)args[3]).doubleValue();
+            break;
+
+         default:
+            break;
+      }
+
+      mBindings.add(binding);
+
+      if (!method.getReturnType().isInterface())
+         return null;
+
+      binding.mProxy = createObject(handler, method.getReturnType(), method.getName(), args.clone());
+      return binding.mProxy;
+   }
+
+   private void removeBindings(final Object object)
+   {
+      mBindings.removeIf(binding -> binding.getOther(object) != null);
+   }
+
+   private void updateHardware()
+   {
+      mHardwareUpdateCount++;
+
+      for (int i = 0; i < mHardware.size(); i++)
+      {
+         if (mHardware.get(i).updateHardware())
+            mHardwareChangeCount++;
+      }
+   }
+
+   private void adjustAbsolute(final Object target, final double value)
+   {
+      if (!isFake(target))
+         return;
+
+      final FakeObjectHandler handler = handler(target);
+
+      if (handler.getCreatedBy().equals("createAbsoluteHardwareControlAdjustmentTarget"))
+         Callbacks.invoke(handler.getCreationArgs()[0], value);
+      else
+         handler.setValue(value);
+   }
+
+   private void adjustRelative(final Object target, final double delta)
+   {
+      if (!isFake(target))
+         return;
+
+      final FakeObjectHandler handler = handler(target);
+
+      switch (handler.getCreatedBy())
+      {
+         case "createRelativeHardwareControlAdjustmentTarget":
+            Callbacks.invoke(handler.getCreationArgs()[0], delta);
+            break;
+
+         case "createRelativeHardwareControlStepTarget":
+            if (delta != 0)
+               invokeBindable(handler.getCreationArgs()[delta > 0 ? 0 : 1], 1);
+            break;
+
+         default:
+            handler.setValue((Double)Callbacks.convert(handler.getValue(), double.class) + delta);
+            break;
+      }
+   }
+
+   /** Invokes an action created by the extension, toggles a boolean value or invokes any other action. */
+   private void invokeBindable(final Object bindable, final double pressure)
+   {
+      if (bindable == null)
+         return;
+
+      if (isFake(bindable) && handler(bindable).getCreatedBy().equals("createAction"))
+      {
+         final Object callback = handler(bindable).getCreationArgs()[0];
+
+         if (Callbacks.hasMethod(callback, 1))
+            Callbacks.invoke(callback, pressure);
+         else
+            Callbacks.invoke(callback);
+
+         return;
+      }
+
+      for (final String name : new String[] {"toggle", "invoke"})
+      {
+         try
+         {
+            bindable.getClass().getMethod(name).invoke(bindable);
+            return;
+         }
+         catch (final NoSuchMethodException e)
+         {
+            // Try the next one
+         }
+         catch (final ReflectiveOperationException e)
+         {
+            throw new IllegalStateException(e);
+         }
+      }
+   }
+
+   /** The value a matcher produces for a message, NaN if it does not match. */
+   private double match(final FakeObjectHandler matcher, final int status, final int data1, final int data2)
+   {
+      final Object[] args = matcher.getCreationArgs();
+
+      switch (matcher.getCreatedBy())
+      {
+         case "createNoteOnActionMatcher":
+            return status == (0x90 | intArg(args, 0)) && data1 == intArg(args, 1) && data2 > 0 ? data2 / 127.0
+               : Double.NaN;
+
+         case "createNoteOffActionMatcher":
+            return data1 == intArg(args, 1)
+               && (status == (0x80 | intArg(args, 0)) || status == (0x90 | intArg(args, 0)) && data2 == 0) ? 0
+                  : Double.NaN;
+
+         case "createCCActionMatcher":
+            return status == (0xB0 | intArg(args, 0)) && data1 == intArg(args, 1)
+               && (args.length < 3 || data2 == intArg(args, 2)) ? data2 / 127.0 : Double.NaN;
+
+         case "createActionMatcher":
+            return MidiExpression.parse((String)args[0]).matches(status, data1, data2) ? 1 : Double.NaN;
+
+         case "createAbsoluteCCValueMatcher":
+            return status == (0xB0 | intArg(args, 0)) && data1 == intArg(args, 1) ? data2 / 127.0 : Double.NaN;
+
+         case "createAbsolutePitchBendValueMatcher":
+            return status == (0xE0 | intArg(args, 0)) ? (data2 << 7 | data1) / 16383.0 : Double.NaN;
+
+         case "createNoteOnVelocityValueMatcher":
+            return status == (0x90 | intArg(args, 0)) && data1 == intArg(args, 1) && data2 > 0 ? data2 / 127.0
+               : Double.NaN;
+
+         case "createPolyAftertouchValueMatcher":
+            return status == (0xA0 | intArg(args, 0)) && data1 == intArg(args, 1) ? data2 / 127.0 : Double.NaN;
+
+         case "createRelative2sComplementCCValueMatcher":
+            return status == (0xB0 | intArg(args, 0)) && data1 == intArg(args, 1)
+               ? twosComplement(data2) / (double)intArg(args, 2) : Double.NaN;
+
+         case "createRelativeSignedBitCCValueMatcher":
+            return status == (0xB0 | intArg(args, 0)) && data1 == intArg(args, 1)
+               ? signedBit(data2) / (double)intArg(args, 2) : Double.NaN;
+
+         case "createRelative2sComplementValueMatcher":
+         case "createRelativeSignedBitValueMatcher":
+         {
+            final double value = match(handler(args[0]), status, data1, data2);
+
+            if (Double.isNaN(value))
+               return value;
+
+            final int raw = (int)Math.round(value * 127);
+            final int steps = intArg(args, 1);
+
+            return (matcher.getCreatedBy().contains("SignedBit") ? signedBit(raw) : twosComplement(raw))
+               / (double)steps;
+         }
+
+         case "createRelativeValueMatcher":
+            return MidiExpression.parse((String)args[0]).matches(status, data1, data2)
+               ? ((Number)args[1]).doubleValue() : Double.NaN;
+
+         case "createOrRelativeHardwareValueMatcher":
+         {
+            final double value = match(handler(args[0]), status, data1, data2);
+            return Double.isNaN(value) ? match(handler(args[1]), status, data1, data2) : value;
+         }
+
+         default:
+            return Double.NaN;
+      }
+   }
+
+   /** Properties of hardware lights and displays, which hold a value but have no observers. */
+   private static boolean isHardwareProperty(final FakeObjectHandler handler)
+   {
+      return handler.getType().getSimpleName().endsWith("HardwareProperty");
+   }
+
+   private static int intArg(final Object[] args, final int index)
+   {
+      return ((Number)args[index]).intValue();
+   }
+
+   private static int twosComplement(final int value)
+   {
+      return value < 64 ? value : value - 128;
+   }
+
+   private static int signedBit(final int value)
+   {
+      return (value & 0x40) != 0 ? -(value & 0x3F) : value & 0x3F;
+   }
+
+   private static FakeObjectHandler root(final FakeObjectHandler handler)
+   {
+      FakeObjectHandler root = handler;
+
+      while (root.getParent() != null)
+         root = root.getParent();
+
+      return root;
+   }
+
+   private static Object createProxy(final FakeObjectHandler handler)
+   {
+      final Class<?> type = handler.getType();
+      final Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+      handler.setProxy(proxy);
+      return proxy;
+   }
+
+   /** A binding between a hardware object and a target, in either direction. */
+   private static final class Binding
+   {
+      Binding(final Object first, final Object second)
+      {
+         mFirst = first;
+         mSecond = second;
+      }
+
+      Object getOther(final Object object)
+      {
+         if (mFirst == object)
+            return mSecond;
+
+         if (mSecond == object)
+            return mFirst;
+
+         return null;
+      }
+
+      private final Object mFirst;
+
+      private final Object mSecond;
+
+      double mMin = 0;
+
+      double mMax = 1;
+
+      double mSensitivity = 1;
+
+      /** The binding object returned to the extension. */
+      Object mProxy;
+   }
+
+   private static final class ScheduledTask implements Comparable<ScheduledTask>
+   {
+      ScheduledTask(final long dueTime, final long sequence, final Runnable task)
+      {
+         mDueTime = dueTime;
+         mSequence = sequence;
+         mTask = task;
+      }
+
+      @Override
+      public int compareTo(final ScheduledTask other)
+      {
+         if (mDueTime != other.mDueTime)
+            return Long.compare(mDueTime, other.mDueTime);
+
+         return Long.compare(mSequence, other.mSequence);
+      }
+
+      private final long mDueTime;
+
+      private final long mSequence;
+
+      private final Runnable mTask;
+   }
+
+   private final ControllerHost mHost;
+
+   private ControllerExtension mExtension;
+
+   private boolean mIsFlushRequested;
+
+   private int mFlushCount;
+
+   private int mFlushRequestCount;
+
+   private long mTime;
+
+   private long mTaskCount;
+
+   private final PriorityQueue<ScheduledTask> mTasks = new PriorityQueue<>();
+
+   private final Map<Integer, FakeMidiOut> mMidiOuts = new HashMap<>();
+
+   private final Map<Integer, FakeMidiIn> mMidiIns = new HashMap<>();
+
+   private final List<String> mLog = new ArrayList<>();
+
+   private boolean mIsEcho;
+
+   private final List<FakeObjectHandler> mHardware = new ArrayList<>();
+
+   private int mHardwareUpdateCount;
+
+   private int mHardwareChangeCount;
+
+   private final List<Binding> mBindings = new ArrayList<>();
+
+   /** Pairs of a hardware action or control and the matcher set on it. */
+   private final List<Object[]> mMatchers = new ArrayList<>();
+}
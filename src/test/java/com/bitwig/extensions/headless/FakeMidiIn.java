@@ -0,0 +1,62 @@
+package com.bitwig.extensions.headless;
+
+import java.lang.reflect.Method;
+
+import com.bitwig.extension.controller.api.MidiIn;
+
+/**
+ * MIDI input port of the {@link FakeHost}. Injected messages are first offered to the hardware controls
+ * whose matchers were created by this port, like the host does; messages that no control consumes are
+ * passed to the MIDI callback of the extension.
+ */
+public class FakeMidiIn extends FakeObjectHandler
+{
+   FakeMidiIn(final FakeHost host, final int port)
+   {
+      super(host, null, MidiIn.class, "getMidiInPort", new Object[] {port});
+   }
+
+   public MidiIn getMidiIn()
+   {
+      return (MidiIn)getProxy();
+   }
+
+   /** Injects a short message as if it was received from the controller. */
+   public void sendMidi(final int status, final int data1, final int data2)
+   {
+      if (mHost.dispatchToHardware(this, status, data1, data2))
+         return;
+
+      if (mMidiCallback != null)
+         Callbacks.invoke(mMidiCallback, status, data1, data2);
+   }
+
+   /** Injects a sysex message given as hex string, as the host passes it to the extension. */
+   public void sendSysex(final String hex)
+   {
+      if (mSysexCallback != null)
+         Callbacks.invoke(mSysexCallback, hex);
+   }
+
+   @Override
+   protected Object invokeSpecial(final Method method, final Object[] args)
+   {
+      switch (method.getName())
+      {
+         case "setMidiCallback":
+            mMidiCallback = args[0];
+            return null;
+
+         case "setSysexCallback":
+            mSysexCallback = args[0];
+            return null;
+
+         default:
+            return super.invokeSpecial(method, args);
+      }
+   }
+
+   private Object mMidiCallback;
+
+   private Object mSysexCallback;
+}
@@ -0,0 +1,154 @@
+package com.bitwig.extensions.headless;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.MidiTrafficLog;
+import com.bitwig.extensions.framework.MidiTrafficLog.Direction;
+
+/**
+ * MIDI output port of the {@link FakeHost}. Everything the extension sends is appended to a byte buffer as
+ * it would go over the wire: three bytes per short message and the complete sysex message, so the recorded
+ * traffic can be compared byte by byte or simply counted.
+ */
+public class FakeMidiOut extends FakeObjectHandler
+{
+   FakeMidiOut(final FakeHost host, final int port)
+   {
+      super(host, null, MidiOut.class, "getMidiOutPort", new Object[] {port});
+
+      mPort = port;
+   }
+
+   public MidiOut getMidiOut()
+   {
+      return (MidiOut)getProxy();
+   }
+
+   /** Number of short messages and sysex messages that were sent. */
+   public int getMessageCount()
+   {
+      return mMessageCount;
+   }
+
+   public int getSysexCount()
+   {
+      return mSysexCount;
+   }
+
+   public int getByteCount()
+   {
+      return mByteCount;
+   }
+
+   /** A copy of all bytes sent since the last {@link #clear()}. */
+   public byte[] toByteArray()
+   {
+      return Arrays.copyOf(mBytes, mByteCount);
+   }
+
+   /** Also records everything sent to this port into the log, or stops recording with null. */
+   public void setTrafficLog(final MidiTrafficLog log)
+   {
+      mTrafficLog = log;
+   }
+
+   public void clear()
+   {
+      mMessageCount = 0;
+      mSysexCount = 0;
+      mByteCount = 0;
+   }
+
+   @Override
+   protected Object invokeSpecial(final Method method, final Object[] args)
+   {
+      switch (method.getName())
+      {
+         case "sendMidi":
+            ensureCapacity(3);
+            mBytes[mByteCount++] = (byte)(int)args[0];
+            mBytes[mByteCount++] = (byte)(int)args[1];
+            mBytes[mByteCount++] = (byte)(int)args[2];
+            mMessageCount++;
+
+            if (mTrafficLog != null)
+               mTrafficLog.recordMidi(Direction.OUT, mPort, (int)args[0], (int)args[1], (int)args[2]);
+
+            return null;
+
+         case "sendSysex":
+            if (args[0] instanceof byte[])
+               appendSysex((byte[])args[0]);
+            else
+               appendSysex((String)args[0]);
+
+            if (mTrafficLog != null)
+            {
+               if (args[0] instanceof byte[])
+                  mTrafficLog.recordSysex(Direction.OUT, mPort, (byte[])args[0]);
+               else
+                  mTrafficLog.recordSysex(Direction.OUT, mPort, (String)args[0]);
+            }
+
+            mMessageCount++;
+            mSysexCount++;
+            return null;
+
+         default:
+            return super.invokeSpecial(method, args);
+      }
+   }
+
+   private void appendSysex(final byte[] data)
+   {
+      ensureCapacity(data.length);
+      System.arraycopy(data, 0, mBytes, mByteCount, data.length);
+      mByteCount += data.length;
+   }
+
+   /** Appends a sysex message given as hex string, spaces between the bytes are optional. */
+   private void appendSysex(final String hex)
+   {
+      ensureCapacity(hex.length() / 2);
+
+      int high = -1;
+
+      for (int i = 0; i < hex.length(); i++)
+      {
+         final int digit = Character.digit(hex.charAt(i), 16);
+
+         if (digit < 0)
+            continue;
+
+         if (high < 0)
+         {
+            high = digit;
+         }
+         else
+         {
+            mBytes[mByteCount++] = (byte)(high << 4 | digit);
+            high = -1;
+         }
+      }
+   }
+
+   private void ensureCapacity(final int additionalBytes)
+   {
+      if (mByteCount + additionalBytes > mBytes.length)
+         mBytes = Arrays.copyOf(mBytes, Math.max(mBytes.length * 2, mByteCount + additionalBytes));
+   }
+
+   private final int mPort;
+
+   private MidiTrafficLog mTrafficLog;
+
+   private byte[] mBytes = new byte[4096];
+
+   private int mByteCount;
+
+   private int mMessageCount;
+
+   private int mSysexCount;
+}
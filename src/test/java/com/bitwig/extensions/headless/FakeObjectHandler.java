@@ -0,0 +1,597 @@
+package com.bitwig.extensions.headless;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.bitwig.extension.api.Color;
+
+/**
+ * Implements any interface of the controller API for the {@link FakeHost}.
+ *
+ * Methods returning another API interface return a child object that is created on the first call and
+ * cached by method and arguments, so that for example <code>track.volume()</code> always returns the same
+ * object. Objects that have value observers hold a value that can be set by the extension or injected by
+ * the host, and notify their observers when it changes. All other methods do nothing and return a neutral
+ * value.
+ */
+public class FakeObjectHandler implements InvocationHandler
+{
+   /** Returned by {@link #invokeSpecial} when the call should get the generic behavior. */
+   static final Object NOT_HANDLED = new Object();
+
+   FakeObjectHandler(
+      final FakeHost host,
+      final FakeObjectHandler parent,
+      final Class<?> type,
+      final String createdBy,
+      final Object[] creationArgs)
+   {
+      super();
+
+      mHost = host;
+      mParent = parent;
+      mType = type;
+      mCreatedBy = createdBy;
+      mCreationArgs = creationArgs != null ? creationArgs : NO_ARGS;
+      mIsValue = hasMethod(type, "addValueObserver");
+
+      if (createdBy.endsWith("Setting") && mCreationArgs.length > 0)
+         mValue = initialSettingValue(mCreationArgs[mCreationArgs.length - 1]);
+   }
+
+   public Object getProxy()
+   {
+      return mProxy;
+   }
+
+   void setProxy(final Object proxy)
+   {
+      mProxy = proxy;
+   }
+
+   /** The object whose method created this object, null for the host. */
+   public FakeObjectHandler getParent()
+   {
+      return mParent;
+   }
+
+   public Class<?> getType()
+   {
+      return mType;
+   }
+
+   /** Name of the method that created this object. */
+   public String getCreatedBy()
+   {
+      return mCreatedBy;
+   }
+
+   public Object[] getCreationArgs()
+   {
+      return mCreationArgs;
+   }
+
+   public Object getValue()
+   {
+      return mValue;
+   }
+
+   /** Number of times a method without a special meaning was called, for example an action that was invoked. */
+   public int getInvocationCount()
+   {
+      return mInvocationCount;
+   }
+
+   /** Sets the value and notifies the observers if it changed. */
+   public void setValue(final Object value)
+   {
+      if (valueEquals(mValue, value))
+         return;
+
+      mValue = value;
+
+      for (final Object[] observer : mObservers)
+         notifyObserver(observer);
+   }
+
+   /** The child that the method with the given name and no arguments returns. */
+   public Object child(final String methodName)
+   {
+      for (final Method method : mType.getMethods())
+      {
+         if (method.getName().equals(methodName) && method.getParameterCount() == 0)
+            return invokeGeneric(method, NO_ARGS);
+      }
+
+      throw new IllegalArgumentException(mType.getSimpleName() + " has no method " + methodName + "()");
+   }
+
+   /** Callbacks that were passed to methods with the given name, for example "addStepDataObserver". */
+   public List<Object> getCallbacks(final String methodName)
+   {
+      final List<Object> callbacks = mCallbacks.get(methodName);
+      return callbacks != null ? callbacks : List.of();
+   }
+
+   List<Object> getHardwareUpdateCallbacks()
+   {
+      return mHardwareUpdateCallbacks;
+   }
+
+   Object getSupplier()
+   {
+      return mSupplier;
+   }
+
+   @Override
+   public Object invoke(final Object proxy, final Method method, final Object[] args)
+   {
+      final Object[] arguments = args != null ? args : NO_ARGS;
+
+      if (method.getDeclaringClass() == Object.class)
+         return invokeObjectMethod(method, arguments);
+
+      final Object result = invokeSpecial(method, arguments);
+
+      if (result != NOT_HANDLED)
+         return result;
+
+      if (mIsValue)
+      {
+         final Object valueResult = invokeValueMethod(method, arguments);
+
+         if (valueResult != NOT_HANDLED)
+            return valueResult;
+      }
+
+      return invokeGeneric(method, arguments);
+   }
+
+   /** Hook for the host, the MIDI ports and the hardware surface. */
+   protected Object invokeSpecial(final Method method, final Object[] args)
+   {
+      return mHost.invokeSpecial(this, method, args);
+   }
+
+   private Object invokeObjectMethod(final Method method, final Object[] args)
+   {
+      switch (method.getName())
+      {
+         case "equals":
+            return mProxy == args[0];
+
+         case "hashCode":
+            return System.identityHashCode(mProxy);
+
+         default:
+            return mType.getSimpleName() + "@" + mCreatedBy + Arrays.toString(mCreationArgs);
+      }
+   }
+
+   private Object invokeValueMethod(final Method method, final Object[] args)
+   {
+      final String name = method.getName();
+      final Class<?> returnType = method.getReturnType();
+
+      switch (name)
+      {
+         case "addValueObserver":
+            if (args.length == 1)
+               mObservers.add(new Object[] {args[0], null});
+            else if (args.length == 2 && args[0] instanceof Number)
+               mObservers.add(new Object[] {args[1], args[0]});
+            else if (args.length == 2)
+               mObservers.add(new Object[] {args[0], null});
+            return null;
+
+         case "get":
+         case "getRaw":
+         case "getAsInt":
+         case "getAsDouble":
+         case "getAsBoolean":
+         case "getAsLong":
+            if (args.length != 0)
+               return NOT_HANDLED;
+            return getValueAs(returnType);
+
+         case "getFormatted":
+         case "getLimited":
+         {
+            final String text = (String)Callbacks.convert(mValue, String.class);
+            return args.length == 1 && text.length() > (Integer)args[0] ? text.substring(0, (Integer)args[0]) : text;
+         }
+
+         case "red":
+            return component(0);
+
+         case "green":
+            return component(1);
+
+         case "blue":
+            return component(2);
+
+         case "alpha":
+            return mValue instanceof float[] ? component(3) : 1.0f;
+
+         case "set":
+         case "setValue":
+         case "setRaw":
+         case "setImmediately":
+            if (args.length == 1 && args[0] instanceof Color)
+            {
+               final Color color = (Color)args[0];
+               setValue(new float[] {(float)color.getRed(), (float)color.getGreen(), (float)color.getBlue(),
+                  (float)color.getAlpha()});
+            }
+            else if (args.length == 1)
+               setValue(args[0]);
+            else if (args.length == 2 && args[0] instanceof Number && args[1] instanceof Number)
+               setValue(((Number)args[0]).doubleValue() / (((Number)args[1]).doubleValue() - 1));
+            else if (args.length >= 3 && args[0] instanceof Number)
+               setValue(new float[] {((Number)args[0]).floatValue(), ((Number)args[1]).floatValue(),
+                  ((Number)args[2]).floatValue(), args.length > 3 ? ((Number)args[3]).floatValue() : 1.0f});
+            else
+               return NOT_HANDLED;
+            return null;
+
+         case "inc":
+         case "incRaw":
+            if (args.length == 1 && args[0] instanceof Number)
+               setValue(getDouble() + ((Number)args[0]).doubleValue());
+            else if (args.length == 2 && args[0] instanceof Number && args[1] instanceof Number)
+               setValue(getDouble() + ((Number)args[0]).doubleValue() / (((Number)args[1]).doubleValue() - 1));
+            else
+               return NOT_HANDLED;
+            return null;
+
+         case "toggle":
+            setValue(!(Boolean)Callbacks.convert(mValue, boolean.class));
+            return null;
+
+         case "reset":
+            setValue(null);
+            return null;
+
+         default:
+            return NOT_HANDLED;
+      }
+   }
+
+   private Object invokeGeneric(final Method method, final Object[] args)
+   {
+      final String name = method.getName();
+
+      for (final Object arg : args)
+      {
+         if (arg != null && isCallback(arg))
+            mCallbacks.computeIfAbsent(name, n -> new ArrayList<>()).add(arg);
+      }
+
+      final Class<?> returnType = resolveReturnType(method);
+
+      if (returnType == void.class)
+      {
+         mInvocationCount++;
+         return null;
+      }
+
+      if (returnType.isPrimitive())
+      {
+         if ((name.equals("getSizeOfBank") || name.equals("getCapacityOfBank")) && returnType == int.class)
+            return firstIntCreationArg();
+
+         return Callbacks.convert(null, returnType);
+      }
+
+      if (returnType == String.class)
+         return "";
+
+      if (returnType.isArray())
+         return Array.newInstance(returnType.getComponentType(), 0);
+
+      if (returnType.isEnum())
+         return returnType.getEnumConstants()[0];
+
+      if (!returnType.isInterface())
+         return null;
+
+      if (!isCacheable(args))
+         return mHost.createObject(this, returnType, name, args.clone());
+
+      final Object key = args.length == 0 ? method : new CallKey(method, args);
+      Object child = mChildren.get(key);
+
+      if (child == null)
+      {
+         child = mHost.createObject(this, returnType, name, args.clone());
+         mChildren.put(key, child);
+      }
+
+      return child;
+   }
+
+   void setSupplier(final Object supplier)
+   {
+      mSupplier = supplier;
+      mHost.registerHardware(this);
+   }
+
+   void addHardwareUpdateCallback(final Object callback)
+   {
+      mHardwareUpdateCallbacks.add(callback);
+      mHost.registerHardware(this);
+   }
+
+   /**
+    * Evaluates the supplier, if any, and calls the hardware update callbacks if the value differs from the
+    * value sent by the previous update, like the host does for hardware properties.
+    *
+    * @return true if the value changed.
+    */
+   boolean updateHardware()
+   {
+      if (mSupplier != null)
+         setValue(Callbacks.invoke(mSupplier));
+
+      if (mHasSentValue && valueEquals(mValue, mLastSentValue))
+         return false;
+
+      // The callbacks still see the previous value as the last sent value
+      for (final Object callback : mHardwareUpdateCallbacks)
+         Callbacks.invoke(callback, mValue);
+
+      mLastSentValue = mValue;
+      mHasSentValue = true;
+
+      return true;
+   }
+
+   Object getLastSentValue()
+   {
+      return mLastSentValue;
+   }
+
+   private void notifyObserver(final Object[] observer)
+   {
+      final Object callback = observer[0];
+      final Object range = observer[1];
+
+      if (range != null)
+      {
+         final int steps = ((Number)range).intValue();
+         Callbacks.invoke(callback, (int)Math.round(getDouble() * (steps - 1)));
+      }
+      else if (mValue instanceof float[] && Callbacks.hasMethod(callback, 3))
+      {
+         Callbacks.invoke(callback, component(0), component(1), component(2));
+      }
+      else if (Callbacks.hasMethod(callback, 1))
+      {
+         Callbacks.invoke(callback, mValue);
+      }
+      else
+      {
+         Callbacks.invoke(callback);
+      }
+   }
+
+   private Object getValueAs(final Class<?> type)
+   {
+      if (type == Color.class)
+         return Color.fromRGBA(component(0), component(1), component(2), mValue instanceof float[] ? component(3) : 1);
+
+      if (type == Object.class)
+         return mValue;
+
+      return Callbacks.convert(mValue, type);
+   }
+
+   private double getDouble()
+   {
+      return (Double)Callbacks.convert(mValue, double.class);
+   }
+
+   private float component(final int index)
+   {
+      return mValue instanceof float[] ? ((float[])mValue)[index] : 0;
+   }
+
+   private int firstIntCreationArg()
+   {
+      for (final Object arg : mCreationArgs)
+      {
+         if (arg instanceof Integer)
+            return (Integer)arg;
+      }
+
+      return 0;
+   }
+
+   /**
+    * The return type of the method for this object's type, resolving type variables such as the item type
+    * of a bank.
+    */
+   private Class<?> resolveReturnType(final Method method)
+   {
+      final Type genericType = method.getGenericReturnType();
+
+      if (genericType instanceof TypeVariable)
+      {
+         final Type resolved = resolveTypeVariable(mType, (TypeVariable<?>)genericType);
+
+         if (resolved instanceof Class)
+            return (Class<?>)resolved;
+
+         if (resolved instanceof ParameterizedType)
+            return (Class<?>)((ParameterizedType)resolved).getRawType();
+      }
+
+      return method.getReturnType();
+   }
+
+   private static Type resolveTypeVariable(final Class<?> type, final TypeVariable<?> variable)
+   {
+      final Map<TypeVariable<?>, Type> arguments = new HashMap<>();
+      collectTypeArguments(type, arguments);
+
+      Type resolved = variable;
+
+      while (resolved instanceof TypeVariable && arguments.containsKey(resolved))
+         resolved = arguments.get(resolved);
+
+      return resolved;
+   }
+
+   private static void collectTypeArguments(final Class<?> type, final Map<TypeVariable<?>, Type> arguments)
+   {
+      for (final Type superInterface : type.getGenericInterfaces())
+      {
+         if (superInterface instanceof ParameterizedType)
+         {
+            final ParameterizedType parameterized = (ParameterizedType)superInterface;
+            final Class<?> raw = (Class<?>)parameterized.getRawType();
+            final TypeVariable<?>[] parameters = raw.getTypeParameters();
+
+            for (int i = 0; i < parameters.length; i++)
+               arguments.put(parameters[i], parameterized.getActualTypeArguments()[i]);
+
+            collectTypeArguments(raw, arguments);
+         }
+         else if (superInterface instanceof Class)
+         {
+            collectTypeArguments((Class<?>)superInterface, arguments);
+         }
+      }
+   }
+
+   private static boolean hasMethod(final Class<?> type, final String name)
+   {
+      for (final Method method : type.getMethods())
+      {
+         if (method.getName().equals(name))
+            return true;
+      }
+
+      return false;
+   }
+
+   private static boolean isCacheable(final Object[] args)
+   {
+      for (final Object arg : args)
+      {
+         if (arg != null && !(arg instanceof Number || arg instanceof String || arg instanceof Boolean
+            || arg instanceof Enum || arg instanceof Character))
+            return false;
+      }
+
+      return true;
+   }
+
+   /** Lambdas and other objects of the extension implementing an interface, but not objects of the fake API. */
+   private static boolean isCallback(final Object arg)
+   {
+      final Class<?> type = arg.getClass();
+
+      return !FakeHost.isFake(arg) && !type.isArray() && !type.getName().startsWith("java.")
+         && type.getInterfaces().length > 0;
+   }
+
+   private static Object initialSettingValue(final Object initial)
+   {
+      if (initial instanceof Number || initial instanceof Boolean || initial instanceof String)
+         return initial;
+
+      return null;
+   }
+
+   private static boolean valueEquals(final Object a, final Object b)
+   {
+      if (a instanceof float[] && b instanceof float[])
+         return Arrays.equals((float[])a, (float[])b);
+
+      if (a instanceof Object[] && b instanceof Object[])
+         return Arrays.equals((Object[])a, (Object[])b);
+
+      return Objects.equals(a, b);
+   }
+
+   /** Key of a child returned by a method with arguments. */
+   private static final class CallKey
+   {
+      CallKey(final Method method, final Object[] args)
+      {
+         mMethod = method;
+         mArgs = args.clone();
+      }
+
+      @Override
+      public boolean equals(final Object obj)
+      {
+         if (!(obj instanceof CallKey))
+            return false;
+
+         final CallKey other = (CallKey)obj;
+         return mMethod.equals(other.mMethod) && Arrays.equals(mArgs, other.mArgs);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return mMethod.hashCode() * 31 + Arrays.hashCode(mArgs);
+      }
+
+      private final Method mMethod;
+
+      private final Object[] mArgs;
+   }
+
+   private static final Object[] NO_ARGS = new Object[0];
+
+   protected final FakeHost mHost;
+
+   private final FakeObjectHandler mParent;
+
+   private final Class<?> mType;
+
+   private final String mCreatedBy;
+
+   private final Object[] mCreationArgs;
+
+   private final boolean mIsValue;
+
+   private Object mProxy;
+
+   private Object mValue;
+
+   private int mInvocationCount;
+
+   /** Observer callbacks, each with the range of an integer observer or null. */
+   private final List<Object[]> mObservers = new ArrayList<>();
+
+   private final Map<Object, Object> mChildren = new HashMap<>();
+
+   private final Map<String, List<Object>> mCallbacks = new HashMap<>();
+
+   private Object mSupplier;
+
+   private Object mLastSentValue;
+
+   private boolean mHasSentValue;
+
+   private final List<Object> mHardwareUpdateCallbacks = new ArrayList<>();
+
+   /** Set by the host once this object is in its list of hardware to update. */
+   boolean mIsHardware;
+
+   boolean mIsSubscribed;
+}
@@ -0,0 +1,27 @@
+package com.bitwig.extensions.headless;
+
+import com.bitwig.extension.controller.ControllerExtension;
+
+/** An extension without any behavior, for running framework classes that need one on a {@link FakeHost}. */
+public class HeadlessExtension extends ControllerExtension
+{
+   public HeadlessExtension(final FakeHost host)
+   {
+      super(null, host.getHost());
+   }
+
+   @Override
+   public void init()
+   {
+   }
+
+   @Override
+   public void exit()
+   {
+   }
+
+   @Override
+   public void flush()
+   {
+   }
+}
@@ -0,0 +1,189 @@
+package com.bitwig.extensions.headless;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Evaluates the MIDI expressions used by action matchers, for example
+ * <code>status == 0x90 &amp;&amp; data1 == 5 &amp;&amp; data2 &gt; 0</code>. Supports the variables status, data1
+ * and data2, decimal and hexadecimal numbers, comparisons, &amp;&amp;, || and ! and parentheses.
+ */
+final class MidiExpression
+{
+   private interface Node
+   {
+      int evaluate(int status, int data1, int data2);
+   }
+
+   private MidiExpression(final String text)
+   {
+      super();
+
+      mText = text;
+      mRoot = parseOr();
+      skipSpaces();
+
+      if (mPosition != mText.length())
+         throw error();
+   }
+
+   /** Parses the expression, expressions are cached as the same strings are evaluated for every message. */
+   static MidiExpression parse(final String text)
+   {
+      MidiExpression expression = CACHE.get(text);
+
+      if (expression == null)
+      {
+         expression = new MidiExpression(text);
+         CACHE.put(text, expression);
+      }
+
+      return expression;
+   }
+
+   boolean matches(final int status, final int data1, final int data2)
+   {
+      return mRoot.evaluate(status, data1, data2) != 0;
+   }
+
+   private Node parseOr()
+   {
+      Node node = parseAnd();
+
+      while (consume("||"))
+      {
+         final Node left = node;
+         final Node right = parseAnd();
+         node = (s, d1, d2) -> left.evaluate(s, d1, d2) != 0 || right.evaluate(s, d1, d2) != 0 ? 1 : 0;
+      }
+
+      return node;
+   }
+
+   private Node parseAnd()
+   {
+      Node node = parseComparison();
+
+      while (consume("&&"))
+      {
+         final Node left = node;
+         final Node right = parseComparison();
+         node = (s, d1, d2) -> left.evaluate(s, d1, d2) != 0 && right.evaluate(s, d1, d2) != 0 ? 1 : 0;
+      }
+
+      return node;
+   }
+
+   private Node parseComparison()
+   {
+      final Node left = parsePrimary();
+
+      for (final String operator : COMPARISONS)
+      {
+         if (consume(operator))
+         {
+            final Node right = parsePrimary();
+
+            switch (operator)
+            {
+               case "==":
+                  return (s, d1, d2) -> left.evaluate(s, d1, d2) == right.evaluate(s, d1, d2) ? 1 : 0;
+               case "!=":
+                  return (s, d1, d2) -> left.evaluate(s, d1, d2) != right.evaluate(s, d1, d2) ? 1 : 0;
+               case "<=":
+                  return (s, d1, d2) -> left.evaluate(s, d1, d2) <= right.evaluate(s, d1, d2) ? 1 : 0;
+               case ">=":
+                  return (s, d1, d2) -> left.evaluate(s, d1, d2) >= right.evaluate(s, d1, d2) ? 1 : 0;
+               case "<":
+                  return (s, d1, d2) -> left.evaluate(s, d1, d2) < right.evaluate(s, d1, d2) ? 1 : 0;
+               default:
+                  return (s, d1, d2) -> left.evaluate(s, d1, d2) > right.evaluate(s, d1, d2) ? 1 : 0;
+            }
+         }
+      }
+
+      return left;
+   }
+
+   private Node parsePrimary()
+   {
+      skipSpaces();
+
+      if (consume("("))
+      {
+         final Node node = parseOr();
+
+         if (!consume(")"))
+            throw error();
+
+         return node;
+      }
+
+      if (consume("!"))
+      {
+         final Node node = parsePrimary();
+         return (s, d1, d2) -> node.evaluate(s, d1, d2) == 0 ? 1 : 0;
+      }
+
+      if (consume("status"))
+         return (s, d1, d2) -> s;
+
+      if (consume("data1"))
+         return (s, d1, d2) -> d1;
+
+      if (consume("data2"))
+         return (s, d1, d2) -> d2;
+
+      final int start = mPosition;
+
+      while (mPosition < mText.length() && Character.isLetterOrDigit(mText.charAt(mPosition)))
+         mPosition++;
+
+      final String number = mText.substring(start, mPosition);
+
+      try
+      {
+         final int value = number.startsWith("0x") || number.startsWith("0X")
+            ? Integer.parseInt(number.substring(2), 16) : Integer.parseInt(number);
+
+         return (s, d1, d2) -> value;
+      }
+      catch (final NumberFormatException e)
+      {
+         throw error();
+      }
+   }
+
+   private boolean consume(final String token)
+   {
+      skipSpaces();
+
+      if (!mText.startsWith(token, mPosition))
+         return false;
+
+      mPosition += token.length();
+      return true;
+   }
+
+   private void skipSpaces()
+   {
+      while (mPosition < mText.length() && Character.isWhitespace(mText.charAt(mPosition)))
+         mPosition++;
+   }
+
+   private IllegalArgumentException error()
+   {
+      return new IllegalArgumentException("Unsupported MIDI expression at " + mPosition + ": " + mText);
+   }
+
+   /** Longer operators first, so that "<=" is not taken for "<". */
+   private static final String[] COMPARISONS = {"==", "!=", "<=", ">=", "<", ">"};
+
+   private static final Map<String, MidiExpression> CACHE = new HashMap<>();
+
+   private final String mText;
+
+   private int mPosition;
+
+   private final Node mRoot;
+}
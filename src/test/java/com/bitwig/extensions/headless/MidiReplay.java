@@ -0,0 +1,280 @@
+package com.bitwig.extensions.headless;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.bitwig.extension.controller.ControllerExtensionDefinition;
+import com.bitwig.extensions.framework.Histogram;
+import com.bitwig.extensions.framework.MidiTrafficLog;
+import com.bitwig.extensions.framework.MidiTrafficLog.Direction;
+
+/**
+ * Replays the incoming MIDI of a {@link MidiTrafficLog}, usually captured in a real session, against an
+ * extension running on a {@link FakeHost} and measures what the extension sends back.
+ *
+ * Messages are injected at their recorded time: the virtual clock of the host is advanced to the time of
+ * each message, so scheduled tasks run as they did in the session. After each message the extension is
+ * flushed, as the host does after passing on incoming MIDI, and also wherever the recording has a flush
+ * mark. Outgoing messages of the recording are ignored; the output of the replay can be recorded into a new
+ * log with {@link #setOutputLog(MidiTrafficLog)} to compare versions of a driver.
+ *
+ * <pre>
+ * java com.bitwig.extensions.headless.MidiReplay &lt;definition class&gt; &lt;input log&gt; [output log]
+ * </pre>
+ */
+public class MidiReplay
+{
+   /** Measurements of one replay. */
+   public static class Result
+   {
+      public int getInputMessageCount()
+      {
+         return mInputMessageCount;
+      }
+
+      public int getOutputMessageCount()
+      {
+         return mOutputMessageCount;
+      }
+
+      public long getOutputByteCount()
+      {
+         return mOutputByteCount;
+      }
+
+      /** Wall clock time spent in the extension, handling input, running tasks and flushing. */
+      public long getElapsedNanos()
+      {
+         return mElapsedNanos;
+      }
+
+      /** Input messages the extension handled per second of wall clock time. */
+      public double getMessagesPerSecond()
+      {
+         return mElapsedNanos == 0 ? 0 : mInputMessageCount * 1e9 / mElapsedNanos;
+      }
+
+      public Histogram getFlushNanos()
+      {
+         return mFlushNanos;
+      }
+
+      public Histogram getBytesPerFlush()
+      {
+         return mBytesPerFlush;
+      }
+
+      public Histogram getMessagesPerFlush()
+      {
+         return mMessagesPerFlush;
+      }
+
+      @Override
+      public String toString()
+      {
+         return String.format("input: %d messages, %.0f messages/s%noutput: %d messages, %d bytes%n%s%n%s%n%s",
+            mInputMessageCount, getMessagesPerSecond(), mOutputMessageCount, mOutputByteCount, mFlushNanos,
+            mBytesPerFlush, mMessagesPerFlush);
+      }
+
+      private int mInputMessageCount;
+
+      private int mOutputMessageCount;
+
+      private long mOutputByteCount;
+
+      private long mElapsedNanos;
+
+      private final Histogram mFlushNanos = new Histogram("flush", "ns");
+
+      private final Histogram mBytesPerFlush = new Histogram("bytes per flush", "bytes");
+
+      private final Histogram mMessagesPerFlush = new Histogram("messages per flush", "messages");
+   }
+
+   public MidiReplay(final FakeHost host)
+   {
+      super();
+
+      mHost = host;
+   }
+
+   /** Records the output of the extension during the replay, timed by the virtual clock of the host. */
+   public void setOutputLog(final MidiTrafficLog outputLog)
+   {
+      mOutputLog = outputLog;
+   }
+
+   /** Replays the incoming messages of the log against the extension the host was started with. */
+   public Result replay(final MidiTrafficLog log)
+   {
+      final Result result = new Result();
+      final long startTime = mHost.getTime();
+
+      // Output of the start of the extension is not part of the replay
+      takeOutput(result, false);
+
+      log.accept(new MidiTrafficLog.Visitor()
+      {
+         @Override
+         public void midi(
+            final long timeMicros,
+            final Direction direction,
+            final int port,
+            final int status,
+            final int data1,
+            final int data2)
+         {
+            if (direction != Direction.IN)
+               return;
+
+            advanceTo(result, startTime + timeMicros / 1000);
+
+            final long start = System.nanoTime();
+            mHost.getMidiIn(port).sendMidi(status, data1, data2);
+            result.mElapsedNanos += System.nanoTime() - start;
+            result.mInputMessageCount++;
+
+            MidiReplay.this.flush(result);
+         }
+
+         @Override
+         public void sysex(final long timeMicros, final Direction direction, final int port, final byte[] data)
+         {
+            if (direction != Direction.IN)
+               return;
+
+            advanceTo(result, startTime + timeMicros / 1000);
+
+            final String hex = toHex(data);
+            final long start = System.nanoTime();
+            mHost.getMidiIn(port).sendSysex(hex);
+            result.mElapsedNanos += System.nanoTime() - start;
+            result.mInputMessageCount++;
+
+            MidiReplay.this.flush(result);
+         }
+
+         @Override
+         public void flush(final long timeMicros)
+         {
+            advanceTo(result, startTime + timeMicros / 1000);
+            MidiReplay.this.flush(result);
+         }
+      });
+
+      return result;
+   }
+
+   private void advanceTo(final Result result, final long time)
+   {
+      if (time <= mHost.getTime())
+         return;
+
+      final long start = System.nanoTime();
+      mHost.advanceTime(time - mHost.getTime());
+      result.mElapsedNanos += System.nanoTime() - start;
+   }
+
+   private void flush(final Result result)
+   {
+      // Messages sent while handling input or from tasks are counted, but not attributed to the flush
+      takeOutput(result, true);
+
+      final long start = System.nanoTime();
+      mHost.flush();
+      final long duration = System.nanoTime() - start;
+
+      result.mElapsedNanos += duration;
+      result.mFlushNanos.add(duration);
+
+      final long bytes = result.mOutputByteCount;
+      final int messages = result.mOutputMessageCount;
+      takeOutput(result, true);
+      result.mBytesPerFlush.add(result.mOutputByteCount - bytes);
+      result.mMessagesPerFlush.add(result.mOutputMessageCount - messages);
+
+      if (mOutputLog != null)
+         mOutputLog.markFlush();
+   }
+
+   /** Adds the output since the last call to the result and clears the ports. */
+   private void takeOutput(final Result result, final boolean count)
+   {
+      for (final FakeMidiOut midiOut : mHost.getMidiOuts())
+      {
+         if (count)
+         {
+            result.mOutputMessageCount += midiOut.getMessageCount();
+            result.mOutputByteCount += midiOut.getByteCount();
+         }
+
+         midiOut.clear();
+         midiOut.setTrafficLog(mOutputLog);
+      }
+   }
+
+   private static String toHex(final byte[] data)
+   {
+      final char[] chars = new char[data.length * 2];
+
+      for (int i = 0; i < data.length; i++)
+      {
+         chars[i * 2] = HEX_DIGITS[data[i] >> 4 & 0xF];
+         chars[i * 2 + 1] = HEX_DIGITS[data[i] & 0xF];
+      }
+
+      return new String(chars);
+   }
+
+   public static void main(final String[] args) throws Exception
+   {
+      if (args.length < 2)
+      {
+         System.err.println("Usage: MidiReplay <definition class> <input log> [output log]");
+         System.exit(1);
+      }
+
+      final ControllerExtensionDefinition definition = (ControllerExtensionDefinition)Class.forName(args[0])
+         .getDeclaredConstructor().newInstance();
+
+      final MidiTrafficLog input;
+
+      try (InputStream in = new BufferedInputStream(new FileInputStream(args[1])))
+      {
+         input = MidiTrafficLog.readFrom(in, System::nanoTime);
+      }
+
+      final FakeHost host = new FakeHost();
+      host.setEcho(false);
+      host.start(definition);
+
+      final MidiReplay replay = new MidiReplay(host);
+      final MidiTrafficLog output = new MidiTrafficLog(() -> host.getTime() * 1_000_000);
+
+      if (args.length > 2)
+         replay.setOutputLog(output);
+
+      System.out.println(replay.replay(input));
+
+      if (args.length > 2)
+      {
+         try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[2])))
+         {
+            output.writeTo(out);
+         }
+      }
+
+      host.stop();
+   }
+
+   private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+   private final FakeHost mHost;
+
+   private MidiTrafficLog mOutputLog;
+}